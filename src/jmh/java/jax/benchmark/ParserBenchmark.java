@@ -0,0 +1,93 @@
+package jax.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import jax.command.CommandRegistry;
+import jax.contact.Contact;
+import jax.main.Jax;
+import jax.main.JaxException;
+import jax.main.ParsedCommand;
+import jax.main.Parser;
+import jax.storage.Storage;
+import jax.task.Deadline;
+import jax.task.Event;
+
+/**
+ * Measures parsing of single input lines, the work done for every message the user sends.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParserBenchmark {
+
+    private final String commandLine = "deadline return book /by 2024-03-01 1800";
+    private final ParsedCommand deadlineInput = Parser.parse(commandLine, new ParsedCommand());
+    private final ParsedCommand eventInput =
+            Parser.parse("event project meeting /from 2024-03-01 1400 /to 2024-03-01 1600", new ParsedCommand());
+    private final ParsedCommand contactInput =
+            Parser.parse("contact Alice Tan /p 91234567 /e alice@example.com", new ParsedCommand());
+    private final String markLine = "mark 42";
+    private final ParsedCommand parsed = new ParsedCommand();
+
+    private Path directory;
+    /** The chatbot's own command table, so that resolution is measured over the keywords it really has. */
+    private CommandRegistry commands;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("jax-bench");
+        commands = new Jax(new Storage(directory.resolve("tasks.txt").toString(),
+                directory.resolve("contacts.txt").toString())).getCommands();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        StorageBenchmark.deleteDirectory(directory);
+    }
+
+    /** Resolves the command word of a line as the chatbot does before running the command. */
+    @Benchmark
+    public String resolveCommand() {
+        return commands.resolveName(Parser.parse(commandLine, parsed));
+    }
+
+    /** Parses into a reused view, as the chatbot does for each line; should not allocate. */
+    @Benchmark
+    public int parseMarkIntoView() throws JaxException {
+        return Parser.parse(markLine, parsed).parseIntArgument(0);
+    }
+
+    /** Parses a whole deadline line through the reused view. */
+    @Benchmark
+    public Deadline parseDeadlineLine() throws JaxException {
+        return Parser.parseDeadline(Parser.parse(commandLine, parsed));
+    }
+
+    @Benchmark
+    public Deadline parseDeadline() throws JaxException {
+        return Parser.parseDeadline(deadlineInput);
+    }
+
+    @Benchmark
+    public Event parseEvent() throws JaxException {
+        return Parser.parseEvent(eventInput);
+    }
+
+    @Benchmark
+    public Contact parseContact() throws JaxException {
+        return Parser.parseContact(contactInput);
+    }
+}
@@ -0,0 +1,85 @@
+package jax.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jax.main.JaxException;
+import jax.storage.Durability;
+import jax.storage.Storage;
+import jax.task.Task;
+
+/**
+ * Measures saving and loading the task file at increasing sizes.
+ * Saves are not forced to the disk, so that the results reflect encoding and copying rather than the device.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private Path directory;
+    private Storage storage;
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, JaxException {
+        directory = Files.createTempDirectory("jax-bench");
+        storage = new Storage(directory.resolve("tasks.txt").toString(),
+                directory.resolve("contacts.txt").toString());
+        storage.setDurability(Durability.NONE);
+        tasks = TaskFixtures.tasks(size);
+        storage.saveTasks(tasks);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public void saveTasks() throws JaxException {
+        storage.saveTasks(tasks);
+    }
+
+    /** Opens the file only; records are decoded when they are first read. */
+    @Benchmark
+    public List<Task> loadTasks() throws JaxException {
+        return storage.loadTasks();
+    }
+
+    /** Opens the file and reads every task, as a full listing would. */
+    @Benchmark
+    public void loadTasksAndReadAll(Blackhole blackhole) throws JaxException {
+        for (Task task : storage.loadTasks()) {
+            blackhole.consume(task);
+        }
+    }
+
+    static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package jax.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import jax.task.Deadline;
+import jax.task.Event;
+import jax.task.Task;
+import jax.task.Todo;
+
+/**
+ * Generates reproducible task lists for the benchmarks.
+ * Tasks cycle through todos, deadlines and events with descriptions drawn from a small vocabulary,
+ * and dates spread over two years starting at {@link #FIRST_DAY}.
+ */
+final class TaskFixtures {
+
+    /** Start of the period that generated dates fall in. */
+    static final LocalDateTime FIRST_DAY = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    private static final String[] WORDS = {
+        "read", "book", "return", "phone", "submit", "report", "pay", "rent", "project", "meeting",
+        "groceries", "laundry", "lecture", "tutorial", "assignment", "dentist", "gym", "call", "mum", "review",
+    };
+    private static final int DAYS = 730;
+
+    private TaskFixtures() {
+    }
+
+    /**
+     * Returns the given number of tasks, the same for every call with the same size.
+     */
+    static List<Task> tasks(int size) {
+        Random random = new Random(size);
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String description = WORDS[random.nextInt(WORDS.length)] + " "
+                    + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            LocalDateTime time = FIRST_DAY.plusDays(random.nextInt(DAYS)).plusMinutes(random.nextInt(600));
+            Task task;
+            switch (i % 3) {
+            case 0:
+                task = new Todo(description);
+                break;
+            case 1:
+                task = new Deadline(description, time);
+                break;
+            default:
+                task = new Event(description, time, time.plusDays(random.nextInt(3)));
+                break;
+            }
+            if (random.nextInt(4) == 0) {
+                task.markTask();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
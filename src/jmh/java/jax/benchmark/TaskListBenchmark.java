@@ -0,0 +1,79 @@
+package jax.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import jax.main.JaxException;
+import jax.storage.Storage;
+import jax.task.TaskList;
+
+/**
+ * Measures the read-only task list commands over lists of increasing size.
+ * The indexes are built during setup, so the results show the cost of a lookup rather than of the first one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskListBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private Path directory;
+    private TaskList tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, JaxException {
+        directory = Files.createTempDirectory("jax-bench");
+        Storage storage = new Storage(directory.resolve("tasks.txt").toString(),
+                directory.resolve("contacts.txt").toString());
+        tasks = new TaskList(TaskFixtures.tasks(size), storage);
+        tasks.findTasks("book");
+        tasks.printTasksByDate(new String[] {"remind", "2024-06-01"});
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        StorageBenchmark.deleteDirectory(directory);
+    }
+
+    /** Keyword long enough to go through the trigram index. */
+    @Benchmark
+    public String findTasksIndexed() throws JaxException {
+        return tasks.findTasks("report");
+    }
+
+    /** Keyword too short for the index, which falls back to a scan. */
+    @Benchmark
+    public String findTasksScan() throws JaxException {
+        return tasks.findTasks("gy");
+    }
+
+    @Benchmark
+    public String printTasksByDate() throws JaxException {
+        return tasks.printTasksByDate(new String[] {"remind", "2024-06-01"});
+    }
+
+    @Benchmark
+    public String printTasksByDateRange() throws JaxException {
+        return tasks.printTasksByDate(new String[] {"remind", "2024-06-01 2024-06-07"});
+    }
+
+    @Benchmark
+    public String printTasks() {
+        return tasks.printTasks();
+    }
+}
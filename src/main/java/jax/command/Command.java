@@ -1,23 +0,0 @@
-package jax.command;
-
-/**
- * Enum of Jax commands accepted.
- */
-public enum Command {
-    HELLO,
-    BYE,
-    LIST,
-    MARK,
-    UNMARK,
-    DELETE,
-    TODO,
-    DEADLINE,
-    EVENT,
-    REMIND,
-    FIND,
-    HELP,
-    CLEAR,
-    CONTACT,
-    CONTACTS,
-    DELCONTACT,
-}
@@ -0,0 +1,19 @@
+package jax.command;
+
+import jax.main.JaxException;
+import jax.main.ParsedCommand;
+
+/**
+ * Carries out one kind of command. Handlers are registered with a {@link CommandRegistry} under a keyword.
+ */
+@FunctionalInterface
+public interface CommandHandler {
+
+    /**
+     * Handles a line whose first word named this command.
+     * @param input The parsed line; {@link ParsedCommand#getArguments()} holds everything after the command word.
+     * @return The response shown to the user.
+     * @throws JaxException If the arguments are missing or invalid.
+     */
+    String handle(ParsedCommand input) throws JaxException;
+}
@@ -0,0 +1,263 @@
+package jax.command;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import jax.main.JaxException;
+import jax.main.ParsedCommand;
+import jax.metrics.LatencyHistogram;
+import jax.metrics.Metrics;
+
+/**
+ * Maps command keywords to the handlers that carry them out.
+ * Keywords are kept in a sorted array and matched against the start of the input line in place, ignoring case,
+ * so resolving a command allocates nothing and an unknown word is reported without throwing internally.
+ * A word that is not a keyword still resolves if it is the start of exactly one command's keywords,
+ * e.g. {@code dead} for {@code deadline}, unless the command was registered with {@link #registerExact} because it
+ * ends the session or deletes data. Commands can be registered at any time, including by code outside
+ * this project, and the time spent in each command is recorded in a histogram unless metrics are disabled.
+ */
+public class CommandRegistry {
+
+    /** Response to a word that matches no command. */
+    public static final String UNKNOWN_COMMAND = "Error - Invalid Input.";
+
+    /**
+     * A registered command with its running statistics.
+     */
+    private static class Entry {
+        private final String name;
+        private final String usage;
+        private final CommandHandler handler;
+        /** Whether the command only runs when one of its keywords is typed in full. */
+        private final boolean isExactOnly;
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        Entry(String name, String usage, CommandHandler handler, boolean isExactOnly) {
+            this.name = name;
+            this.usage = usage;
+            this.handler = handler;
+            this.isExactOnly = isExactOnly;
+        }
+    }
+
+    /**
+     * Every keyword and alias in lower case, sorted, with the command of each.
+     * A table is never changed once published; registering a command replaces it.
+     */
+    private static class Table {
+        private final String[] keywords;
+        private final Entry[] entries;
+
+        Table(String[] keywords, Entry[] entries) {
+            this.keywords = keywords;
+            this.entries = entries;
+        }
+    }
+
+    /** Commands in the order they were registered. */
+    private final ArrayList<Entry> entries = new ArrayList<>();
+    private volatile Table table = new Table(new String[0], new Entry[0]);
+
+    /**
+     * Registers a command.
+     * @param name The command's keyword, in lower case.
+     * @param usage Line describing the command in the help message, or null to leave it out of the help.
+     * @param handler Carries out the command.
+     * @param aliases Further keywords for the same command, in lower case.
+     * @throws IllegalArgumentException If a keyword is malformed or already registered.
+     */
+    public void register(String name, String usage, CommandHandler handler, String... aliases) {
+        add(new Entry(name, usage, handler, false), aliases);
+    }
+
+    /**
+     * Registers a command that only runs when its name or an alias is typed in full, for commands that end the
+     * session or delete data, which must not run on a slip of the keyboard. A prefix of its keywords is answered
+     * with an error instead.
+     * @param name The command's keyword, in lower case.
+     * @param usage Line describing the command in the help message, or null to leave it out of the help.
+     * @param handler Carries out the command.
+     * @param aliases Further keywords for the same command, in lower case.
+     * @throws IllegalArgumentException If a keyword is malformed or already registered.
+     */
+    public void registerExact(String name, String usage, CommandHandler handler, String... aliases) {
+        add(new Entry(name, usage, handler, true), aliases);
+    }
+
+    private synchronized void add(Entry entry, String[] aliases) {
+        String name = entry.name;
+        ArrayList<String> newKeywords = new ArrayList<>(Arrays.asList(table.keywords));
+        ArrayList<Entry> newEntries = new ArrayList<>(Arrays.asList(table.entries));
+        for (String keyword : prepend(name, aliases)) {
+            if (keyword.isEmpty() || keyword.indexOf(' ') >= 0 || !keyword.equals(keyword.toLowerCase())) {
+                throw new IllegalArgumentException("Command keywords must be single lower-case words: " + keyword);
+            }
+            int at = Collections.binarySearch(newKeywords, keyword);
+            if (at >= 0) {
+                throw new IllegalArgumentException("Command already registered: " + keyword);
+            }
+            newKeywords.add(-at - 1, keyword);
+            newEntries.add(-at - 1, entry);
+        }
+        entries.add(entry);
+        table = new Table(newKeywords.toArray(new String[0]), newEntries.toArray(new Entry[0]));
+    }
+
+    /**
+     * Runs the command named by the first word of the line.
+     * @param input The parsed line.
+     * @return The command's response, or an error message if the word names no command or several.
+     * @throws JaxException If the command rejects its arguments.
+     */
+    public String dispatch(ParsedCommand input) throws JaxException {
+        Table current = table;
+        String line = input.getLine();
+        int length = input.getCommandWordLength();
+
+        Entry entry = resolve(current, line, length);
+        if (entry == null) {
+            return describeMismatch(current, line, length);
+        }
+
+        if (!Metrics.IS_ENABLED) {
+            return entry.handler.handle(input);
+        }
+        long start = System.nanoTime();
+        try {
+            return entry.handler.handle(input);
+        } finally {
+            entry.latency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the name of the command that {@link #dispatch(ParsedCommand)} would run for the line, so that
+     * callers reacting to a command, such as {@code bye}, recognise it by the same keywords and aliases.
+     * @return The command's name, or null if the word names no command or several.
+     */
+    public String resolveName(ParsedCommand input) {
+        Entry entry = resolve(table, input.getLine(), input.getCommandWordLength());
+        return entry == null ? null : entry.name;
+    }
+
+    /**
+     * Returns the usage line of every command that has one, in registration order.
+     */
+    public synchronized List<String> getUsages() {
+        List<String> usages = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.usage != null) {
+                usages.add(entry.usage);
+            }
+        }
+        return usages;
+    }
+
+    /**
+     * Returns how often each command has run and how long it took, in registration order.
+     * The counts stay at 0 if metrics are disabled.
+     */
+    public synchronized List<CommandStats> getStats() {
+        List<CommandStats> stats = new ArrayList<>();
+        for (Entry entry : entries) {
+            LatencyHistogram latency = entry.latency;
+            stats.add(new CommandStats(entry.name, latency.getCount(), latency.getTotal(), latency.getMax(),
+                    latency.getValueAtPercentile(50), latency.getValueAtPercentile(99)));
+        }
+        return stats;
+    }
+
+    /**
+     * Finds the command for the word at the start of the line: the one with that exact keyword,
+     * or else the only command with a keyword starting with the word.
+     * A command registered with {@link #registerExact} is only found by a whole keyword, though its keywords still
+     * make a prefix ambiguous.
+     * @return The command, or null if there is none or more than one.
+     */
+    private static Entry resolve(Table table, String line, int length) {
+        if (length == 0) {
+            return null;
+        }
+        String[] keywords = table.keywords;
+        Entry[] entries = table.entries;
+        int first = lowerBound(keywords, line, length);
+        Entry match = null;
+        for (int i = first; i < keywords.length && startsWith(keywords[i], line, length); i++) {
+            if (keywords[i].length() == length) {
+                return entries[i];
+            }
+            if (match != null && match != entries[i]) {
+                return null;
+            }
+            match = entries[i];
+        }
+        return match == null || match.isExactOnly ? null : match;
+    }
+
+    /**
+     * Builds the error message for a word that names no command or is the start of several.
+     */
+    private static String describeMismatch(Table table, String line, int length) {
+        if (length == 0) {
+            return UNKNOWN_COMMAND;
+        }
+        String[] keywords = table.keywords;
+        LinkedHashSet<String> candidates = new LinkedHashSet<>();
+        for (int i = lowerBound(keywords, line, length); i < keywords.length; i++) {
+            if (!startsWith(keywords[i], line, length)) {
+                break;
+            }
+            candidates.add(table.entries[i].name);
+        }
+        if (candidates.isEmpty()) {
+            return UNKNOWN_COMMAND;
+        }
+        if (candidates.size() == 1) {
+            return "Error - Type " + candidates.iterator().next() + " in full to use it.";
+        }
+        return "Error - Ambiguous command. Did you mean: " + String.join(", ", candidates) + "?";
+    }
+
+    /**
+     * Returns the index of the first keyword not less than the word, compared ignoring case.
+     */
+    private static int lowerBound(String[] keywords, String line, int length) {
+        int low = 0;
+        int high = keywords.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(keywords[mid], line, length) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(String keyword, String line, int length) {
+        int common = Math.min(keyword.length(), length);
+        for (int i = 0; i < common; i++) {
+            int diff = keyword.charAt(i) - Character.toLowerCase(line.charAt(i));
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return keyword.length() - length;
+    }
+
+    private static boolean startsWith(String keyword, String line, int length) {
+        return keyword.length() >= length && line.regionMatches(true, 0, keyword, 0, length);
+    }
+
+    private static String[] prepend(String first, String[] rest) {
+        String[] all = new String[rest.length + 1];
+        all[0] = first;
+        System.arraycopy(rest, 0, all, 1, rest.length);
+        return all;
+    }
+}
@@ -0,0 +1,81 @@
+package jax.command;
+
+/**
+ * Snapshot of how often a command has run and how long it took.
+ */
+public class CommandStats {
+
+    private final String name;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long medianNanos;
+    private final long p99Nanos;
+
+    /**
+     * Creates a snapshot of a command's statistics.
+     */
+    public CommandStats(String name, long count, long totalNanos, long maxNanos, long medianNanos, long p99Nanos) {
+        this.name = name;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.medianNanos = medianNanos;
+        this.p99Nanos = p99Nanos;
+    }
+
+    /**
+     * Getter for the command's keyword.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of times the command has run.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the total time spent in the command, in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Returns the longest single run of the command, in nanoseconds.
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Returns the median time per run in nanoseconds, to within the precision of the histogram.
+     */
+    public long getMedianNanos() {
+        return medianNanos;
+    }
+
+    /**
+     * Returns the time that 99% of runs did not exceed, in nanoseconds, to within the precision of the histogram.
+     */
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    /**
+     * Returns the mean time per run in nanoseconds, or 0 if the command has not run.
+     */
+    public long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + count + " runs, mean " + getMeanNanos() / 1000 + "us, p50 " + medianNanos / 1000
+                + "us, p99 " + p99Nanos / 1000 + "us, max " + maxNanos / 1000 + "us";
+    }
+}
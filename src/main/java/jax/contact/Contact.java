@@ -8,6 +8,9 @@ import java.io.Serializable;
  */
 public class Contact implements Serializable {
 
+    /** Kept equal to the value of the original class so that old save files can still be migrated. */
+    private static final long serialVersionUID = -6268764254118774368L;
+
     /** The name of the contact. */
     protected String name;
     /** The contact number of the contact. */
@@ -41,6 +44,13 @@ public class Contact implements Serializable {
         return this.contactNumber;
     }
 
+    /**
+     * Getter for email address.
+     */
+    public String getEmail() {
+        return this.email;
+    }
+
     /**
      * Returns the string representation of the Contact.
      * @return A string in the format "<name> <contact number> <email>".
@@ -2,18 +2,36 @@ package jax.contact;
 
 import java.io.Serializable;
 import java.util.HashMap;
+import java.util.List;
 
 import jax.main.JaxException;
 import jax.storage.Storage;
 
 /**
  * Contains the contact list and operations to modify it (add, delete, mark, find).
+ * Contacts are listed and searched in name order through a sorted index built on first use.
+ * Hash indexes on the normalized phone number and email find the owner of either in constant time,
+ * and stop a second contact from taking a number or email that is already in use.
  */
 @SuppressWarnings("FieldMayBeFinal")
 public class ContactList implements Serializable {
 
+    /** Greatest number of contacts shown for a prefix search; a longer prefix narrows the rest down. */
+    static final int MAX_MATCHES_SHOWN = 50;
+
     private HashMap<String, Contact> contacts;
     private Storage storage;
+    /** Contacts sorted by name, built on the first listing or search and then kept up to date. */
+    private transient NameIndex nameIndex;
+    /** Contacts by normalized phone number. */
+    private transient HashMap<String, Contact> byPhone;
+    /** Contacts by normalized email. */
+    private transient HashMap<String, Contact> byEmail;
+    /**
+     * Whether the saved data had contacts sharing a phone number or email, in which case the indexes hold only
+     * one of each and removing that one must hand the number or email on to another.
+     */
+    private transient boolean hasSharedDetails;
 
     /**
      * Instantiates a new ContactList object from the current tasks.
@@ -22,6 +40,7 @@ public class ContactList implements Serializable {
     public ContactList(Storage storage) {
         this.contacts = new HashMap<>();
         this.storage = storage;
+        reindex();
     }
 
     /**
@@ -32,24 +51,132 @@ public class ContactList implements Serializable {
     public ContactList(HashMap<String, Contact> contacts, Storage storage) {
         this.contacts = contacts;
         this.storage = storage;
+        reindex();
+    }
+
+    /**
+     * Builds the phone and email indexes from the contacts, e.g. after loading them.
+     * If saved data already has two contacts sharing a number or email, the first one found keeps it
+     * until it is removed.
+     */
+    private void reindex() {
+        byPhone = new HashMap<>(contacts.size() * 2);
+        byEmail = new HashMap<>(contacts.size() * 2);
+        hasSharedDetails = false;
+        for (Contact contact : contacts.values()) {
+            hasSharedDetails |= byPhone.putIfAbsent(normalizePhone(contact.getPhoneNumber()), contact) != null;
+            hasSharedDetails |= byEmail.putIfAbsent(normalizeEmail(contact.getEmail()), contact) != null;
+        }
+    }
+
+    /**
+     * Reduces a phone number to its digits, keeping a leading plus sign, so that spacing and dashes do not matter.
+     * A "number" without digits is kept as typed, in lower case.
+     */
+    static String normalizePhone(String phone) {
+        String trimmed = phone.trim();
+        StringBuilder sb = new StringBuilder(trimmed.length());
+        boolean hasDigits = false;
+        if (trimmed.startsWith("+")) {
+            sb.append('+');
+        }
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (Character.isDigit(c)) {
+                sb.append(c);
+                hasDigits = true;
+            }
+        }
+        return hasDigits ? sb.toString() : trimmed.toLowerCase();
+    }
+
+    /**
+     * Lower-cases an email address, since addresses are compared without regard to case.
+     */
+    static String normalizeEmail(String email) {
+        return email.trim().toLowerCase();
+    }
+
+    /**
+     * Returns the index of contacts by name, building it if needed.
+     */
+    private NameIndex nameIndex() {
+        if (nameIndex == null) {
+            nameIndex = new NameIndex(contacts);
+        }
+        return nameIndex;
     }
 
     /**
      * Helper function to link ContactList to storage.
      */
     private void saveToStorage() throws JaxException {
-        storage.saveContacts(contacts);
+        storage.logContactsChanged(contacts);
     }
 
     /**
      * Uses the Contact's name as the unique key for the HashMap.
+     * A contact with the same name is replaced.
+     * @throws JaxException If another contact already has the same phone number or email.
      */
     public String insertContact(Contact contact) throws JaxException {
-        contacts.put(contact.getName().trim().toLowerCase(), contact);
+        putContact(contact);
         saveToStorage();
         return String.format("Added: %s\nTotal contacts: %d", contact, contacts.size());
     }
 
+    /**
+     * Inserts many contacts with a single save, e.g. when importing them. Each contact is checked as by
+     * {@link #insertContact(Contact)}, and one that is rejected does not stop the rest.
+     * @return For each contact, null if it was inserted or the reason it was rejected.
+     */
+    public String[] insertContacts(List<Contact> batch) throws JaxException {
+        String[] rejections = new String[batch.size()];
+        boolean isChanged = false;
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                putContact(batch.get(i));
+                isChanged = true;
+            } catch (JaxException e) {
+                rejections[i] = e.getMessage();
+            }
+        }
+        if (isChanged) {
+            saveToStorage();
+        }
+        return rejections;
+    }
+
+    /**
+     * Puts a contact into the map and indexes without saving.
+     * @throws JaxException If another contact already has the same phone number or email.
+     */
+    private void putContact(Contact contact) throws JaxException {
+        String key = contact.getName().trim().toLowerCase();
+        String phone = normalizePhone(contact.getPhoneNumber());
+        String email = normalizeEmail(contact.getEmail());
+        Contact phoneOwner = byPhone.get(phone);
+        if (phoneOwner != null && !isSameName(phoneOwner, key)) {
+            throw new JaxException("Error - " + phoneOwner.getName() + " already has the phone number "
+                    + contact.getPhoneNumber() + ".");
+        }
+        Contact emailOwner = byEmail.get(email);
+        if (emailOwner != null && !isSameName(emailOwner, key)) {
+            throw new JaxException("Error - " + emailOwner.getName() + " already has the email "
+                    + contact.getEmail() + ".");
+        }
+
+        Contact replaced = contacts.put(key, contact);
+        if (replaced != null) {
+            removeFromIndexes(replaced);
+        }
+        byPhone.put(phone, contact);
+        byEmail.put(email, contact);
+        if (nameIndex != null) {
+            nameIndex.put(key, contact);
+        }
+    }
+
     /**
      * Deletes by name (Key) rather than index, which is more efficient for HashMaps.
      */
@@ -64,6 +191,10 @@ public class ContactList implements Serializable {
         int initialSize = contacts.size();
 
         Contact removed = contacts.remove(input);
+        removeFromIndexes(removed);
+        if (nameIndex != null) {
+            nameIndex.remove(input);
+        }
         saveToStorage();
 
         assert contacts.size() == initialSize - 1 : "Contact list size did not decrease after deletion";
@@ -71,6 +202,46 @@ public class ContactList implements Serializable {
         return ("Noted. Removed: " + removed);
     }
 
+    /**
+     * Finds the contact with a phone number or email, telling the two apart by the {@code @} of an email.
+     * @param phoneOrEmail The phone number or email, in any spacing or case.
+     */
+    public String findOwner(String phoneOrEmail) {
+        boolean isEmail = phoneOrEmail.indexOf('@') >= 0;
+        Contact owner = isEmail
+                ? byEmail.get(normalizeEmail(phoneOrEmail))
+                : byPhone.get(normalizePhone(phoneOrEmail));
+        if (owner == null) {
+            return "No contact has the " + (isEmail ? "email " : "phone number ") + phoneOrEmail + ".";
+        }
+        return "That belongs to: " + owner;
+    }
+
+    /**
+     * Removes a contact's phone number and email from the indexes, unless they point to another contact.
+     * If saved data had other contacts sharing them, one of those is indexed in its place.
+     */
+    private void removeFromIndexes(Contact contact) {
+        String phone = normalizePhone(contact.getPhoneNumber());
+        String email = normalizeEmail(contact.getEmail());
+        boolean isPhoneFreed = byPhone.remove(phone, contact);
+        boolean isEmailFreed = byEmail.remove(email, contact);
+        if (hasSharedDetails && (isPhoneFreed || isEmailFreed)) {
+            for (Contact other : contacts.values()) {
+                if (isPhoneFreed && normalizePhone(other.getPhoneNumber()).equals(phone)) {
+                    byPhone.putIfAbsent(phone, other);
+                }
+                if (isEmailFreed && normalizeEmail(other.getEmail()).equals(email)) {
+                    byEmail.putIfAbsent(email, other);
+                }
+            }
+        }
+    }
+
+    private static boolean isSameName(Contact contact, String key) {
+        return contact.getName().trim().toLowerCase().equals(key);
+    }
+
     /**
      * Getter for all contacts in the HashMap.
      * @return Collection object of all contacts.
@@ -80,17 +251,74 @@ public class ContactList implements Serializable {
     }
 
     /**
-     * Prints all tasks currently in the list formatted as a numbered list.
+     * Prints all contacts, in name order, formatted as a numbered list.
      */
     public String printContacts() {
-        if (contacts.isEmpty()) {
+        return formatContacts(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Prints one page of the contacts, in name order, as a numbered list, so that long lists are shown
+     * in bounded chunks.
+     * @param start Zero-based position of the first contact to show.
+     * @param count Greatest number of contacts to show.
+     * @throws JaxException If there are contacts but none at the start position.
+     */
+    public String printContacts(int start, int count) throws JaxException {
+        String page = formatContacts(start, count);
+        if (page == null) {
+            throw new JaxException("Error - Nothing more to show. There are " + contacts.size() + " contacts.");
+        }
+        return page;
+    }
+
+    /**
+     * Formats the contacts in a range of positions, or returns null if the range starts past the last contact.
+     */
+    private String formatContacts(int start, int count) {
+        int size = contacts.size();
+        if (size == 0) {
             return "Contact list is empty.";
         }
-        StringBuilder sb = new StringBuilder("Here are the contacts in your list:\n");
-        int i = 1;
-        for (Contact c : contacts.values()) {
-            sb.append(i++).append(". ").append(c).append("\n");
+        if (start >= size) {
+            return null;
+        }
+        int end = count >= size - start ? size : start + count;
+        StringBuilder sb = new StringBuilder(start == 0 && end == size
+                ? "Here are the contacts in your list:"
+                : "Here are contacts " + (start + 1) + "-" + end + " of " + size + ":");
+        NameIndex index = nameIndex();
+        for (int i = start; i < end; i++) {
+            sb.append("\n").append(i + 1).append(". ").append(index.get(i));
+        }
+        if (end < size) {
+            sb.append("\nType \"contacts next\" to see more.");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Finds the contacts whose name starts with the given text, ignoring case, in name order.
+     * At most {@link #MAX_MATCHES_SHOWN} contacts are shown, followed by the number left out.
+     * @param prefix The start of the name.
+     */
+    public String findContacts(String prefix) {
+        String lowerPrefix = prefix.toLowerCase();
+        NameIndex index = nameIndex();
+        int first = index.firstWithPrefix(lowerPrefix);
+        int end = index.endOfPrefix(lowerPrefix);
+        if (first == end) {
+            return "No contacts found starting with \"" + prefix + "\".";
+        }
+
+        StringBuilder sb = new StringBuilder("Here are the contacts starting with \"" + prefix + "\":");
+        int shownEnd = Math.min(end, first + MAX_MATCHES_SHOWN);
+        for (int i = first; i < shownEnd; i++) {
+            sb.append("\n").append(i - first + 1).append(". ").append(index.get(i));
+        }
+        if (shownEnd < end) {
+            sb.append("\n...and ").append(end - shownEnd).append(" more. Type more of the name to narrow the search.");
         }
-        return sb.toString().trim();
+        return sb.toString();
     }
 }
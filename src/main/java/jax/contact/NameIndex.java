@@ -0,0 +1,93 @@
+package jax.contact;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Contacts sorted by their lower-case name, kept in parallel arrays.
+ * The contacts starting with a prefix form one run of the arrays, found with two binary searches,
+ * so a prefix lookup takes O(log n + k) and any position of the sorted list can be read directly for paging.
+ * Adding or removing a contact shifts the tail of the arrays, which is a single memory move.
+ */
+class NameIndex {
+
+    private final ArrayList<String> keys;
+    private final ArrayList<Contact> contacts;
+
+    /**
+     * Creates an index over contacts keyed by their lower-case name.
+     */
+    NameIndex(Map<String, Contact> byKey) {
+        TreeMap<String, Contact> sorted = new TreeMap<>(byKey);
+        keys = new ArrayList<>(sorted.keySet());
+        contacts = new ArrayList<>(sorted.values());
+    }
+
+    /**
+     * Adds a contact, or replaces the contact with the same key.
+     */
+    void put(String key, Contact contact) {
+        int at = Collections.binarySearch(keys, key);
+        if (at >= 0) {
+            contacts.set(at, contact);
+        } else {
+            keys.add(-at - 1, key);
+            contacts.add(-at - 1, contact);
+        }
+    }
+
+    /**
+     * Removes the contact with the given key, if any.
+     */
+    void remove(String key) {
+        int at = Collections.binarySearch(keys, key);
+        if (at >= 0) {
+            keys.remove(at);
+            contacts.remove(at);
+        }
+    }
+
+    /**
+     * Returns the number of contacts indexed.
+     */
+    int size() {
+        return keys.size();
+    }
+
+    /**
+     * Returns the contact at a position in name order.
+     */
+    Contact get(int index) {
+        return contacts.get(index);
+    }
+
+    /**
+     * Returns the position of the first contact whose key starts with the prefix,
+     * or the position where such a contact would go if there is none.
+     */
+    int firstWithPrefix(String prefix) {
+        int at = Collections.binarySearch(keys, prefix);
+        return at >= 0 ? at : -at - 1;
+    }
+
+    /**
+     * Returns the position after the last contact whose key starts with the prefix.
+     * Keys starting with the prefix sort directly after the prefix itself, so they end at the first later key
+     * that does not start with it.
+     */
+    int endOfPrefix(String prefix) {
+        int low = firstWithPrefix(prefix);
+        int high = keys.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys.get(mid).startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
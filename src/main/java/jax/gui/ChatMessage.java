@@ -0,0 +1,34 @@
+package jax.gui;
+
+/**
+ * One message in the chat transcript: its text and whether the user or Jax sent it.
+ */
+public class ChatMessage {
+
+    private final String text;
+    private final boolean isFromUser;
+
+    /**
+     * Creates a message.
+     * @param text The text of the message.
+     * @param isFromUser True if the user sent the message, false if Jax did.
+     */
+    public ChatMessage(String text, boolean isFromUser) {
+        this.text = text;
+        this.isFromUser = isFromUser;
+    }
+
+    /**
+     * Getter for the text of the message.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Returns true if the user sent the message, false if Jax did.
+     */
+    public boolean isFromUser() {
+        return isFromUser;
+    }
+}
@@ -1,17 +1,10 @@
 package jax.gui;
 
-import java.io.IOException;
 import java.net.URL;
-import java.util.Collections;
-import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
@@ -20,63 +13,88 @@ import javafx.scene.layout.HBox;
 /**
  * Represents a dialog box consisting of an ImageView to represent the speaker's face
  * and a label containing text from the speaker.
+ * The box is built in code rather than loaded from FXML, and one box can be refilled with another message,
+ * so the transcript only keeps as many boxes as it has visible cells.
  */
 public class DialogBox extends HBox {
 
-    @SuppressWarnings("unused")
-    @FXML
-    private Label dialog;
-    @SuppressWarnings("unused")
-    @FXML
-    private ImageView displayPicture;
-
     private static final Logger logger = Logger.getLogger(DialogBox.class.getName());
 
-    private DialogBox(String text, Image img) {
+    /** Location of the dialog box stylesheet, looked up once. Null if the file is missing. */
+    private static final String STYLESHEET = findStylesheet();
 
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/views/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
+    private static final double PICTURE_SIZE = 50.0;
 
-            URL cssUrl = this.getClass().getResource("/css/dialogbox.css");
-            if (cssUrl != null) {
-                this.getStylesheets().add(cssUrl.toExternalForm());
-            } else {
-                logger.warning("CSS file not found. Check path loadout: /css/dialogbox.css");
-            }
+    private final Label dialog = new Label();
+    private final ImageView displayPicture = new ImageView();
+    private boolean isFromUser = true;
 
-        } catch (IOException e) {
-            logger.log(Level.SEVERE, "Failed to load DialogBox FXML.", e);
-        } catch (NullPointerException e) {
-            System.out.println("Error: CSS file not found. Check path loadout");
-        }
+    /**
+     * Creates an empty dialog box laid out for a user message.
+     */
+    public DialogBox() {
+        setAlignment(Pos.BOTTOM_RIGHT);
+        setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        setSpacing(10.0);
+        setPadding(new Insets(15.0, 5.0, 15.0, 5.0));
 
-        dialog.setText(text);
-        displayPicture.setImage(img);
+        dialog.setWrapText(true);
+        dialog.setMinHeight(Label.USE_PREF_SIZE);
+        dialog.getStyleClass().add("user-label");
+
+        displayPicture.setId("displayPicture");
+        displayPicture.setFitHeight(PICTURE_SIZE);
+        displayPicture.setFitWidth(PICTURE_SIZE);
+        displayPicture.setPickOnBounds(true);
+        displayPicture.setPreserveRatio(true);
+
+        getChildren().addAll(dialog, displayPicture);
     }
 
     /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
+     * Returns the location of the stylesheet for dialog boxes, or null if it is missing.
+     * It is meant to be added once to the control holding the boxes rather than to every box.
      */
-    private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(tmp);
-        getChildren().setAll(tmp);
-        setAlignment(Pos.BOTTOM_LEFT);
+    public static String getStylesheet() {
+        return STYLESHEET;
     }
 
-    public static DialogBox getUserDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.dialog.getStyleClass().add("user-label");
-        return db;
+    /**
+     * Fills the box with a message, flipping it so that the user's picture is on the right and Jax's on the left.
+     * @param text The text of the message.
+     * @param img The picture of the speaker.
+     * @param isFromUser True if the user sent the message, false if Jax did.
+     */
+    public void show(String text, Image img, boolean isFromUser) {
+        dialog.setText(text);
+        displayPicture.setImage(img);
+        if (this.isFromUser != isFromUser) {
+            flip(isFromUser);
+        }
     }
 
-    public static DialogBox getJaxDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.flip();
-        db.dialog.getStyleClass().add("jax-label");
-        return db;
+    /**
+     * Swaps the picture and the text, and the style of the text, to suit the new speaker.
+     */
+    private void flip(boolean isFromUser) {
+        this.isFromUser = isFromUser;
+        if (isFromUser) {
+            getChildren().setAll(dialog, displayPicture);
+            setAlignment(Pos.BOTTOM_RIGHT);
+            dialog.getStyleClass().setAll("label", "user-label");
+        } else {
+            getChildren().setAll(displayPicture, dialog);
+            setAlignment(Pos.BOTTOM_LEFT);
+            dialog.getStyleClass().setAll("label", "jax-label");
+        }
+    }
+
+    private static String findStylesheet() {
+        URL cssUrl = DialogBox.class.getResource("/css/dialogbox.css");
+        if (cssUrl == null) {
+            logger.warning("CSS file not found. Check path loadout: /css/dialogbox.css");
+            return null;
+        }
+        return cssUrl.toExternalForm();
     }
 }
@@ -1,49 +1,87 @@
 package jax.gui;
 
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import jax.main.Jax;
 
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 import jax.main.JaxException;
 
 
 /**
  * Controller for the main GUI.
+ * The transcript is a list view, which only creates cells for the messages on screen and reuses them as it
+ * scrolls, so a long conversation costs one small object per message rather than a laid-out node per message.
+ * Commands run one at a time, in the order they were entered, on a worker thread, and their responses are posted
+ * back to the JavaFX thread, so the window stays responsive during slow commands. While commands are pending a busy
+ * indicator is shown and the send button turns into a stop button that cancels a running search.
+ * Reminders of upcoming deadlines and events appear in the transcript as messages from Jax.
  */
 public class MainWindow extends AnchorPane {
+
+    /** Number of messages the transcript keeps. Older messages are dropped from the top. */
+    static final int MAX_MESSAGES = 1000;
+
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<ChatMessage> transcript;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private ProgressIndicator busyIndicator;
+
+    private static final Logger logger = Logger.getLogger(MainWindow.class.getName());
 
     private Jax jax;
 
+    /** Runs the commands. A single thread keeps responses in the order the commands were entered. */
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "jax-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** Number of commands submitted whose responses have not been shown. Only used on the JavaFX thread. */
+    private int pendingCommands;
+
+    private final ObservableList<ChatMessage> history = FXCollections.observableArrayList();
+
     private final Image userImage = new Image(Objects.requireNonNull(this.getClass().getResourceAsStream("/images/DaUser.png")));
     private final Image jaxImage = new Image(Objects.requireNonNull(this.getClass().getResourceAsStream("/images/DaDuke.png")));
 
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        transcript.setItems(history);
+        transcript.setCellFactory(view -> new MessageCell(userImage, jaxImage));
+        String stylesheet = DialogBox.getStylesheet();
+        if (stylesheet != null) {
+            transcript.getStylesheets().add(stylesheet);
+        }
     }
 
-    /** Injects the Jax instance */
+    /**
+     * Injects the Jax instance and starts its reminders, which are shown in the transcript as they fire.
+     */
     public void setJax(Jax d) {
         jax = d;
         showJaxMessage(jax.getGreeting());
+        // Scheduling reads the whole list, so it runs on the worker like a command.
+        worker.execute(() -> jax.startReminders(message -> Platform.runLater(() -> showJaxMessage(message))));
     }
 
     /**
@@ -54,9 +92,7 @@ public class MainWindow extends AnchorPane {
             if (m.isEmpty()) {
                 return;
             }
-            dialogContainer.getChildren().add(
-                    DialogBox.getUserDialog(m, userImage)
-            );
+            addMessage(new ChatMessage(m, true));
         }
     }
 
@@ -68,61 +104,129 @@ public class MainWindow extends AnchorPane {
             if (m.isEmpty()) {
                 return;
             }
-            dialogContainer.getChildren().add(
-                    DialogBox.getJaxDialog(m, jaxImage)
-            );
+            addMessage(new ChatMessage(m, false));
+        }
+    }
+
+    /**
+     * Appends a message to the transcript, drops the oldest messages beyond {@link #MAX_MESSAGES},
+     * and scrolls to the end.
+     */
+    private void addMessage(ChatMessage message) {
+        history.add(message);
+        int excess = history.size() - MAX_MESSAGES;
+        if (excess > 0) {
+            history.remove(0, excess);
         }
+        transcript.scrollTo(history.size() - 1);
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Duke's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * Echoes the user's input in the transcript and hands it to the worker thread.
+     * The response is shown once the command has run. Clears the user input.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText().trim();
-        String response = jax.getResponse(input);
-
         if (input.isEmpty()) {
             return;
         }
-
         showUserMessage(input);
-        showJaxMessage(response);
-
         userInput.clear();
 
-        if (input.trim().equalsIgnoreCase("bye")) {
-            showJaxMessage((jax.getGoodbye()));
-            exit();
+        String command = jax.getCommandName(input);
+        boolean isBye = "bye".equals(command);
+        boolean isClear = "clear".equals(command);
+        if (isBye) {
+            // Nothing may be queued behind the final save.
+            userInput.setDisable(true);
         }
+        setPendingCommands(pendingCommands + 1);
+        worker.execute(() -> {
+            String response = respond(input);
+            String saveError = isBye ? saveData() : null;
+            Platform.runLater(() -> showResponse(response, isBye, isClear, saveError));
+        });
+    }
 
-        if (input.equalsIgnoreCase("clear")) {
-            dialogContainer.getChildren().clear();
-            userInput.clear();
+    /**
+     * Sends the input, or cancels the running search if commands are pending.
+     */
+    @FXML
+    private void handleSendButton() {
+        if (pendingCommands > 0) {
+            jax.cancel();
+        } else {
+            handleUserInput();
         }
     }
 
     /**
-     * Handles cleanup and exit logic.
+     * Runs a command on the worker thread. Never throws, so that every command gets a response.
      */
-    private void exit() {
-
-        userInput.setDisable(true);
-        sendButton.setDisable(true);
-
-        double delayTime = 1.5;
+    private String respond(String input) {
+        try {
+            return jax.getResponse(input);
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Command failed: " + input, e);
+            return "Error - Something went wrong: " + e;
+        }
+    }
 
+    /**
+     * Saves all data on the worker thread.
+     * @return The message to show if saving failed, or null if it succeeded.
+     */
+    private String saveData() {
         try {
             jax.saveData();
+            return null;
         } catch (JaxException e) {
-            showJaxMessage("Error: Could not save data!\n" + e.getMessage());
+            return "Error: Could not save data!\n" + e.getMessage();
+        }
+    }
+
+    /**
+     * Shows the response to a command on the JavaFX thread.
+     */
+    private void showResponse(String response, boolean isBye, boolean isClear, String saveError) {
+        setPendingCommands(pendingCommands - 1);
+        showJaxMessage(response);
+
+        if (isBye) {
+            showJaxMessage(jax.getGoodbye());
+            if (saveError != null) {
+                showJaxMessage(saveError);
+            }
+            exit(saveError == null ? 1.5 : 3.0);
+        }
 
-            delayTime = 3.0;
-        } finally {
-            PauseTransition delay = new PauseTransition(Duration.seconds(delayTime));
-            delay.setOnFinished(event -> Platform.exit());
-            delay.play();
+        if (isClear) {
+            history.clear();
         }
     }
+
+    /**
+     * Updates the number of pending commands, with the busy indicator and the send button that reflect it.
+     */
+    private void setPendingCommands(int count) {
+        pendingCommands = count;
+        boolean isBusy = count > 0;
+        busyIndicator.setVisible(isBusy);
+        sendButton.setText(isBusy ? "Stop" : "Send");
+    }
+
+    /**
+     * Closes the window after a short delay, once the data has been saved.
+     * @param delayTime Seconds to wait, so that the last messages can be read.
+     */
+    private void exit(double delayTime) {
+        userInput.setDisable(true);
+        sendButton.setDisable(true);
+        worker.shutdown();
+
+        PauseTransition delay = new PauseTransition(Duration.seconds(delayTime));
+        delay.setOnFinished(event -> Platform.exit());
+        delay.play();
+    }
 }
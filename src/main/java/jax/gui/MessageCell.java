@@ -0,0 +1,38 @@
+package jax.gui;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.image.Image;
+
+/**
+ * A cell of the chat transcript. The list view reuses its cells as the transcript scrolls,
+ * and each cell keeps a single {@link DialogBox} that is refilled with whichever message the cell shows.
+ */
+class MessageCell extends ListCell<ChatMessage> {
+
+    private final DialogBox box = new DialogBox();
+    private final Image userImage;
+    private final Image jaxImage;
+
+    /**
+     * Creates a cell that shows messages with the given pictures.
+     */
+    MessageCell(Image userImage, Image jaxImage) {
+        this.userImage = userImage;
+        this.jaxImage = jaxImage;
+        // Lets the cell shrink to the width of the list, so long messages wrap instead of scrolling sideways.
+        setPrefWidth(0);
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+    }
+
+    @Override
+    protected void updateItem(ChatMessage message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+        box.show(message.getText(), message.isFromUser() ? userImage : jaxImage, message.isFromUser());
+        setGraphic(box);
+    }
+}
@@ -1,10 +1,22 @@
 package jax.main;
 
-import jax.command.Command;
-import jax.contact.Contact;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.List;
+import javax.management.ObjectName;
+
+import jax.command.CommandRegistry;
+import jax.command.CommandStats;
 import jax.contact.ContactList;
+import jax.metrics.IoStats;
+import jax.metrics.Metrics;
+import jax.reminder.ReminderListener;
+import jax.reminder.ReminderScheduler;
 import jax.storage.Storage;
 import jax.task.TaskList;
+import jax.transfer.DataTransfer;
 
 /**
  * Main entry point and controller for the Jax chatbot application.
@@ -20,34 +32,39 @@ public class Jax {
     private TaskList tasks;
 
     private ContactList contacts;
+    /** Reused for every line so that parsing does not allocate a fresh view each time. */
+    private final ParsedCommand parsed = new ParsedCommand();
+    /** Where the last page of tasks shown ended. */
+    private final ListCursor taskCursor = new ListCursor();
+    /** Where the last page of contacts shown ended. */
+    private final ListCursor contactCursor = new ListCursor();
+    /** Commands understood by the chatbot, including any registered from outside. */
+    private final CommandRegistry commands = new CommandRegistry();
+    /** Name under which the metrics are published over JMX, or null if they are not. */
+    private ObjectName metricsName;
+    /** Fires reminders of upcoming deadlines and events, or null until {@link #startReminders} is called. */
+    private ReminderScheduler reminders;
 
     private final static String GREET = "\uD83D\uDC4B Top of the morning to you! I'm Jax, your personal assistant chatbot!\n"
                                     + "What can I do for you?";
     private final static String GOODBYE = "\uD83D\uDC4B Aww shucks. Hope to see you again soon!\n"
                                     + "Closing in 3 seconds..." ;
-    private final static String HELP_MESSAGE = """
-            Here are the commands you can use:
-            1.  todo <description>
-            2.  deadline <desc> /by <yyyy-MM-dd>
-            3.  event <desc> /from <yyyy-MM-dd> /to <yyyy-MM-dd>
-            4.  list
-            5.  mark <index>
-            6.  unmark <index>
-            7.  delete <index>
-            8.  find <keyword>
-            9.  clear
-            10. contact <name> /p <phone> /e <email>
-            11. delcontact <name>
-            12. contacts
-            13. bye""";
-
     /**
      * Initializes the chatbot components.
      * Attempts to load existing tasks from the save file.
      * If loading fails, it initializes with an empty task list.
      */
     public Jax() {
-        this.storage = new Storage();
+        this(new Storage());
+    }
+
+    /**
+     * Initializes the chatbot components over the given save files, e.g. one user's partition on a server.
+     * If loading fails, it initializes with an empty task list.
+     * @param storage Storage holding this chatbot's tasks and contacts.
+     */
+    public Jax(Storage storage) {
+        this.storage = storage;
         try {
             tasks = new TaskList(storage.loadTasks(), this.storage);
         } catch (JaxException e) {
@@ -59,6 +76,65 @@ public class Jax {
         } catch (JaxException e) {
             contacts = new ContactList(this.storage);
         }
+
+        registerBuiltInCommands();
+    }
+
+    /**
+     * Registers the commands that come with Jax. The order here is the order of the help message.
+     */
+    private void registerBuiltInCommands() {
+        commands.register("hello", null, input -> getGreeting());
+        commands.register("todo", "todo <description>", input -> tasks.insertTask(Parser.parseTodo(input)));
+        commands.register("deadline", "deadline <desc> /by <yyyy-MM-dd>",
+                input -> tasks.insertTask(Parser.parseDeadline(input)));
+        commands.register("event", "event <desc> /from <yyyy-MM-dd> /to <yyyy-MM-dd>",
+                input -> tasks.insertTask(Parser.parseEvent(input)));
+        commands.register("recur", "recur <desc> /from <start> /to <end> /every <day | week | month> "
+                + "[/until <yyyy-MM-dd> | /times <n>]", input -> tasks.insertTask(Parser.parseRecurring(input)));
+        commands.register("list", "list [<page> [<size>] | next]",
+                input -> tasks.printTasks(taskCursor.advance(input), taskCursor.getPageSize()), "ls");
+        commands.register("mark", "mark <index | #id | 1,4,9 | 3-500 | done>",
+                input -> Parser.isTaskSelection(input)
+                        ? tasks.markTasks(Parser.parseTaskSelection(input))
+                        : tasks.markTask(parseTaskIndex(input)));
+        commands.register("unmark", "unmark <index | #id | 1,4,9 | 3-500 | done>",
+                input -> Parser.isTaskSelection(input)
+                        ? tasks.unmarkTasks(Parser.parseTaskSelection(input))
+                        : tasks.unmarkTask(parseTaskIndex(input)));
+        commands.registerExact("delete", "delete <index | #id | 1,4,9 | 3-500 | done>",
+                input -> Parser.isTaskSelection(input)
+                        ? tasks.deleteTasks(Parser.parseTaskSelection(input))
+                        : tasks.deleteTask(parseTaskIndex(input)), "rm");
+        commands.register("undo", "undo", input -> tasks.undo());
+        commands.register("redo", "redo", input -> tasks.redo());
+        commands.register("find", "find <keyword>", input -> tasks.findTasks(Parser.parseFind(input)));
+        commands.register("remind", "remind <yyyy-MM-dd> [<yyyy-MM-dd>]",
+                input -> tasks.printTasksByDate(input.toArray()));
+        commands.registerExact("clear", "clear", input -> "");
+        commands.register("contact", "contact <name> /p <phone> /e <email>",
+                input -> contacts.insertContact(Parser.parseContact(input)));
+        commands.registerExact("delcontact", "delcontact <name>",
+                input -> contacts.deleteContact(Parser.parseDeleteContact(input)));
+        commands.register("contacts", "contacts [<page> [<size>] | next]",
+                input -> contacts.printContacts(contactCursor.advance(input), contactCursor.getPageSize()));
+        commands.register("findcontact", "findcontact <start of name>",
+                input -> contacts.findContacts(Parser.parseFindContact(input)));
+        commands.register("whois", "whois <phone | email>", input -> contacts.findOwner(Parser.parseWhois(input)));
+        commands.register("export", "export <tasks | contacts> <file.csv | file.jsonl | file.ics>",
+                input -> exportData(Parser.parseTransfer(input)));
+        commands.register("import", "import <tasks | contacts> <file.csv | file.jsonl | file.ics>",
+                input -> importData(Parser.parseTransfer(input)));
+        commands.register("stats", "stats", input -> getStats());
+        commands.registerExact("bye", "bye", input -> "");
+        commands.register("help", null, input -> getHelp());
+    }
+
+    /**
+     * Returns the registry of commands, so that further commands can be added without changing this class.
+     */
+    public CommandRegistry getCommands() {
+        return commands;
     }
 
     /**
@@ -77,74 +153,189 @@ public class Jax {
 
     /**
      * Performs cleanup operations before the application exits.
-     * Saves the current state of the task list and contact list to the hard disk and displays the exit message.
+     * Writes out any changes still queued in the background, then saves the current state of the
+     * task list and contact list to the hard disk.
      * @throws JaxException If there is an error writing to the save file.
      */
     public void saveData() throws JaxException {
-        storage.saveTasks(tasks.getTasks());
+        tasks.save();
         storage.saveContacts(contacts.getContacts());
     }
 
+    /**
+     * Saves all data and stops the storage's background writer. The chatbot should not be used afterwards.
+     * @throws JaxException If there is an error writing to the save file.
+     */
+    public void close() throws JaxException {
+        Metrics.unregister(metricsName);
+        metricsName = null;
+        if (reminders != null) {
+            reminders.close();
+            reminders = null;
+        }
+        saveData();
+        storage.close();
+    }
+
+    /**
+     * Publishes this chatbot's metrics over JMX until it is closed.
+     * @param name Name telling chatbots in the same process apart, e.g. the user of a server session.
+     */
+    public void publishMetrics(String name) {
+        Metrics.unregister(metricsName);
+        metricsName = Metrics.register(name, new JaxMetrics(tasks, contacts, commands, storage));
+    }
+
+    /**
+     * Starts reminding of deadlines and events shortly before they fall due, until the chatbot is closed.
+     * Every task that may still fall due is decoded to find its next due time, so on a large list this should
+     * not be called on the UI thread.
+     * @param listener Receives each reminder on the scheduler's thread.
+     */
+    public void startReminders(ReminderListener listener) {
+        if (reminders != null) {
+            reminders.close();
+        }
+        reminders = new ReminderScheduler(listener);
+        tasks.watchReminders(reminders);
+    }
+
+    /**
+     * Describes the time taken by each command that has run, the file operations so far, and the size of the lists.
+     */
+    public String getStats() {
+        if (!Metrics.IS_ENABLED) {
+            return "Metrics are turned off. Start Jax without -Djax.metrics=false to collect them.";
+        }
+        StringBuilder sb = new StringBuilder("Commands:");
+        for (CommandStats stats : commands.getStats()) {
+            if (stats.getCount() > 0) {
+                sb.append("\n  ").append(stats);
+            }
+        }
+        sb.append("\nStorage:");
+        for (IoStats stats : storage.getIoStats()) {
+            sb.append("\n  ").append(stats);
+        }
+        sb.append("\nTasks: ").append(tasks.getTasks().size())
+                .append(", contacts: ").append(contacts.getContacts().size());
+        return sb.toString();
+    }
+
     /**
      * Generates a response for the user's chat message.
      */
     public String getResponse(String line) {
         try {
-                Command command = Parser.parseCommand(line);
-                String[] input = Parser.splitCommand(line);
-
-                switch (command) {
-                case HELLO:
-                    return getGreeting();
-                case CLEAR:
-                case BYE:
-                    return "";
-                case LIST:
-                    return tasks.printTasks();
-                case REMIND:
-                    return tasks.printTasksByDate(input);
-                case MARK:
-                case UNMARK:
-                case DELETE:
-                    if (input.length < 2) {
-                        throw new JaxException("Error - Specify a task number.");
-                    }
-                    try {
-                        int taskIndex = Integer.parseInt(input[1]) - 1;
-                        if (command == Command.MARK) {
-                            return tasks.markTask(taskIndex);
-                        } else if (command == Command.UNMARK) {
-                            return tasks.unmarkTask(taskIndex);
-                        } else {
-                            return tasks.deleteTask(taskIndex);
-                        }
-                    } catch (NumberFormatException e) {
-                        throw new JaxException("Error - Invalid task number.");
-                    }
-                case TODO:
-                    return tasks.insertTask(Parser.parseTodo(input));
-                case DEADLINE:
-                    return tasks.insertTask(Parser.parseDeadline(input));
-                case EVENT:
-                    return tasks.insertTask(Parser.parseEvent(input));
-                case FIND:
-                    String keyword = Parser.parseFind(input);
-                    return tasks.findTasks(keyword);
-                case CONTACT:
-                    Contact newContact = Parser.parseContact(input);
-                    return contacts.insertContact(newContact);
-                case CONTACTS:
-                    return contacts.printContacts();
-                case DELCONTACT:
-                    String nameToDelete = Parser.parseDeleteContact(input);
-                    return contacts.deleteContact(nameToDelete);
-                case HELP:
-                    return HELP_MESSAGE;
-                default:
-                    return "Error - Unknown command.";
+            return commands.dispatch(Parser.parse(line, parsed));
+        } catch (JaxException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Returns the name of the command the line runs, e.g. {@code bye} for {@code by}, or null if it runs none.
+     * Safe to call from any thread.
+     */
+    public String getCommandName(String line) {
+        return commands.resolveName(Parser.parse(line.trim(), new ParsedCommand()));
+    }
+
+    /**
+     * Stops the searches running in {@link #getResponse(String)} on another thread, which then responds
+     * with {@link TaskList#CANCELLED_MESSAGE}. Commands that change the list are never interrupted.
+     * Safe to call from any thread.
+     */
+    public void cancel() {
+        tasks.cancelScans();
+    }
+
+    /**
+     * Runs a script of commands, one per line, as a single batch.
+     * Responses are written out as each line is handled rather than collected, and the changes of the whole
+     * script are saved once at the end instead of after every line. A {@code bye} command ends the script.
+     * @param in Source of the commands, e.g. a file or standard input.
+     * @param out Receives each non-empty response followed by a line break.
+     * @return The number of commands run.
+     * @throws IOException If reading the script or writing a response fails.
+     * @throws JaxException If the changes cannot be saved at the end.
+     */
+    public int runBatch(BufferedReader in, Writer out) throws IOException, JaxException {
+        int commandCount = 0;
+        storage.beginBatch();
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if ("bye".equals(getCommandName(line))) {
+                    break;
+                }
+                String response = getResponse(line);
+                commandCount++;
+                if (!response.isEmpty()) {
+                    out.write(response);
+                    out.write('\n');
                 }
-            } catch (JaxException e) {
-                return e.getMessage();
             }
+            out.flush();
+        } finally {
+            storage.endBatch();
+            saveData();
+        }
+        return commandCount;
+    }
+
+    /**
+     * Lists the usage of every command, numbered.
+     */
+    private String getHelp() {
+        List<String> usages = commands.getUsages();
+        StringBuilder sb = new StringBuilder("Here are the commands you can use:");
+        for (int i = 0; i < usages.size(); i++) {
+            sb.append('\n').append(String.format("%-4s%s", (i + 1) + ".", usages.get(i)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Exports the tasks or contacts to a file in the data folder.
+     * @param transfer What to export and the file name, as given by {@link Parser#parseTransfer(ParsedCommand)}.
+     */
+    private String exportData(String[] transfer) throws JaxException {
+        Path directory = storage.getDataDirectory();
+        return transfer[0].equals("tasks")
+                ? DataTransfer.exportTasks(tasks, directory, transfer[1])
+                : DataTransfer.exportContacts(contacts.getContacts().values(), directory, transfer[1]);
+    }
+
+    /**
+     * Imports tasks or contacts from a file in the data folder.
+     * @param transfer What to import and the file name, as given by {@link Parser#parseTransfer(ParsedCommand)}.
+     */
+    private String importData(String[] transfer) throws JaxException {
+        Path directory = storage.getDataDirectory();
+        return transfer[0].equals("tasks")
+                ? DataTransfer.importTasks(directory, transfer[1], tasks)
+                : DataTransfer.importContacts(directory, transfer[1], contacts);
+    }
+
+    /**
+     * Reads the task a command refers to, either by its position or as {@code #id}.
+     * @return Zero-based index of the task, or -1 if no task has the given ID.
+     * @throws JaxException If no task number is given or it is not a number.
+     */
+    private int parseTaskIndex(ParsedCommand input) throws JaxException {
+        if (!input.hasArguments()) {
+            throw new JaxException("Error - Specify a task number.");
+        }
+        try {
+            return input.argumentsStartWith('#')
+                    ? tasks.indexOfId(input.parseIntArgument(1))
+                    : input.parseIntArgument(0) - 1;
+        } catch (NumberFormatException e) {
+            throw new JaxException("Error - Invalid task number.");
+        }
     }
 }
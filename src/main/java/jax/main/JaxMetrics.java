@@ -0,0 +1,83 @@
+package jax.main;
+
+import java.util.List;
+
+import jax.command.CommandRegistry;
+import jax.command.CommandStats;
+import jax.contact.ContactList;
+import jax.metrics.IoStats;
+import jax.metrics.JaxMetricsMXBean;
+import jax.storage.Storage;
+import jax.task.TaskList;
+
+/**
+ * Publishes the metrics of one chatbot over JMX. Every value is read when asked for, so the bean costs nothing
+ * while no one is looking at it.
+ */
+class JaxMetrics implements JaxMetricsMXBean {
+
+    private final TaskList tasks;
+    private final ContactList contacts;
+    private final CommandRegistry commands;
+    private final Storage storage;
+
+    JaxMetrics(TaskList tasks, ContactList contacts, CommandRegistry commands, Storage storage) {
+        this.tasks = tasks;
+        this.contacts = contacts;
+        this.commands = commands;
+        this.storage = storage;
+    }
+
+    @Override
+    public int getTaskCount() {
+        return tasks.getTasks().size();
+    }
+
+    @Override
+    public int getContactCount() {
+        return contacts.getContacts().size();
+    }
+
+    @Override
+    public long getCommandCount() {
+        long count = 0;
+        for (CommandStats stats : commands.getStats()) {
+            count += stats.getCount();
+        }
+        return count;
+    }
+
+    @Override
+    public String[] getCommandLatencies() {
+        return commands.getStats().stream()
+                .filter(stats -> stats.getCount() > 0)
+                .map(CommandStats::toString)
+                .toArray(String[]::new);
+    }
+
+    @Override
+    public String[] getStorageOperations() {
+        List<IoStats> operations = storage.getIoStats();
+        return operations.stream().map(IoStats::toString).toArray(String[]::new);
+    }
+
+    @Override
+    public long getTaskSaveCount() {
+        return storage.getTaskSaveStats().getCount();
+    }
+
+    @Override
+    public long getTaskSaveBytes() {
+        return storage.getTaskSaveStats().getBytes();
+    }
+
+    @Override
+    public long getTaskSaveP99Micros() {
+        return storage.getTaskSaveStats().getLatency().getValueAtPercentile(99) / 1000;
+    }
+
+    @Override
+    public long getTaskLoadMicros() {
+        return storage.getTaskLoadStats().getLatency().getMax() / 1000;
+    }
+}
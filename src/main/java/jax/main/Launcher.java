@@ -1,12 +1,52 @@
 package jax.main;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
 import javafx.application.Application;
 
+import jax.server.JaxServer;
+
 /**
  * A launcher class to workaround classpath issues.
+ * Passing {@code --server [port]} starts the headless multi-user server instead of the GUI, and
+ * {@code --batch [file]} runs the commands in the file, or on standard input, and prints the responses.
  */
 public class Launcher {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--server")) {
+            JaxServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatch(args.length > 1 ? args[1] : "-");
+            return;
+        }
         Application.launch(Main.class, args);
     }
+
+    /**
+     * Runs a script of commands without the GUI.
+     * @param path The script, or {@code -} for standard input.
+     */
+    private static void runBatch(String path) throws IOException {
+        Reader reader = path.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Path.of(path), StandardCharsets.UTF_8);
+        try (BufferedReader in = new BufferedReader(reader);
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            new Jax().runBatch(in, out);
+        } catch (JaxException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
 }
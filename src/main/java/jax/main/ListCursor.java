@@ -0,0 +1,60 @@
+package jax.main;
+
+/**
+ * Remembers where a paged listing stopped, so that {@code next} can continue it.
+ * Accepts the arguments of a listing command: nothing for the first page, {@code <page> [<size>]}
+ * for a given page, or {@code next} for the page after the one shown last.
+ */
+class ListCursor {
+
+    /** Number of entries shown per page unless a size is given. */
+    static final int DEFAULT_PAGE_SIZE = 50;
+    /** Largest page size accepted, so that a single response stays small. */
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private int next;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+
+    /**
+     * Works out which entries to show for a listing command and moves the cursor past them.
+     * @param input The parsed command.
+     * @return Zero-based index of the first entry to show; {@link #getPageSize()} entries follow.
+     * @throws JaxException If the page or size is not a positive number.
+     */
+    int advance(ParsedCommand input) throws JaxException {
+        String arguments = input.hasArguments() ? input.getArguments().trim() : "";
+        int start;
+        if (arguments.isEmpty()) {
+            pageSize = DEFAULT_PAGE_SIZE;
+            start = 0;
+        } else if (arguments.equalsIgnoreCase("next")) {
+            start = next;
+        } else {
+            String[] numbers = arguments.split("\\s+");
+            int page = parsePositive(numbers[0]);
+            pageSize = numbers.length > 1 ? Math.min(parsePositive(numbers[1]), MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+            start = (int) Math.min((long) (page - 1) * pageSize, Integer.MAX_VALUE);
+        }
+        next = (int) Math.min((long) start + pageSize, Integer.MAX_VALUE);
+        return start;
+    }
+
+    /**
+     * Returns the number of entries on the current page.
+     */
+    int getPageSize() {
+        return pageSize;
+    }
+
+    private static int parsePositive(String number) throws JaxException {
+        try {
+            int value = Integer.parseInt(number);
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below.
+        }
+        throw new JaxException("Error - Page and page size must be positive numbers.");
+    }
+}
@@ -41,6 +41,7 @@ public class Main extends Application {
             stage.setMinHeight(220);
             stage.setMinWidth(417);
             fxmlLoader.<MainWindow>getController().setJax(jax);
+            jax.publishMetrics("gui");
             stage.show();
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Failed to load MainWindow FXML.", e);
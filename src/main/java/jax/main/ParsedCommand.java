@@ -0,0 +1,92 @@
+package jax.main;
+
+/**
+ * A view of one line of user input split into its command word and arguments.
+ * The view only records where the command word ends and the arguments start, so filling it in does not
+ * copy the line, and one instance can be reused for every line read.
+ */
+public class ParsedCommand {
+
+    private String line;
+    /** Length of the command word at the start of the line. */
+    private int wordEnd;
+    /** Index of the first character after the space following the command word, or -1 if there is no space. */
+    private int argumentStart;
+    private String arguments;
+
+    /**
+     * Points this view at a new line. Called by {@link Parser#parse(String, ParsedCommand)}.
+     */
+    void reset(String line, int wordEnd, int argumentStart) {
+        this.line = line;
+        this.wordEnd = wordEnd;
+        this.argumentStart = argumentStart;
+        this.arguments = null;
+    }
+
+    /**
+     * Returns the full line the view was last filled from.
+     */
+    public String getLine() {
+        return line;
+    }
+
+    /**
+     * Returns the length of the command word, which starts the line.
+     */
+    public int getCommandWordLength() {
+        return wordEnd;
+    }
+
+    /**
+     * Returns the command word as typed.
+     */
+    public String getCommandWord() {
+        return line.substring(0, wordEnd);
+    }
+
+    /**
+     * Returns true if anything, even only whitespace, follows the command word.
+     */
+    public boolean hasArguments() {
+        return argumentStart >= 0;
+    }
+
+    /**
+     * Returns everything after the first space of the line, or null if the line has no space.
+     * The string is created on the first call and reused until the view is filled again.
+     */
+    public String getArguments() {
+        if (arguments == null && argumentStart >= 0) {
+            arguments = line.substring(argumentStart);
+        }
+        return arguments;
+    }
+
+    /**
+     * Returns true if the arguments start with the given character.
+     */
+    public boolean argumentsStartWith(char c) {
+        return argumentStart >= 0 && argumentStart < line.length() && line.charAt(argumentStart) == c;
+    }
+
+    /**
+     * Parses the arguments, skipping the given number of leading characters, as a decimal integer
+     * without creating a substring.
+     * @throws NumberFormatException If the remaining characters are not an integer.
+     */
+    public int parseIntArgument(int skip) throws NumberFormatException {
+        if (argumentStart < 0) {
+            throw new NumberFormatException("No argument");
+        }
+        return Integer.parseInt(line, argumentStart + skip, line.length(), 10);
+    }
+
+    /**
+     * Returns the split form used by the older parsing methods: the command word, followed by the arguments if any.
+     */
+    public String[] toArray() {
+        String word = getCommandWord();
+        return argumentStart < 0 ? new String[] {word} : new String[] {word, getArguments()};
+    }
+}
@@ -1,11 +1,14 @@
 package jax.main;
 
+import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.regex.Pattern;
 
-import jax.command.Command;
 import jax.contact.Contact;
 import jax.task.Deadline;
 import jax.task.Event;
+import jax.task.RecurringEvent;
+import jax.task.TaskSelection;
 import jax.task.Todo;
 
 
@@ -13,32 +16,33 @@ import jax.task.Todo;
  * Parses user input into actionable commands and task objects.
  * This class handles the logic of deciphering strings into specific operations
  * and validating the format of arguments (like dates and descriptions).
+ * Input is scanned with index lookups instead of regular-expression splits, so parsing a line only
+ * allocates the strings that end up in the resulting task or contact.
  */
 public class Parser {
 
-    /**
-     * Parses the first word of the user's input to determine the command type.
-     * @param line The full raw input string entered by the user.
-     * @return The corresponding {@link Command} enum value.
-     * @throws JaxException If the command word is not recognized or invalid.
-     */
-    public static Command parseCommand(String line) throws JaxException {
-        String[] input = line.split(" ", 2);
-        String commandStr = input[0].toUpperCase();
-        try {
-            return Command.valueOf(commandStr);
-        } catch (IllegalArgumentException e) {
-            throw new JaxException("Error - Invalid Input.");
-        }
-    }
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
+
+    private static final String BY_DELIMITER = " /by ";
+    private static final String FROM_DELIMITER = " /from ";
+    private static final String TO_DELIMITER = " /to ";
+    private static final String PHONE_DELIMITER = " /p ";
+    private static final String EMAIL_DELIMITER = " /e ";
+    private static final String EVERY_DELIMITER = " /every ";
+    private static final String UNTIL_DELIMITER = " /until ";
+    private static final String TIMES_DELIMITER = " /times ";
 
     /**
-     * Splits the user's input line into two parts: the command word and the arguments.
-     * @param line The full raw input string.
-     * @return A String array of size 2. Index 0 is the command, Index 1 is the rest of the string.
+     * Splits a line into the given reusable view in a single pass. The command word is not interpreted;
+     * that is left to the {@link jax.command.CommandRegistry}.
+     * @param line The full raw input string entered by the user.
+     * @param into The view to fill in; its previous contents are discarded.
+     * @return The view passed in.
      */
-    public static String[] splitCommand(String line) {
-        return line.split(" ", 2);
+    public static ParsedCommand parse(String line, ParsedCommand into) {
+        int space = line.indexOf(' ');
+        into.reset(line, space < 0 ? line.length() : space, space < 0 ? -1 : space + 1);
+        return into;
     }
 
     /**
@@ -49,10 +53,15 @@ public class Parser {
      * @throws JaxException If the description is missing or empty.
      */
     public static Todo parseTodo(String[] input) throws JaxException {
-        if (input.length < 2 || input[1].trim().isEmpty()) {
-            throw new JaxException("Error - Todo description cannot be empty.");
-        }
-        return new Todo(input[1]);
+        return parseTodo(argumentsOf(input));
+    }
+
+    /**
+     * Parses the arguments for a Todo task from a parsed line.
+     * @see #parseTodo(String[])
+     */
+    public static Todo parseTodo(ParsedCommand input) throws JaxException {
+        return parseTodo(input.getArguments());
     }
 
     /**
@@ -63,18 +72,15 @@ public class Parser {
      * @throws JaxException If the description is empty, the time is missing, or the date format is invalid.
      */
     public static Deadline parseDeadline(String[] input) throws JaxException {
-        if (input.length < 2 || input[1].trim().isEmpty()) {
-            throw new JaxException("Error - Deadline description cannot be empty.");
-        }
-        String[] segments = input[1].split(" /by ");
-        if (segments.length < 2) {
-            throw new JaxException("Error - Deadline time not specified.");
-        }
-        try {
-            return new Deadline(segments[0], segments[1]);
-        } catch (DateTimeParseException e) {
-            throw new JaxException("Error - Invalid Date Format. Please use: yyyy-MM-dd (e.g., 2019-10-15 1800)");
-        }
+        return parseDeadline(argumentsOf(input));
+    }
+
+    /**
+     * Parses the arguments for a Deadline task from a parsed line.
+     * @see #parseDeadline(String[])
+     */
+    public static Deadline parseDeadline(ParsedCommand input) throws JaxException {
+        return parseDeadline(input.getArguments());
     }
 
     /**
@@ -85,24 +91,76 @@ public class Parser {
      * @throws JaxException If the description, start time, or end time are missing, or if date formats are invalid.
      */
     public static Event parseEvent(String[] input) throws JaxException {
-        if (input.length < 2 || input[1].trim().isEmpty()) {
-            throw new JaxException("Error - Event description cannot be empty.");
+        return parseEvent(argumentsOf(input));
+    }
+
+    /**
+     * Parses the arguments for an Event task from a parsed line.
+     * @see #parseEvent(String[])
+     */
+    public static Event parseEvent(ParsedCommand input) throws JaxException {
+        return parseEvent(input.getArguments());
+    }
+
+    /**
+     * Parses the arguments for a recurring event: an event followed by how often it repeats and, optionally,
+     * when the series ends.
+     * Expected format: recur <desc> /from <start> /to <end> /every <day | week | month> [/until <date> | /times <n>]
+     * @param input The parsed line.
+     * @return A new {@link RecurringEvent} object.
+     * @throws JaxException If the event part is invalid, or the frequency or end of the series is missing or invalid.
+     */
+    public static RecurringEvent parseRecurring(ParsedCommand input) throws JaxException {
+        String arguments = input.getArguments();
+        if (arguments == null || arguments.isBlank()) {
+            throw new JaxException("Error - Recurring event description cannot be empty.");
         }
-        String[] fromSplit = input[1].split(" /from ");
-        if (fromSplit.length < 2) {
-            throw new JaxException("Error - Start time not specified.");
+        int every = arguments.indexOf(EVERY_DELIMITER);
+        if (every < 0) {
+            throw new JaxException("Error - Say how often the event repeats with /every day, week or month.");
         }
-        String[] toSplit = fromSplit[1].split(" /to ");
-        if (toSplit.length < 2) {
-            throw new JaxException("Error - End time not specified.");
+        Event first = parseEvent(arguments.substring(0, every));
+        if (first.getTo().isBefore(first.getFrom())) {
+            throw new JaxException("Error - An event cannot end before it starts.");
         }
 
-        try {
-            return new Event(fromSplit[0], toSplit[0], toSplit[1]);
-        } catch (DateTimeParseException e) {
-            throw new JaxException("Error - Invalid Date Format. Please use: yyyy-MM-dd (e.g., 2019-10-15 1800)");
+        String rule = arguments.substring(every + EVERY_DELIMITER.length());
+        int until = rule.indexOf(UNTIL_DELIMITER);
+        int times = rule.indexOf(TIMES_DELIMITER);
+        if (until >= 0 && times >= 0) {
+            throw new JaxException("Error - End a recurring event with either /until or /times, not both.");
+        }
+        int ruleEnd = until >= 0 ? until : times;
+        RecurringEvent.Frequency frequency = RecurringEvent.Frequency.parse(
+                (ruleEnd < 0 ? rule : rule.substring(0, ruleEnd)).trim());
+        if (frequency == null) {
+            throw new JaxException("Error - An event can repeat every day, week or month.");
+        }
+
+        LocalDate untilDate = null;
+        int count = 0;
+        if (until >= 0) {
+            try {
+                untilDate = LocalDate.parse(rule.substring(until + UNTIL_DELIMITER.length()).trim());
+            } catch (DateTimeParseException e) {
+                throw new JaxException("Error - Invalid date format. Use yyyy-MM-dd.");
+            }
+            if (untilDate.isBefore(first.getFrom().toLocalDate())) {
+                throw new JaxException("Error - The series cannot end before its first occurrence.");
+            }
+        } else if (times >= 0) {
+            try {
+                count = Integer.parseInt(rule.substring(times + TIMES_DELIMITER.length()).trim());
+            } catch (NumberFormatException e) {
+                count = 0;
+            }
+            if (count <= 0) {
+                throw new JaxException("Error - The number of times must be a positive number.");
+            }
         }
+        return new RecurringEvent(first.getDescription(), first.getFrom(), first.getTo(), frequency, untilDate, count);
     }
+
     /**
      * Parses the keyword for finding task.
      * Splits the arguments " " delimiters to extract keyword.
@@ -111,11 +169,15 @@ public class Parser {
      * @throws JaxException If no keywords are present.
      */
     public static String parseFind(String[] input) throws JaxException {
-        if (input.length < 2 || input[1].trim().isEmpty()) {
-            throw new JaxException("Error - Please specify a keyword to search for.");
-        }
+        return parseFind(argumentsOf(input));
+    }
 
-        return input[1].trim();
+    /**
+     * Parses the keyword for finding tasks from a parsed line.
+     * @see #parseFind(String[])
+     */
+    public static String parseFind(ParsedCommand input) throws JaxException {
+        return parseFind(input.getArguments());
     }
 
     /**
@@ -123,42 +185,223 @@ public class Parser {
      * Expected format: contact <name> /p <phone> /e <email>
      */
     public static Contact parseContact(String[] input) throws JaxException {
-        if (input.length < 2) {
-            throw new JaxException("Error - Contact command format: contact <name> /p <phone> /e <email>");
+        return parseContact(argumentsOf(input));
+    }
+
+    /**
+     * Parses a contact from a parsed line.
+     * @see #parseContact(String[])
+     */
+    public static Contact parseContact(ParsedCommand input) throws JaxException {
+        return parseContact(input.getArguments());
+    }
+
+    /**
+     * Extracts the contact name for deletion.
+     * Expected format: delcontact <name>
+     */
+    public static String parseDeleteContact(String[] input) throws JaxException {
+        return parseDeleteContact(argumentsOf(input));
+    }
+
+    /**
+     * Extracts the contact name for deletion from a parsed line.
+     * @see #parseDeleteContact(String[])
+     */
+    public static String parseDeleteContact(ParsedCommand input) throws JaxException {
+        return parseDeleteContact(input.getArguments());
+    }
+
+    /**
+     * Extracts the start of a contact name to search for.
+     * Expected format: findcontact <prefix>
+     * @throws JaxException If no prefix is given.
+     */
+    public static String parseFindContact(ParsedCommand input) throws JaxException {
+        String arguments = input.getArguments();
+        if (arguments == null || arguments.isBlank()) {
+            throw new JaxException("Error - Please specify the start of a contact name to search for.");
         }
+        return arguments.trim();
+    }
 
-        String fullDetails = input[1];
+    /**
+     * Extracts the phone number or email to look up.
+     * Expected format: whois <phone or email>
+     * @throws JaxException If neither is given.
+     */
+    public static String parseWhois(ParsedCommand input) throws JaxException {
+        String arguments = input.getArguments();
+        if (arguments == null || arguments.isBlank()) {
+            throw new JaxException("Error - Please specify a phone number or email to look up.");
+        }
+        return arguments.trim();
+    }
 
-        try {
+    /**
+     * Splits the arguments of an import or export into what to transfer and the file.
+     * Expected format: import|export <tasks | contacts> <file>
+     * @return A String array of size 2: "tasks" or "contacts", and the file name, which may contain spaces.
+     * @throws JaxException If either is missing or the first is neither tasks nor contacts.
+     */
+    public static String[] parseTransfer(ParsedCommand input) throws JaxException {
+        String arguments = input.getArguments() == null ? "" : input.getArguments().trim();
+        int space = arguments.indexOf(' ');
+        String what = space < 0 ? arguments.toLowerCase() : arguments.substring(0, space).toLowerCase();
+        if (!what.equals("tasks") && !what.equals("contacts")) {
+            throw new JaxException("Error - Say whether to " + input.getCommandWord() + " tasks or contacts.");
+        }
+        if (space < 0) {
+            throw new JaxException("Error - Please specify a file name.");
+        }
+        return new String[] {what, arguments.substring(space + 1).trim()};
+    }
 
-            String name = fullDetails.split(" /p ")[0].trim();
-            String contactInfo = fullDetails.split(" /p ")[1];
-            String phone = contactInfo.split(" /e ")[0].trim();
-            String email = contactInfo.split(" /e ")[1].trim();
+    /**
+     * Returns true if the arguments pick out several tasks, e.g. {@code 3-500}, {@code 1,4,9} or {@code done},
+     * rather than a single task number or ID.
+     */
+    public static boolean isTaskSelection(ParsedCommand input) {
+        String arguments = input.getArguments();
+        if (arguments == null) {
+            return false;
+        }
+        String trimmed = arguments.trim();
+        return trimmed.equalsIgnoreCase("done") || trimmed.indexOf(',') >= 0 || trimmed.indexOf('-', 1) >= 0;
+    }
 
-            if (name.isEmpty() || phone.isEmpty() || email.isEmpty()) {
-                throw new JaxException("Error - Name, phone, and email cannot be empty.");
+    /**
+     * Parses a selection of several tasks: a comma-separated list of task numbers and ranges such as
+     * {@code 1,4,9} or {@code 3-500}, or {@code done} for every task that is done.
+     * @throws JaxException If a number or range is malformed.
+     */
+    public static TaskSelection parseTaskSelection(ParsedCommand input) throws JaxException {
+        String arguments = input.getArguments() == null ? "" : input.getArguments().trim();
+        if (arguments.equalsIgnoreCase("done")) {
+            return TaskSelection.ofDoneTasks();
+        }
+        String[] items = arguments.split(",");
+        int[] firsts = new int[items.length];
+        int[] lasts = new int[items.length];
+        try {
+            for (int i = 0; i < items.length; i++) {
+                String item = items[i].trim();
+                int dash = item.indexOf('-', 1);
+                firsts[i] = Integer.parseInt(dash < 0 ? item : item.substring(0, dash).trim());
+                lasts[i] = dash < 0 ? firsts[i] : Integer.parseInt(item.substring(dash + 1).trim());
             }
+        } catch (NumberFormatException e) {
+            throw new JaxException("Error - Select tasks by number, e.g. 3, 1,4,9, 3-500 or done.");
+        }
+        return TaskSelection.ofRanges(firsts, lasts);
+    }
 
-            if (!isValidEmail(email)) {
-                throw new JaxException("Error - Invalid email format.");
-            }
+    private static Todo parseTodo(String arguments) throws JaxException {
+        if (arguments == null || arguments.isBlank()) {
+            throw new JaxException("Error - Todo description cannot be empty.");
+        }
+        return new Todo(arguments);
+    }
+
+    private static Deadline parseDeadline(String arguments) throws JaxException {
+        if (arguments == null || arguments.isBlank()) {
+            throw new JaxException("Error - Deadline description cannot be empty.");
+        }
+        int by = arguments.indexOf(BY_DELIMITER);
+        String time = segmentAfter(arguments, by, BY_DELIMITER);
+        if (time == null) {
+            throw new JaxException("Error - Deadline time not specified.");
+        }
+        try {
+            return new Deadline(arguments.substring(0, by), time);
+        } catch (DateTimeParseException e) {
+            throw new JaxException("Error - Invalid Date Format. Please use: yyyy-MM-dd (e.g., 2019-10-15 1800)");
+        }
+    }
+
+    private static Event parseEvent(String arguments) throws JaxException {
+        if (arguments == null || arguments.isBlank()) {
+            throw new JaxException("Error - Event description cannot be empty.");
+        }
+        int from = arguments.indexOf(FROM_DELIMITER);
+        String times = segmentAfter(arguments, from, FROM_DELIMITER);
+        if (times == null) {
+            throw new JaxException("Error - Start time not specified.");
+        }
+        int to = times.indexOf(TO_DELIMITER);
+        String end = segmentAfter(times, to, TO_DELIMITER);
+        if (end == null) {
+            throw new JaxException("Error - End time not specified.");
+        }
+
+        try {
+            return new Event(arguments.substring(0, from), times.substring(0, to), end);
+        } catch (DateTimeParseException e) {
+            throw new JaxException("Error - Invalid Date Format. Please use: yyyy-MM-dd (e.g., 2019-10-15 1800)");
+        }
+    }
+
+    private static String parseFind(String arguments) throws JaxException {
+        if (arguments == null || arguments.isBlank()) {
+            throw new JaxException("Error - Please specify a keyword to search for.");
+        }
+
+        return arguments.trim();
+    }
+
+    private static Contact parseContact(String arguments) throws JaxException {
+        if (arguments == null) {
+            throw new JaxException("Error - Contact command format: contact <name> /p <phone> /e <email>");
+        }
 
-            return new Contact(name, phone, email);
-        } catch (ArrayIndexOutOfBoundsException e) {
+        int phoneAt = arguments.indexOf(PHONE_DELIMITER);
+        String contactInfo = segmentAfter(arguments, phoneAt, PHONE_DELIMITER);
+        int emailAt = contactInfo == null ? -1 : contactInfo.indexOf(EMAIL_DELIMITER);
+        String email = segmentAfter(contactInfo, emailAt, EMAIL_DELIMITER);
+        if (email == null) {
             throw new JaxException("Error - Missing /p or /e flags for contact details.");
         }
+
+        String name = arguments.substring(0, phoneAt).trim();
+        String phone = contactInfo.substring(0, emailAt).trim();
+        email = email.trim();
+
+        if (name.isEmpty() || phone.isEmpty() || email.isEmpty()) {
+            throw new JaxException("Error - Name, phone, and email cannot be empty.");
+        }
+
+        if (!isValidEmail(email)) {
+            throw new JaxException("Error - Invalid email format.");
+        }
+
+        return new Contact(name, phone, email);
+    }
+
+    private static String parseDeleteContact(String arguments) throws JaxException {
+        if (arguments == null || arguments.isBlank()) {
+            throw new JaxException("Error - Please specify a contact name to delete.");
+        }
+        return arguments.trim();
+    }
+
+    private static String argumentsOf(String[] input) {
+        return input.length < 2 ? null : input[1];
     }
 
     /**
-     * Extracts the contact name for deletion.
-     * Expected format: delcontact <name>
+     * Returns the text following a delimiter, up to the next occurrence of the same delimiter.
+     * @param text The text to look in, or null.
+     * @param at Index of the delimiter in the text, or -1 if it does not occur.
+     * @return The segment, or null if the text or delimiter is missing or nothing follows the delimiter.
      */
-    public static String parseDeleteContact(String[] input) throws JaxException {
-        if (input.length < 2 || input[1].trim().isEmpty()) {
-            throw new JaxException("Error - Please specify a contact name to delete.");
+    private static String segmentAfter(String text, int at, String delimiter) {
+        if (text == null || at < 0) {
+            return null;
         }
-        return input[1].trim();
+        int start = at + delimiter.length();
+        int end = text.indexOf(delimiter, start);
+        String segment = text.substring(start, end < 0 ? text.length() : end);
+        return segment.isEmpty() && end < 0 ? null : segment;
     }
 
     /**
@@ -167,7 +410,6 @@ public class Parser {
      * @return true if valid, false otherwise.
      */
     private static boolean isValidEmail(String email) {
-        String emailRegex = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$";
-        return email.matches(emailRegex);
+        return EMAIL_PATTERN.matcher(email).matches();
     }
 }
@@ -0,0 +1,69 @@
+package jax.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals for one kind of file operation, such as writing the task snapshot:
+ * how often it happened, how many bytes it moved and how long it took.
+ */
+public class IoStats {
+
+    private final String name;
+    private final LongAdder bytes = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * Creates empty totals for an operation.
+     * @param name Short description of the operation, e.g. "task saves".
+     */
+    public IoStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records one operation. Does nothing if metrics are disabled.
+     * @param byteCount Number of bytes read or written.
+     * @param nanos Time taken, in nanoseconds.
+     */
+    public void record(long byteCount, long nanos) {
+        if (!Metrics.IS_ENABLED) {
+            return;
+        }
+        bytes.add(byteCount);
+        latency.record(nanos);
+    }
+
+    /**
+     * Getter for the description of the operation.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of operations recorded.
+     */
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    /**
+     * Returns the total number of bytes moved.
+     */
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    /**
+     * Returns the distribution of the time taken.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + getCount() + " ops, " + getBytes() + " bytes, mean " + latency.getMean() / 1000
+                + "us, p99 " + latency.getValueAtPercentile(99) / 1000 + "us, max " + latency.getMax() / 1000 + "us";
+    }
+}
@@ -0,0 +1,52 @@
+package jax.metrics;
+
+/**
+ * Management interface through which a running chatbot's metrics can be read with JMX tools such as JConsole.
+ */
+public interface JaxMetricsMXBean {
+
+    /**
+     * Returns the number of tasks in the list.
+     */
+    int getTaskCount();
+
+    /**
+     * Returns the number of contacts.
+     */
+    int getContactCount();
+
+    /**
+     * Returns the total number of commands run.
+     */
+    long getCommandCount();
+
+    /**
+     * Returns one line per command that has run, with its run count and latency percentiles.
+     */
+    String[] getCommandLatencies();
+
+    /**
+     * Returns one line per kind of file operation, with its count, bytes moved and latency.
+     */
+    String[] getStorageOperations();
+
+    /**
+     * Returns the number of task snapshots written.
+     */
+    long getTaskSaveCount();
+
+    /**
+     * Returns the total size of the task snapshots written, in bytes.
+     */
+    long getTaskSaveBytes();
+
+    /**
+     * Returns the 99th percentile time to write a task snapshot, in microseconds.
+     */
+    long getTaskSaveP99Micros();
+
+    /**
+     * Returns the time taken to load the task list, in microseconds, or 0 if it has not been loaded.
+     */
+    long getTaskLoadMicros();
+}
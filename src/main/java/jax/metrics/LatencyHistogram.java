@@ -0,0 +1,116 @@
+package jax.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts recorded durations in buckets of bounded relative width, in the manner of HdrHistogram.
+ * Each power of two is split into {@value #SUB_BUCKETS} buckets, so a percentile read back is at most 12.5% above
+ * the true value, while the histogram stays a fixed array of under 500 counters whatever the range of values.
+ * Recording is a few shifts and one atomic increment, and is safe from any number of threads.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Enough buckets for every non-negative long. */
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records one duration. Negative values are counted as 0.
+     * @param nanos The duration, in nanoseconds.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns the number of durations recorded.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of the durations recorded, in nanoseconds.
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * Returns the longest duration recorded, in nanoseconds, or 0 if none has been.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean duration in nanoseconds, or 0 if none has been recorded.
+     */
+    public long getMean() {
+        long n = getCount();
+        return n == 0 ? 0 : getTotal() / n;
+    }
+
+    /**
+     * Returns a duration that the given percentage of recorded durations do not exceed, rounded up to the end of
+     * its bucket but never above the maximum recorded.
+     * @param percentile A percentage from 0 to 100, e.g. 99 for the 99th percentile.
+     * @return The duration in nanoseconds, or 0 if none has been recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long recorded = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            recorded += counts.get(i);
+        }
+        if (recorded == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * recorded));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Returns the bucket of a non-negative value. Values below {@value #SUB_BUCKETS} have a bucket each;
+     * above that, the bucket is given by the position of the highest set bit and the bits just below it.
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the largest value that falls in a bucket.
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lowerBound = (1L << exponent) + (bucket % SUB_BUCKETS) * width;
+        return lowerBound + width - 1;
+    }
+}
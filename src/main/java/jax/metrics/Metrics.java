@@ -0,0 +1,63 @@
+package jax.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Switch for the collection of metrics, and registration of the beans that publish them over JMX.
+ * Metrics are collected unless Jax is started with {@code -Djax.metrics=false}. The switch is a constant,
+ * so when it is off the JIT drops the timing code altogether.
+ */
+public final class Metrics {
+
+    /** True unless the {@code jax.metrics} system property is {@code false}. */
+    public static final boolean IS_ENABLED = !"false".equalsIgnoreCase(System.getProperty("jax.metrics"));
+
+    private static final Logger logger = Logger.getLogger(Metrics.class.getName());
+
+    private Metrics() {
+    }
+
+    /**
+     * Publishes a chatbot's metrics under {@code jax:type=Metrics,name=<name>}, replacing any bean of that name.
+     * Nothing is published if metrics are disabled, and a failure is only logged.
+     * @param name Name telling chatbots in the same process apart, e.g. the user of a server session.
+     * @param bean The metrics to publish.
+     * @return The name the bean was published under, or null if it was not published.
+     */
+    public static ObjectName register(String name, JaxMetricsMXBean bean) {
+        if (!IS_ENABLED) {
+            return null;
+        }
+        try {
+            ObjectName objectName = new ObjectName("jax:type=Metrics,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(bean, objectName);
+            return objectName;
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "Could not publish metrics for " + name, e);
+            return null;
+        }
+    }
+
+    /**
+     * Withdraws a bean published by {@link #register}. Does nothing if the name is null or no longer registered.
+     */
+    public static void unregister(ObjectName objectName) {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            logger.fine("Metrics already withdrawn: " + objectName);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package jax.reminder;
+
+/**
+ * Receives the reminders fired by a {@link ReminderScheduler}, e.g. to show them in the window or send them
+ * to the connections of a server session.
+ */
+@FunctionalInterface
+public interface ReminderListener {
+
+    /**
+     * Delivers one reminder. Called on the scheduler's thread, so it should hand the message over rather than
+     * do slow work itself.
+     * @param message The reminder, ready to be shown to the user.
+     */
+    void remind(String message);
+}
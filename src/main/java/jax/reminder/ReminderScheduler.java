@@ -0,0 +1,259 @@
+package jax.reminder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jax.task.Task;
+
+/**
+ * Fires a reminder shortly before each deadline is due and each event starts.
+ * Upcoming reminders are kept in a priority queue ordered by when they fire, and a single daemon thread sleeps
+ * until the earliest one, so nothing runs between reminders however many are pending.
+ * Adding, marking or deleting a task updates the queue in logarithmic time. A cancelled reminder is only forgotten,
+ * and its queue entry dropped when it reaches the head, or all at once when stale entries outnumber live ones.
+ * A recurring event is scheduled one occurrence at a time, the next once the current one has fired.
+ */
+public class ReminderScheduler implements AutoCloseable {
+
+    /** How long before a task falls due its reminder fires, unless {@code jax.reminder.leadMinutes} is set. */
+    public static final Duration DEFAULT_LEAD = Duration.ofMinutes(Long.getLong("jax.reminder.leadMinutes", 15));
+
+    /**
+     * Longest the thread sleeps at once. Waking up now and then keeps reminders on time if the system clock
+     * is changed, which a timed wait does not follow.
+     */
+    private static final long MAX_WAIT_MILLIS = 60_000;
+    /** Minimum number of stale queue entries before the queue is rebuilt from the live reminders. */
+    private static final int MIN_STALE_TO_PURGE = 1024;
+
+    private static final Logger logger = Logger.getLogger(ReminderScheduler.class.getName());
+
+    private final ReminderListener listener;
+    private final Duration lead;
+    private final Clock clock;
+    /** Reminders by when they fire. Entries that are not the live reminder of their task are stale. */
+    private PriorityQueue<Reminder> queue = new PriorityQueue<>();
+    /** Live reminder of each scheduled task, including one being fired. Tasks are compared by identity. */
+    private final IdentityHashMap<Task, Reminder> pending = new IdentityHashMap<>();
+    private boolean isClosed;
+
+    /**
+     * One upcoming reminder for a task.
+     */
+    private static final class Reminder implements Comparable<Reminder> {
+        private final Task task;
+        private final LocalDateTime dueAt;
+        private final long fireAtMillis;
+
+        Reminder(Task task, LocalDateTime dueAt, long fireAtMillis) {
+            this.task = task;
+            this.dueAt = dueAt;
+            this.fireAtMillis = fireAtMillis;
+        }
+
+        @Override
+        public int compareTo(Reminder other) {
+            return Long.compare(fireAtMillis, other.fireAtMillis);
+        }
+    }
+
+    /**
+     * Creates a scheduler that fires reminders {@link #DEFAULT_LEAD} ahead, by the system clock.
+     * @param listener Receives the reminders.
+     */
+    public ReminderScheduler(ReminderListener listener) {
+        this(listener, DEFAULT_LEAD, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Creates a scheduler and starts its thread.
+     * @param listener Receives the reminders.
+     * @param lead How long before a task falls due its reminder fires.
+     * @param clock Source of the current time, whose zone is used to read the tasks' local times.
+     */
+    public ReminderScheduler(ReminderListener listener, Duration lead, Clock clock) {
+        this.listener = listener;
+        this.lead = lead;
+        this.clock = clock;
+        Thread thread = new Thread(this::run, "jax-reminders");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the current time by the scheduler's clock.
+     */
+    public LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    /**
+     * Schedules a reminder for the next time the task falls due, replacing any reminder it had.
+     * A task that is done, or never falls due again, is unscheduled instead.
+     */
+    public synchronized void schedule(Task task) {
+        scheduleAfter(task, LocalDateTime.now(clock));
+    }
+
+    /**
+     * Schedules many tasks at once, e.g. a whole list when it is loaded. The queue is rebuilt in linear time
+     * rather than growing one task at a time.
+     */
+    public synchronized void scheduleAll(Iterable<Task> tasks) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        for (Task task : tasks) {
+            Reminder reminder = createReminder(task, now);
+            if (reminder == null) {
+                pending.remove(task);
+            } else {
+                pending.put(task, reminder);
+            }
+        }
+        queue = new PriorityQueue<>(pending.values());
+        notifyAll();
+    }
+
+    /**
+     * Drops the task's reminder, e.g. because the task was marked as done or deleted.
+     */
+    public synchronized void cancel(Task task) {
+        if (pending.remove(task) != null) {
+            purgeIfStale();
+        }
+    }
+
+    /**
+     * Returns the number of tasks with a reminder pending.
+     */
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * Stops the thread. No reminder fires afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        isClosed = true;
+        notifyAll();
+    }
+
+    /**
+     * Schedules the first time the task falls due after the given time. Must hold the lock.
+     */
+    private void scheduleAfter(Task task, LocalDateTime time) {
+        Reminder reminder = createReminder(task, time);
+        if (reminder == null) {
+            cancel(task);
+            return;
+        }
+        pending.put(task, reminder);
+        queue.add(reminder);
+        if (queue.peek() == reminder) {
+            notifyAll();
+        }
+        purgeIfStale();
+    }
+
+    /**
+     * Returns the reminder for the first time the task falls due after the given time, or null if there is none.
+     */
+    private Reminder createReminder(Task task, LocalDateTime time) {
+        if (task.isDone()) {
+            return null;
+        }
+        LocalDateTime dueAt = task.getNextDueAfter(time);
+        if (dueAt == null) {
+            return null;
+        }
+        long fireAtMillis = dueAt.minus(lead).atZone(clock.getZone()).toInstant().toEpochMilli();
+        return new Reminder(task, dueAt, fireAtMillis);
+    }
+
+    /**
+     * Rebuilds the queue from the live reminders once most of its entries are stale, so that memory stays
+     * proportional to the number of pending reminders. Must hold the lock.
+     */
+    private void purgeIfStale() {
+        int stale = queue.size() - pending.size();
+        if (stale >= MIN_STALE_TO_PURGE && stale > pending.size()) {
+            queue = new PriorityQueue<>(pending.values());
+        }
+    }
+
+    /**
+     * Body of the scheduler thread: waits for due reminders, fires them without holding the lock, and then
+     * schedules the next occurrence of any that repeat.
+     */
+    private void run() {
+        List<Reminder> due = new ArrayList<>();
+        while (true) {
+            synchronized (this) {
+                try {
+                    awaitDue(due);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (isClosed) {
+                    return;
+                }
+            }
+            for (Reminder reminder : due) {
+                fire(reminder);
+            }
+            synchronized (this) {
+                for (Reminder reminder : due) {
+                    // Skipped if the task was cancelled or rescheduled while its reminder was firing.
+                    if (pending.get(reminder.task) == reminder) {
+                        scheduleAfter(reminder.task, reminder.dueAt);
+                    }
+                }
+            }
+            due.clear();
+        }
+    }
+
+    /**
+     * Waits until at least one reminder is due, then moves every due reminder from the queue to the given list.
+     * Returns with the list empty only once the scheduler is closed. Must hold the lock.
+     */
+    private void awaitDue(List<Reminder> due) throws InterruptedException {
+        while (!isClosed) {
+            Reminder head = queue.peek();
+            if (head != null && pending.get(head.task) != head) {
+                queue.poll();
+                continue;
+            }
+            long delay = head == null ? 0 : head.fireAtMillis - clock.millis();
+            if (head != null && delay <= 0) {
+                due.add(queue.poll());
+            } else if (!due.isEmpty()) {
+                return;
+            } else if (head == null) {
+                wait();
+            } else {
+                wait(Math.min(delay, MAX_WAIT_MILLIS));
+            }
+        }
+    }
+
+    private void fire(Reminder reminder) {
+        // A task marked while the list was being scheduled may have slipped in; it is not worth a reminder.
+        if (reminder.task.isDone()) {
+            return;
+        }
+        try {
+            listener.remind("Reminder - coming up at " + reminder.dueAt.format(Task.DISPLAY_FORMAT) + ":\n  "
+                    + reminder.task);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Failed to deliver a reminder.", e);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package jax.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jax.main.JaxException;
+import jax.reminder.ReminderListener;
+
+/**
+ * Headless server that lets many users chat with Jax over a local TCP line protocol.
+ * The first line a client sends is its user name, which selects that user's own tasks and contacts;
+ * every later line is a command, answered with the chatbot's response followed by an empty line.
+ * Sending {@code bye} ends the connection. A reminder of an upcoming deadline or event may arrive between
+ * responses, also followed by an empty line. Each connection is served by its own thread, so the
+ * number of users served at once scales with the cores available rather than with a single UI thread.
+ */
+public class JaxServer implements AutoCloseable {
+
+    /** Port used when none is given on the command line. */
+    public static final int DEFAULT_PORT = 4004;
+    /** How long an unused session stays in memory, in minutes, unless {@code jax.server.idleMinutes} is set. */
+    private static final long DEFAULT_IDLE_MINUTES = 10;
+
+    private static final Logger logger = Logger.getLogger(JaxServer.class.getName());
+
+    private final ServerSocket serverSocket;
+    private final SessionPool sessions;
+    /**
+     * Runs one task per connection. A cached pool stands in for one virtual thread per connection,
+     * which needs a newer JDK than the Java 17 this project targets.
+     */
+    private final ExecutorService connections;
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * Starts listening on the loopback interface.
+     * @param port Port to listen on, or 0 to pick a free one.
+     * @param dataDirectory Directory holding one folder of save files per user.
+     * @param idleTimeoutMillis How long an unused session is kept in memory.
+     * @throws IOException If the port cannot be opened.
+     */
+    public JaxServer(int port, Path dataDirectory, long idleTimeoutMillis) throws IOException {
+        this.serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        this.sessions = new SessionPool(dataDirectory, idleTimeoutMillis);
+        this.connections = Executors.newCachedThreadPool(daemonThreads("jax-connection-"));
+        this.evictor = Executors.newSingleThreadScheduledExecutor(daemonThreads("jax-session-evictor-"));
+        long period = Math.max(1, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(sessions::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts the server from the command line.
+     * Usage: {@code JaxServer [port]}. User data is kept under {@code data/users}.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        long idleMillis = TimeUnit.MINUTES.toMillis(Long.getLong("jax.server.idleMinutes", DEFAULT_IDLE_MINUTES));
+        try (JaxServer server = new JaxServer(port, Path.of("data", "users"), idleMillis)) {
+            logger.info("Jax server listening on port " + server.getPort());
+            server.serve();
+        }
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until the server is closed.
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            connections.execute(() -> handle(socket));
+        }
+    }
+
+    /**
+     * Stops accepting connections and saves every session still in memory.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        evictor.shutdownNow();
+        connections.shutdownNow();
+        sessions.closeAll();
+    }
+
+    /**
+     * Returns the number of user sessions currently held in memory.
+     */
+    int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Evicts idle sessions right away instead of waiting for the next scheduled check.
+     */
+    void evictIdleSessions() {
+        sessions.evictIdle();
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String user = in.readLine();
+            if (user == null) {
+                return;
+            }
+            user = user.trim();
+            if (!SessionPool.isValidUser(user)) {
+                reply(out, "Error - User names may only contain letters, digits, '_' and '-'.");
+                return;
+            }
+
+            Session session = sessions.acquire(user);
+            ReminderListener subscriber = message -> push(out, message);
+            session.subscribe(subscriber);
+            try {
+                converse(session, in, out);
+            } finally {
+                session.unsubscribe(subscriber);
+                sessions.release(session);
+            }
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Connection closed.", e);
+        }
+    }
+
+    private static void converse(Session session, BufferedReader in, BufferedWriter out) throws IOException {
+        try {
+            reply(out, session.greet());
+            String line;
+            while ((line = in.readLine()) != null) {
+                if ("bye".equals(session.getCommandName(line))) {
+                    reply(out, session.goodbye());
+                    return;
+                }
+                reply(out, session.respond(line));
+            }
+        } catch (JaxException e) {
+            reply(out, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a response followed by the empty line that marks its end. An empty response is just that line.
+     * Synchronised on the writer, since reminders are written from another thread.
+     */
+    private static void reply(BufferedWriter out, String response) throws IOException {
+        synchronized (out) {
+            if (!response.isEmpty()) {
+                out.write(response);
+                out.write('\n');
+            }
+            out.write('\n');
+            out.flush();
+        }
+    }
+
+    /**
+     * Sends a reminder to a connection. A connection that has gone away is left for its own thread to notice.
+     */
+    private static void push(BufferedWriter out, String message) {
+        try {
+            reply(out, message);
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Could not send a reminder.", e);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
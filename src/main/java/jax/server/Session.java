@@ -0,0 +1,138 @@
+package jax.server;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import jax.main.Jax;
+import jax.main.JaxException;
+import jax.reminder.ReminderListener;
+import jax.storage.Storage;
+
+/**
+ * One user's chatbot on the server, shared by every open connection of that user.
+ * The chatbot and its save files are loaded on the first request, and requests are handled one at a time
+ * since a {@link Jax} instance is not meant to be used from several threads at once.
+ * Reminders fired for the user are sent to every connection subscribed to the session.
+ */
+class Session {
+
+    private final String user;
+    private final Path directory;
+    private Jax jax;
+    private boolean isClosed;
+    /** Number of connections currently using the session. Guarded by the {@link SessionPool} map entry. */
+    private int connectionCount;
+    private volatile long lastUsedMillis;
+    /** Connections to send reminders to. */
+    private final CopyOnWriteArrayList<ReminderListener> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a session whose data lives in the given directory.
+     */
+    Session(String user, Path directory) {
+        this.user = user;
+        this.directory = directory;
+        this.lastUsedMillis = System.currentTimeMillis();
+    }
+
+    String getUser() {
+        return user;
+    }
+
+    /**
+     * Returns the greeting shown when a connection is opened.
+     */
+    synchronized String greet() throws JaxException {
+        return load().getGreeting();
+    }
+
+    /**
+     * Handles one line from the user.
+     */
+    synchronized String respond(String line) throws JaxException {
+        lastUsedMillis = System.currentTimeMillis();
+        return load().getResponse(line);
+    }
+
+    /**
+     * Returns the name of the command the line runs, or null if it runs none.
+     */
+    synchronized String getCommandName(String line) throws JaxException {
+        return load().getCommandName(line);
+    }
+
+    /**
+     * Returns the goodbye message.
+     */
+    synchronized String goodbye() throws JaxException {
+        return load().getGoodbye();
+    }
+
+    /**
+     * Sends the reminders fired from now on to the given connection as well.
+     */
+    void subscribe(ReminderListener subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Stops sending reminders to a connection.
+     */
+    void unsubscribe(ReminderListener subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    void connectionOpened() {
+        connectionCount++;
+        lastUsedMillis = System.currentTimeMillis();
+    }
+
+    void connectionClosed() {
+        connectionCount--;
+        lastUsedMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns true if no connection uses the session and it has not been used since the given time.
+     */
+    boolean isIdleSince(long millis) {
+        return connectionCount == 0 && lastUsedMillis < millis;
+    }
+
+    /**
+     * Saves the user's data and releases the chatbot.
+     */
+    synchronized void close() throws JaxException {
+        isClosed = true;
+        if (jax != null) {
+            jax.close();
+            jax = null;
+        }
+    }
+
+    private void broadcast(String message) {
+        for (ReminderListener subscriber : subscribers) {
+            subscriber.remind(message);
+        }
+    }
+
+    private Jax load() throws JaxException {
+        if (isClosed) {
+            throw new JaxException("Error - The server is shutting down.");
+        }
+        if (jax == null) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                throw new JaxException("Error - Could not create data folder for " + user);
+            }
+            jax = new Jax(new Storage(directory.resolve("tasks.txt").toString(),
+                    directory.resolve("contacts.txt").toString()));
+            jax.publishMetrics(user);
+            jax.startReminders(this::broadcast);
+        }
+        return jax;
+    }
+}
@@ -0,0 +1,104 @@
+package jax.server;
+
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import jax.main.JaxException;
+
+/**
+ * Keeps one {@link Session} per user in memory while it is in use.
+ * Sessions that no connection has used for longer than the idle timeout are saved and dropped,
+ * and loaded again from disk the next time the user connects.
+ */
+class SessionPool {
+
+    /** User names double as folder names, so they are limited to characters that are safe in a path. */
+    private static final Pattern USER_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+
+    private static final Logger logger = Logger.getLogger(SessionPool.class.getName());
+
+    private final Path dataDirectory;
+    private final long idleTimeoutMillis;
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a pool that keeps each user's save files in a folder of the given directory.
+     * @param idleTimeoutMillis How long an unused session is kept in memory.
+     */
+    SessionPool(Path dataDirectory, long idleTimeoutMillis) {
+        this.dataDirectory = dataDirectory;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Returns true if the name can be used as a user name.
+     */
+    static boolean isValidUser(String user) {
+        return USER_PATTERN.matcher(user).matches();
+    }
+
+    /**
+     * Returns the user's session, creating it if needed, and counts a new connection to it.
+     * Each call must be paired with {@link #release(Session)}.
+     */
+    Session acquire(String user) {
+        assert isValidUser(user) : "User name must be validated first";
+        return sessions.compute(user, (key, session) -> {
+            Session acquired = session == null ? new Session(key, dataDirectory.resolve(key)) : session;
+            acquired.connectionOpened();
+            return acquired;
+        });
+    }
+
+    /**
+     * Records that a connection has stopped using the session.
+     */
+    void release(Session session) {
+        sessions.computeIfPresent(session.getUser(), (key, current) -> {
+            current.connectionClosed();
+            return current;
+        });
+    }
+
+    /**
+     * Returns the number of sessions currently in memory.
+     */
+    int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Saves and drops every session that has been idle for longer than the timeout.
+     * Eviction happens inside the map entry, so a user reconnecting meanwhile waits for the save to finish.
+     */
+    void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        for (String user : sessions.keySet()) {
+            sessions.computeIfPresent(user, (key, session) -> session.isIdleSince(cutoff) ? close(session) : session);
+        }
+    }
+
+    /**
+     * Saves and drops every session.
+     */
+    void closeAll() {
+        for (String user : sessions.keySet()) {
+            sessions.computeIfPresent(user, (key, session) -> close(session));
+        }
+    }
+
+    /**
+     * Closes a session and returns null so that it is removed from the map.
+     */
+    private static Session close(Session session) {
+        try {
+            session.close();
+        } catch (JaxException e) {
+            logger.log(Level.WARNING, "Failed to save session of " + session.getUser(), e);
+        }
+        return null;
+    }
+}
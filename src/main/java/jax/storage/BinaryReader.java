@@ -0,0 +1,108 @@
+package jax.storage;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Buffered reader of the values written by {@link BinaryWriter}.
+ * It reads either from an NIO channel or from a buffer that already holds the whole input.
+ */
+class BinaryReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * Creates a reader that refills its buffer from the channel.
+     */
+    BinaryReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.buffer.flip();
+    }
+
+    /**
+     * Creates a reader over a buffer holding the complete input, such as a mapped file.
+     */
+    BinaryReader(ByteBuffer buffer) {
+        this.channel = null;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Returns true if there is no more input to read.
+     */
+    boolean isAtEnd() throws IOException {
+        return !buffer.hasRemaining() && !fill(1);
+    }
+
+    int getByte() throws IOException {
+        require(Byte.BYTES);
+        return buffer.get() & 0xFF;
+    }
+
+    int getInt() throws IOException {
+        require(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    long getLong() throws IOException {
+        require(Long.BYTES);
+        return buffer.getLong();
+    }
+
+    String getString() throws IOException {
+        int length = getInt();
+        if (length < 0) {
+            throw new IOException("Negative string length " + length);
+        }
+        return new String(getBytes(length), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the given number of bytes.
+     */
+    byte[] getBytes(int length) throws IOException {
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        while (offset < length) {
+            require(1);
+            int chunk = Math.min(buffer.remaining(), length - offset);
+            buffer.get(bytes, offset, chunk);
+            offset += chunk;
+        }
+        return bytes;
+    }
+
+    private void require(int size) throws IOException {
+        if (buffer.remaining() < size && !fill(size)) {
+            throw new EOFException();
+        }
+    }
+
+    /**
+     * Reads more bytes from the channel until at least {@code size} bytes are buffered.
+     * @return false if the input ends first.
+     */
+    private boolean fill(int size) throws IOException {
+        if (channel == null) {
+            return buffer.remaining() >= size;
+        }
+        buffer.compact();
+        try {
+            while (buffer.position() < size) {
+                if (channel.read(buffer) < 0) {
+                    return false;
+                }
+            }
+        } finally {
+            buffer.flip();
+        }
+        return true;
+    }
+}
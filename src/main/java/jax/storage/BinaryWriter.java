@@ -0,0 +1,107 @@
+package jax.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Buffered writer of primitive values and length-prefixed UTF-8 strings onto an NIO channel.
+ */
+class BinaryWriter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    /** Total number of bytes handed to this writer. */
+    private long written;
+
+    BinaryWriter(WritableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.written = 0;
+    }
+
+    long getBytesWritten() {
+        return written;
+    }
+
+    void putByte(int value) throws IOException {
+        ensureRemaining(Byte.BYTES);
+        buffer.put((byte) value);
+        written += Byte.BYTES;
+    }
+
+    void putInt(int value) throws IOException {
+        ensureRemaining(Integer.BYTES);
+        buffer.putInt(value);
+        written += Integer.BYTES;
+    }
+
+    void putLong(long value) throws IOException {
+        ensureRemaining(Long.BYTES);
+        buffer.putLong(value);
+        written += Long.BYTES;
+    }
+
+    /**
+     * Writes the UTF-8 bytes of the string prefixed by their length.
+     */
+    void putString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        if (bytes.length > buffer.capacity()) {
+            flush();
+            writeFully(ByteBuffer.wrap(bytes));
+        } else {
+            ensureRemaining(bytes.length);
+            buffer.put(bytes);
+        }
+        written += bytes.length;
+    }
+
+    /**
+     * Copies the remaining bytes of the buffer verbatim.
+     */
+    void putBytes(ByteBuffer src) throws IOException {
+        int length = src.remaining();
+        if (length > buffer.capacity()) {
+            flush();
+            writeFully(src);
+        } else {
+            ensureRemaining(length);
+            buffer.put(src);
+        }
+        written += length;
+    }
+
+    /**
+     * Pushes all buffered bytes to the channel.
+     */
+    void flush() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void ensureRemaining(int size) throws IOException {
+        if (buffer.remaining() < size) {
+            flush();
+        }
+    }
+
+    private void writeFully(ByteBuffer src) throws IOException {
+        while (src.hasRemaining()) {
+            channel.write(src);
+        }
+    }
+
+    /**
+     * Flushes the remaining bytes. The underlying channel is left open for the caller to close.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
@@ -0,0 +1,30 @@
+package jax.storage;
+
+/**
+ * How hard Storage tries to get a write onto the disk before carrying on.
+ * Stronger levels survive power loss at the cost of slower saves.
+ */
+public enum Durability {
+    /** Leave written data in the operating system's cache. Survives a crash of Jax, not of the machine. */
+    NONE,
+    /** Force file contents, but not file metadata, to the disk. */
+    FLUSH,
+    /** Force file contents and metadata to the disk, including the directory entry of a replaced file. */
+    FSYNC;
+
+    /**
+     * Parses a durability level by name, ignoring case.
+     * @param name One of "none", "flush" or "fsync".
+     * @param fallback Level returned if the name is null or not recognised.
+     */
+    public static Durability parse(String name, Durability fallback) {
+        if (name != null) {
+            for (Durability level : values()) {
+                if (level.name().equalsIgnoreCase(name.trim())) {
+                    return level;
+                }
+            }
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,405 @@
+package jax.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+import jax.task.Task;
+
+/**
+ * The list of tasks as kept in memory, with positional access for commands and ID-based lookup.
+ * Tasks are held in slots: the first slots are the records of a memory-mapped save file, decoded only
+ * when first accessed, followed by the tasks added since. Removing a task leaves a tombstone in its slot
+ * instead of shifting the slots after it, and tombstones are compacted away once they make up most of the list.
+ * Inserting before the end shifts only the slots after the file slots, and moves the whole list into memory only
+ * when the task goes among the file slots.
+ * Every task added gets a stable ID, and IDs are looked up through a primitive hash map from ID to slot.
+ * Structural changes must be serialised by the caller, but any number of threads may read concurrently:
+ * decoding a record publishes the task atomically, so every reader sees the same task object. The ID map is
+ * kept up to date by changes only once it exists, so a list read while it changes must have the map built with
+ * {@link #buildIdMap()} while changes are held off, before any reader looks up an ID.
+ */
+public class LazyTaskList extends AbstractList<Task> implements RandomAccess {
+
+    /** Minimum number of tombstones before the slots are compacted. */
+    private static final int COMPACT_MIN_DEAD = 1024;
+
+    private MappedTaskFile file;
+    /** Number of slots backed by the mapped file. */
+    private int fileCount;
+    /** Tasks decoded so far, by file slot, or null if there are no file slots. */
+    private AtomicReferenceArray<Task> decoded;
+    /** Tasks in the slots after the file slots. */
+    private ArrayList<Task> appended;
+    /** Which slots hold tombstones, or null while nothing has been removed. */
+    private LiveSlotIndex live;
+    /** Slot of each task ID, built on the first lookup. */
+    private volatile TaskIdMap ids;
+    private int nextId;
+
+    /**
+     * Creates an empty list.
+     */
+    public LazyTaskList() {
+        this(new ArrayList<>());
+    }
+
+    /**
+     * Creates a list holding the given tasks in memory, giving an ID to any task that has none.
+     */
+    public LazyTaskList(List<Task> tasks) {
+        this.appended = new ArrayList<>(tasks.size());
+        this.nextId = 1;
+        for (Task task : tasks) {
+            nextId = Math.max(nextId, task.getId() + 1);
+        }
+        for (Task task : tasks) {
+            assignId(task);
+            appended.add(task);
+        }
+    }
+
+    LazyTaskList(MappedTaskFile file) {
+        this.file = file;
+        this.fileCount = file.size();
+        this.decoded = new AtomicReferenceArray<>(fileCount);
+        this.appended = new ArrayList<>();
+        this.nextId = file.getNextId();
+    }
+
+    /**
+     * Returns the ID that the next task added will receive.
+     */
+    public int getNextId() {
+        return nextId;
+    }
+
+    @Override
+    public int size() {
+        return live == null ? slotCount() : live.getLiveCount();
+    }
+
+    @Override
+    public Task get(int index) {
+        return slotGet(toSlot(index));
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        int slot = toSlot(index);
+        Task previous = slotGet(slot);
+        assignId(task);
+        if (slot < fileCount) {
+            decoded.set(slot, task);
+        } else {
+            appended.set(slot - fileCount, task);
+        }
+        if (ids != null) {
+            if (previous.getId() != task.getId()) {
+                ids.remove(previous.getId());
+            }
+            ids.put(task.getId(), slot);
+        }
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        assignId(task);
+        if (index == size()) {
+            appended.add(task);
+            if (live != null) {
+                live.append();
+            }
+            if (ids != null) {
+                ids.put(task.getId(), slotCount() - 1);
+            }
+        } else {
+            int slot = toSlot(index);
+            if (slot < fileCount) {
+                compact();
+                appended.add(index, task);
+            } else {
+                appended.add(slot - fileCount, task);
+                if (live != null) {
+                    live.insert(slot);
+                }
+                if (ids != null) {
+                    ids.shiftSlots(slot);
+                    ids.put(task.getId(), slot);
+                }
+            }
+        }
+        modCount++;
+    }
+
+    /**
+     * Removes the task at the given position by leaving a tombstone in its slot.
+     */
+    @Override
+    public Task remove(int index) {
+        int slot = toSlot(index);
+        Task removed = slotGet(slot);
+        if (live == null) {
+            live = new LiveSlotIndex(slotCount());
+        }
+        live.kill(slot);
+        modCount++;
+
+        if (live.getDeadCount() >= COMPACT_MIN_DEAD && live.getDeadCount() > live.getLiveCount()) {
+            compact();
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the tasks at several positions in one pass. Every position is resolved to its slot before any
+     * tombstone is left, so the positions all refer to the list as it was, and compaction is considered once
+     * at the end rather than after each removal.
+     * @param positions Distinct positions in ascending order.
+     * @return The removed tasks, in the same order.
+     */
+    public List<Task> removePositions(int[] positions) {
+        int[] slots = new int[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            slots[i] = toSlot(positions[i]);
+        }
+        if (live == null) {
+            live = new LiveSlotIndex(slotCount());
+        }
+        List<Task> removed = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            removed.add(slotGet(slot));
+            live.kill(slot);
+        }
+        modCount++;
+
+        if (live.getDeadCount() >= COMPACT_MIN_DEAD && live.getDeadCount() > live.getLiveCount()) {
+            compact();
+        }
+        return removed;
+    }
+
+    /**
+     * Puts a removed task back at the position it was removed from. While its tombstone is still in place,
+     * i.e. unless the slots have been compacted since, the tombstone is revived in O(log n); otherwise the task
+     * is inserted as by {@link #add(int, Task)}.
+     * @param index Position the task is to have, which must be the position it was removed from for the
+     *     tombstone to be revived.
+     * @param task The removed task itself, not a copy.
+     */
+    public void restore(int index, Task task) {
+        if (live != null && task.getId() != 0) {
+            int slot = idMap().get(task.getId());
+            if (slot >= 0 && live.isDead(slot) && live.rank(slot) == index && slotGet(slot) == task) {
+                live.revive(slot);
+                modCount++;
+                return;
+            }
+        }
+        add(index, task);
+    }
+
+    /**
+     * Returns the position of the task with the given ID, or -1 if there is no such task.
+     */
+    public int indexOfId(int id) {
+        int slot = idMap().get(id);
+        if (slot < 0 || (live != null && live.isDead(slot))) {
+            return -1;
+        }
+        return live == null ? slot : live.rank(slot);
+    }
+
+    /**
+     * Returns the tasks that may fall due after the given time, in list order. Tasks still only in the mapped
+     * file are left out without being decoded if the save file records that they are done or past.
+     * Decoded tasks are all returned, for the caller to check.
+     */
+    public List<Task> mayFallDueAfter(LocalDateTime time) {
+        long minute = TaskCodec.toEpochMinute(time);
+        List<Task> found = new ArrayList<>();
+        for (int slot = 0; slot < slotCount(); slot++) {
+            if (live != null && live.isDead(slot)) {
+                continue;
+            }
+            if (slot < fileCount && decoded.get(slot) == null && file.lastDueMinuteAt(slot) < minute) {
+                continue;
+            }
+            found.add(slotGet(slot));
+        }
+        return found;
+    }
+
+    /**
+     * Passes every task to the action in list order. Tasks still only in the mapped file are decoded into objects
+     * that are passed on but not kept, so that walking a large list does not pull all of it into memory.
+     */
+    public void forEachUnretained(Consumer<Task> action) {
+        for (int slot = 0; slot < slotCount(); slot++) {
+            if (live != null && live.isDead(slot)) {
+                continue;
+            }
+            Task task = slot < fileCount ? decoded.get(slot) : slotGet(slot);
+            if (task == null) {
+                try {
+                    task = file.decode(slot);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Corrupted task record " + slot, e);
+                }
+            }
+            action.accept(task);
+        }
+    }
+
+    /**
+     * Returns an independent copy that shares the mapping and the tasks decoded so far,
+     * without decoding anything further.
+     */
+    LazyTaskList copy() {
+        LazyTaskList copy = new LazyTaskList(appended);
+        copy.file = file;
+        copy.fileCount = fileCount;
+        copy.decoded = decoded == null ? null : copyOf(decoded);
+        copy.live = live == null ? null : live.copy();
+        copy.nextId = nextId;
+        return copy;
+    }
+
+    /**
+     * Returns the mapped save file behind the first slots, or null if there is none.
+     */
+    MappedTaskFile getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the record index in the mapped file of the task at the given position if it has not been decoded
+     * yet, so that its encoded bytes can be copied into a new save file as-is.
+     * @return The record index, or -1 if the task is only available as an object.
+     */
+    int rawSlot(int index) {
+        int slot = toSlot(index);
+        if (slot >= fileCount || decoded.get(slot) != null) {
+            return -1;
+        }
+        return slot;
+    }
+
+    /**
+     * Builds the ID map if it has not been built yet. Must be called while no other thread changes the list,
+     * since a change made during the build would be missing from the map for good.
+     */
+    public void buildIdMap() {
+        if (ids == null) {
+            TaskIdMap map = new TaskIdMap(slotCount());
+            for (int slot = 0; slot < slotCount(); slot++) {
+                map.put(slotId(slot), slot);
+            }
+            ids = map;
+        }
+    }
+
+    /**
+     * Returns whether the ID map has been built, so that a caller sharing the list knows whether it still has to
+     * hold off changes and call {@link #buildIdMap()}.
+     */
+    public boolean hasIdMap() {
+        return ids != null;
+    }
+
+    /**
+     * Returns the ID map, building it on first use. Only a thread that excludes changes may get here first.
+     */
+    private TaskIdMap idMap() {
+        buildIdMap();
+        return ids;
+    }
+
+    private static AtomicReferenceArray<Task> copyOf(AtomicReferenceArray<Task> array) {
+        AtomicReferenceArray<Task> copy = new AtomicReferenceArray<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            copy.set(i, array.get(i));
+        }
+        return copy;
+    }
+
+    private int slotCount() {
+        return fileCount + appended.size();
+    }
+
+    private int toSlot(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return live == null ? index : live.select(index);
+    }
+
+    private Task slotGet(int slot) {
+        if (slot >= fileCount) {
+            return appended.get(slot - fileCount);
+        }
+        Task task = decoded.get(slot);
+        if (task == null) {
+            try {
+                task = file.decode(slot);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Corrupted task record " + slot, e);
+            }
+            if (!decoded.compareAndSet(slot, null, task)) {
+                task = decoded.get(slot);
+            }
+        }
+        return task;
+    }
+
+    /**
+     * Reads the ID of the task in a slot, without decoding it if it is still only in the file.
+     */
+    private int slotId(int slot) {
+        if (slot < fileCount && decoded.get(slot) == null) {
+            return file.idAt(slot);
+        }
+        return slotGet(slot).getId();
+    }
+
+    private void assignId(Task task) {
+        if (task.getId() == 0) {
+            task.setId(nextId++);
+        } else {
+            nextId = Math.max(nextId, task.getId() + 1);
+        }
+    }
+
+    /**
+     * Moves every live task into memory, in order, dropping the tombstones and the mapping.
+     */
+    private void compact() {
+        ArrayList<Task> all = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            all.add(get(i));
+        }
+        appended = all;
+        file = null;
+        fileCount = 0;
+        decoded = null;
+        live = null;
+        if (ids != null) {
+            // Rebuilt rather than dropped, so that readers never find the map missing once it was built.
+            TaskIdMap map = new TaskIdMap(all.size());
+            for (int slot = 0; slot < all.size(); slot++) {
+                map.put(all.get(slot).getId(), slot);
+            }
+            ids = map;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package jax.storage;
+
+import java.util.BitSet;
+
+/**
+ * Tracks which slots of a list are still live after removals have left tombstones behind.
+ * A Fenwick tree over the live flags turns a position in the list of live entries into a slot,
+ * and a slot back into a position, in O(log n).
+ */
+class LiveSlotIndex {
+
+    /** One-based Fenwick tree of live counts; its capacity is {@code tree.length - 1}. */
+    private int[] tree;
+    private final BitSet dead = new BitSet();
+    private int slotCount;
+    private int deadCount;
+
+    /**
+     * Creates an index over the given number of slots, all of them live.
+     */
+    LiveSlotIndex(int slotCount) {
+        this.slotCount = slotCount;
+        rebuild(Math.max(16, slotCount));
+    }
+
+    private LiveSlotIndex(LiveSlotIndex other) {
+        this.tree = other.tree.clone();
+        this.dead.or(other.dead);
+        this.slotCount = other.slotCount;
+        this.deadCount = other.deadCount;
+    }
+
+    /**
+     * Returns an independent copy of this index.
+     */
+    LiveSlotIndex copy() {
+        return new LiveSlotIndex(this);
+    }
+
+    int getDeadCount() {
+        return deadCount;
+    }
+
+    int getLiveCount() {
+        return slotCount - deadCount;
+    }
+
+    boolean isDead(int slot) {
+        return dead.get(slot);
+    }
+
+    /**
+     * Adds a live slot at the end.
+     */
+    void append() {
+        if (slotCount + 1 >= tree.length) {
+            slotCount++;
+            rebuild(tree.length * 2);
+        } else {
+            slotCount++;
+            update(slotCount - 1, 1);
+        }
+    }
+
+    /**
+     * Inserts a live slot at the given slot, moving that slot and the ones after it up by one.
+     * Takes O(n) time, but touches only the tombstones and the tree, never the entries.
+     */
+    void insert(int slot) {
+        for (int i = dead.previousSetBit(slotCount - 1); i >= slot; i = dead.previousSetBit(i - 1)) {
+            dead.clear(i);
+            dead.set(i + 1);
+        }
+        slotCount++;
+        rebuild(slotCount >= tree.length ? tree.length * 2 : tree.length - 1);
+    }
+
+    /**
+     * Turns a live slot into a tombstone.
+     */
+    void kill(int slot) {
+        assert !dead.get(slot) : "Slot is already dead";
+        dead.set(slot);
+        deadCount++;
+        update(slot, -1);
+    }
+
+    /**
+     * Turns a tombstone back into a live slot.
+     */
+    void revive(int slot) {
+        assert dead.get(slot) : "Slot is not dead";
+        dead.clear(slot);
+        deadCount--;
+        update(slot, 1);
+    }
+
+    /**
+     * Returns the slot holding the live entry at the given position.
+     */
+    int select(int position) {
+        int slot = 0;
+        int remaining = position + 1;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = slot + step;
+            if (next < tree.length && tree[next] < remaining) {
+                slot = next;
+                remaining -= tree[next];
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the position of the entry in a live slot, i.e. the number of live slots before it.
+     */
+    int rank(int slot) {
+        int count = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    private void update(int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private void rebuild(int capacity) {
+        tree = new int[capacity + 1];
+        for (int i = 1; i <= capacity; i++) {
+            if (i <= slotCount && !dead.get(i - 1)) {
+                tree[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package jax.storage;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import jax.task.Task;
+
+/**
+ * Read-only memory mapping of the records of a task save file.
+ * Opening the file checks the offset table and the checksum of every record, without decoding any of them,
+ * so that a damaged file is rejected while the backup can still be loaded in its place. Records are then
+ * decoded on request.
+ * A mapped file cannot be moved or replaced on every platform, so before a new save file replaces it the
+ * mapping is released: records the new file holds are read from there from then on, and the few it does not
+ * hold, such as deleted tasks, are copied to the heap. The records keep their original indexes throughout.
+ */
+class MappedTaskFile {
+
+    private static final Logger logger = Logger.getLogger(MappedTaskFile.class.getName());
+
+    private final int count;
+    private final int nextId;
+    private final long generation;
+
+    /** Guards the mapping, which must not be released while a record is being read from it. */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /** The mapped save file now holding the records, or null if none does. */
+    private MappedByteBuffer buffer;
+    /** Number of records in the mapped file. */
+    private int bufferCount;
+    private int tableOffset;
+    /** Index in the mapped file of each record, or -1 if it is not there; null while they are where they began. */
+    private int[] positions;
+    /** Records no longer in any mapped file, by index. */
+    private final HashMap<Integer, ByteBuffer> detached = new HashMap<>();
+
+    private MappedTaskFile(MappedByteBuffer buffer, int count, int nextId, long generation, int tableOffset) {
+        this.buffer = buffer;
+        this.bufferCount = count;
+        this.count = count;
+        this.nextId = nextId;
+        this.generation = generation;
+        this.tableOffset = tableOffset;
+    }
+
+    /**
+     * Maps the save file at the given path and checks every record against its checksum.
+     * @throws IOException If the file is not an indexed task save file of the current version, or is damaged.
+     */
+    static MappedTaskFile open(Path path) throws IOException {
+        MappedByteBuffer buffer = map(path);
+        BinaryReader header = new BinaryReader(buffer.duplicate());
+        if (header.getInt() != TaskCodec.TASKS_MAGIC || header.getByte() != TaskCodec.VERSION) {
+            throw new IOException("Not an indexed task save file");
+        }
+        int count = header.getInt();
+        int nextId = header.getInt();
+        long generation = header.getLong();
+        int tableOffset = checkTable(buffer, count);
+        verifyRecords(buffer, count, tableOffset);
+        return new MappedTaskFile(buffer, count, nextId, generation, tableOffset);
+    }
+
+    /**
+     * Maps a whole file read-only.
+     */
+    private static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Save file too large to map");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Checks that the offset table of a file with the given number of records fits inside it.
+     * @return The offset of the table.
+     */
+    private static int checkTable(ByteBuffer buffer, int count) throws IOException {
+        if (count < 0 || buffer.limit() < TaskCodec.TASKS_HEADER_SIZE + Long.BYTES) {
+            throw new IOException("Corrupted offset table");
+        }
+        long tableOffset = buffer.getLong(buffer.limit() - Long.BYTES);
+        if (tableOffset < TaskCodec.TASKS_HEADER_SIZE
+                || tableOffset + (long) count * TaskCodec.TABLE_ENTRY_SIZE != buffer.limit() - Long.BYTES) {
+            throw new IOException("Corrupted offset table");
+        }
+        return (int) tableOffset;
+    }
+
+    /**
+     * Checks that the records lie one after another between the header and the table, and that the bytes of
+     * each match its checksum.
+     */
+    private static void verifyRecords(ByteBuffer buffer, int count, int tableOffset) throws IOException {
+        CRC32 crc = new CRC32();
+        long end = TaskCodec.TASKS_HEADER_SIZE;
+        for (int i = 0; i < count; i++) {
+            int entry = tableOffset + i * TaskCodec.TABLE_ENTRY_SIZE;
+            long start = buffer.getLong(entry);
+            long next = i + 1 < count ? buffer.getLong(entry + TaskCodec.TABLE_ENTRY_SIZE) : tableOffset;
+            if (start != end || next <= start || next > tableOffset) {
+                throw new IOException("Corrupted offset of record " + i);
+            }
+            crc.reset();
+            crc.update(buffer.slice((int) start, (int) (next - start)));
+            if ((int) crc.getValue() != buffer.getInt(entry + Long.BYTES)) {
+                throw new IOException("Checksum mismatch in record " + i);
+            }
+            end = next;
+        }
+    }
+
+    /**
+     * Returns the number of task records in the file.
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * Returns the ID that the next new task should receive.
+     */
+    int getNextId() {
+        return nextId;
+    }
+
+    /**
+     * Returns the sequence number of the last change the file holds.
+     */
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Decodes the record at the given position.
+     */
+    Task decode(int index) throws IOException {
+        lock.readLock().lock();
+        try {
+            return TaskCodec.readTask(new BinaryReader(locate(index)), TaskCodec.VERSION);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads just the task ID of the record at the given position.
+     */
+    int idAt(int index) {
+        lock.readLock().lock();
+        try {
+            return locate(index).getInt(TaskCodec.ID_OFFSET);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the last minute at which the task of the record may fall due, as stored in the offset table.
+     * @return The minute, or {@link Long#MAX_VALUE} if the record has been copied off the file, which only
+     *     happens to few records and is then decoded to find out.
+     */
+    long lastDueMinuteAt(int index) {
+        lock.readLock().lock();
+        try {
+            if (detached.containsKey(index)) {
+                return Long.MAX_VALUE;
+            }
+            int position = positions == null ? index : positions[index];
+            return buffer.getLong(tableOffset + position * TaskCodec.TABLE_ENTRY_SIZE + Long.BYTES + Integer.BYTES);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a read-only view of the encoded bytes of the record at the given position.
+     * The view may be backed by the mapping, so it must not be used once the mapping is released by
+     * {@link #release(int[])}; the storage only uses it while writing a save file, before that happens.
+     */
+    ByteBuffer record(int index) {
+        lock.readLock().lock();
+        try {
+            return locate(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Releases the mapping so that the file can be moved or replaced, e.g. by a new save file. Records the new
+     * file does not hold are copied to the heap first. Reading a record blocks until the release is ended by
+     * {@link #attach(Path, int[])} or {@link #abandon(Path, int[])}, which must follow.
+     * @param kept Index in the new file of each record, or -1 for records it does not hold.
+     */
+    void release(int[] kept) {
+        lock.writeLock().lock();
+        if (buffer == null) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            if (kept[i] < 0) {
+                copyToHeap(i, locate(i));
+            }
+        }
+        unmap(buffer);
+        buffer = null;
+    }
+
+    /**
+     * Maps the new file now holding the records, ending a {@link #release(int[])}.
+     * If it cannot be mapped, its records are copied to the heap as by {@link #abandon(Path, int[])}.
+     * @param path The new file.
+     * @param kept Index in that file of each record, or -1 for the records copied to the heap.
+     */
+    void attach(Path path, int[] kept) {
+        try {
+            if (isAnyKept(kept)) {
+                MappedByteBuffer mapped = map(path);
+                bufferCount = mapped.getInt(TaskCodec.COUNT_OFFSET);
+                tableOffset = checkTable(mapped, bufferCount);
+                buffer = mapped;
+                positions = kept;
+            }
+        } catch (IOException e) {
+            logger.warning("Could not map " + path + ", keeping its records in memory");
+            copyAllToHeap(path, kept);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the records of a new file that did not replace the old one to the heap, so that nothing depends
+     * on either file any more, ending a {@link #release(int[])}.
+     * @param path The new file, which may then be overwritten or deleted.
+     * @param kept Index in that file of each record, or -1 for the records already copied to the heap.
+     */
+    void abandon(Path path, int[] kept) {
+        try {
+            copyAllToHeap(path, kept);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the records a file holds to the heap. Must hold the write lock.
+     * @throws IllegalStateException If the file cannot be read, leaving those records unreadable.
+     */
+    private void copyAllToHeap(Path path, int[] kept) {
+        if (!isAnyKept(kept)) {
+            return;
+        }
+        try {
+            MappedByteBuffer mapped = map(path);
+            int mappedCount = mapped.getInt(TaskCodec.COUNT_OFFSET);
+            int mappedTable = checkTable(mapped, mappedCount);
+            for (int i = 0; i < count; i++) {
+                if (kept[i] >= 0) {
+                    copyToHeap(i, slice(mapped, mappedTable, mappedCount, kept[i]));
+                }
+            }
+            unmap(mapped);
+        } catch (IOException e) {
+            throw new IllegalStateException("Lost the task records in " + path, e);
+        }
+    }
+
+    /**
+     * Keeps a copy of the bytes of a record, unless one is already kept. Must hold the write lock.
+     */
+    private void copyToHeap(int index, ByteBuffer record) {
+        if (!detached.containsKey(index)) {
+            ByteBuffer copy = ByteBuffer.allocate(record.remaining()).put(record).flip();
+            detached.put(index, copy.asReadOnlyBuffer());
+        }
+    }
+
+    /**
+     * Checks whether any record that is not already on the heap is to be read from the new file.
+     */
+    private boolean isAnyKept(int[] kept) {
+        for (int i = 0; i < count; i++) {
+            if (kept[i] >= 0 && !detached.containsKey(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the bytes of a record, wherever they are now. Must hold the lock.
+     */
+    private ByteBuffer locate(int index) {
+        ByteBuffer copy = detached.get(index);
+        if (copy != null) {
+            return copy.duplicate();
+        }
+        int position = positions == null ? index : positions[index];
+        return slice(buffer, tableOffset, bufferCount, position);
+    }
+
+    /**
+     * Returns a view of the bytes of a record in a mapped file.
+     */
+    private static ByteBuffer slice(ByteBuffer buffer, int tableOffset, int count, int index) {
+        int entry = tableOffset + index * TaskCodec.TABLE_ENTRY_SIZE;
+        int start = (int) buffer.getLong(entry);
+        int end = index + 1 < count ? (int) buffer.getLong(entry + TaskCodec.TABLE_ENTRY_SIZE) : tableOffset;
+        return buffer.asReadOnlyBuffer().position(start).limit(end).slice();
+    }
+
+    /**
+     * Unmaps a buffer right away rather than when it is garbage collected, which is what allows the file to be
+     * replaced on Windows. Where the JDK does not allow this, the buffer is left to the garbage collector.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(theUnsafe.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.fine("Could not unmap a save file; it is released once garbage collected.");
+        }
+    }
+}
@@ -2,20 +2,34 @@ package jax.storage;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.logging.Logger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
 
 import jax.contact.Contact;
 import jax.main.JaxException;
+import jax.metrics.IoStats;
 import jax.task.Task;
 
 /**
  * Handles the loading and saving of task data to persistent memory.
+ * Changes made through the {@code log} methods are written behind on a background thread,
+ * while {@link #saveTasks} and {@link #saveContacts} write synchronously.
+ * Save files are replaced atomically and the previous version is kept as a backup to fall back on.
+ * The bytes and time of every load and write are recorded in {@link IoStats}.
  */
 @SuppressWarnings("FieldMayBeFinal")
 public class Storage {
@@ -23,6 +37,38 @@ public class Storage {
     private final String TASKS_URL;
     private final String CONTACTS_URL;
 
+    /**
+     * Number of journal records after which the task list is snapshotted and the journal compacted. A list longer
+     * than this is only snapshotted once the journal has as many records as the list has tasks, so that appending
+     * many tasks costs a constant amount of snapshot writing per task.
+     */
+    private static final int COMPACT_THRESHOLD = 1000;
+
+    private final TaskJournal journal;
+    private final WriteBehindFlusher flusher;
+    /** How strongly writes are forced to disk, configurable with the {@code jax.durability} property. */
+    private Durability durability;
+    /** Number of journal records written or queued since the last snapshot. */
+    private int journalLength;
+    /**
+     * Sequence number of the latest change recorded. Each journal record and each snapshot takes the next one,
+     * so that replay can tell which records a snapshot already holds.
+     */
+    private long sequence;
+    /**
+     * The save file loaded, mapped by the task lists that read from it. Released before a new save file takes
+     * its place, since a mapped file cannot be replaced on every platform.
+     */
+    private volatile MappedTaskFile mappedFile;
+    /** True while a batch runs; its changes are only saved by the snapshot taken when it ends. */
+    private volatile boolean isInBatch;
+
+    private final IoStats taskLoads = new IoStats("task loads");
+    private final IoStats taskSaves = new IoStats("task snapshot writes");
+    private final IoStats journalWrites = new IoStats("journal appends");
+    private final IoStats contactLoads = new IoStats("contact loads");
+    private final IoStats contactSaves = new IoStats("contact writes");
+
     private static final Logger logger = Logger.getLogger(Storage.class.getName());
 
     /**
@@ -48,47 +94,426 @@ public class Storage {
     public Storage(String tasksPath, String contactsPath) {
         this.TASKS_URL = tasksPath;
         this.CONTACTS_URL = contactsPath;
+        this.journal = new TaskJournal(tasksPath + ".journal");
+        this.flusher = new WriteBehindFlusher(this);
+        this.journalLength = 0;
+        this.durability = Durability.parse(System.getProperty("jax.durability"), Durability.FSYNC);
     }
 
     /**
-     * Generic helper to write any serializable object to a specific path.
+     * Returns the folder holding the save files, e.g. to keep files named in commands within it.
      */
-    private void writeToFile(String path, Object data) throws JaxException {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(path))) {
-            oos.writeObject(data);
+    public Path getDataDirectory() {
+        return Path.of(TASKS_URL).toAbsolutePath().getParent();
+    }
+
+    /**
+     * Sets how strongly writes are forced to disk.
+     */
+    public void setDurability(Durability durability) {
+        this.durability = durability;
+    }
+
+    /**
+     * Returns the running totals of every kind of file operation: loads, snapshot writes and journal appends.
+     */
+    public List<IoStats> getIoStats() {
+        return List.of(taskLoads, taskSaves, journalWrites, contactLoads, contactSaves);
+    }
+
+    /**
+     * Returns the running totals of task snapshot writes.
+     */
+    public IoStats getTaskSaveStats() {
+        return taskSaves;
+    }
+
+    /**
+     * Returns the running totals of task list loads.
+     */
+    public IoStats getTaskLoadStats() {
+        return taskLoads;
+    }
+
+    /**
+     * Writes the contents of a save file.
+     */
+    private interface FileBody {
+        void writeTo(BinaryWriter out) throws IOException;
+    }
+
+    private static Path backupOf(String path) {
+        return Path.of(path + ".bak");
+    }
+
+    /**
+     * Forces the channel's contents to disk as far as the durability level requires.
+     */
+    static void force(FileChannel channel, Durability durability) throws IOException {
+        if (durability != Durability.NONE) {
+            channel.force(durability == Durability.FSYNC);
+        }
+    }
+
+    /**
+     * Replaces a save file without ever leaving a partially written file behind.
+     * The contents go to a temporary file which is forced to disk, the current file is kept as the
+     * backup and the temporary file is then atomically moved into place. The old file is never
+     * truncated in place, which also keeps any {@link LazyTaskList} mapping it valid.
+     * @param stats Where to record the size of the file and the time taken.
+     */
+    private void writeAtomically(String path, IoStats stats, FileBody body) throws JaxException {
+        writeAtomically(path, stats, body, null, null);
+    }
+
+    /**
+     * Replaces a save file as above, releasing a mapped file for the time the files are moved.
+     * @param mapping The mapped file to release, or null.
+     * @param kept Index in the new file of each record of the mapped file, or -1 for records it does not hold;
+     *     filled in by the body.
+     */
+    private void writeAtomically(String path, IoStats stats, FileBody body, MappedTaskFile mapping, int[] kept)
+            throws JaxException {
+        Path target = Path.of(path);
+        Path temp = Path.of(path + ".tmp");
+        long start = System.nanoTime();
+
+        try {
+            long bytes;
+            try (FileChannel channel = FileChannel.open(temp,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                try (BinaryWriter out = new BinaryWriter(channel)) {
+                    body.writeTo(out);
+                    bytes = out.getBytesWritten();
+                }
+                force(channel, durability);
+            }
+
+            if (mapping != null) {
+                mapping.release(kept);
+            }
+            boolean isReplaced = false;
+            try {
+                if (Files.exists(target)) {
+                    Files.move(target, backupOf(path), StandardCopyOption.REPLACE_EXISTING);
+                }
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+                isReplaced = true;
+            } finally {
+                if (mapping != null && isReplaced) {
+                    mapping.attach(target, kept);
+                } else if (mapping != null) {
+                    mapping.abandon(temp, kept);
+                }
+            }
+            if (durability == Durability.FSYNC) {
+                syncDirectory(target);
+            }
+            stats.record(bytes, System.nanoTime() - start);
         } catch (IOException ioe) {
             throw new JaxException("Error writing to " + path);
         }
     }
 
-    public void saveTasks(ArrayList<Task> tasks) throws JaxException {
+    /**
+     * Forces the directory entry of a renamed file to disk. Not every platform supports this.
+     */
+    private static void syncDirectory(Path file) {
+        Path dir = file.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.fine("Could not sync directory " + dir);
+        }
+    }
+
+    /**
+     * Writes the tasks as a new save file.
+     * Records that were never decoded are copied over without decoding them.
+     */
+    private void writeTasksFile(String path, LazyTaskList tasks, long generation) throws JaxException {
+        MappedTaskFile mapping = mappedFile;
+        int[] kept = null;
+        if (mapping != null) {
+            kept = new int[mapping.size()];
+            Arrays.fill(kept, -1);
+        }
+        int[] positions = tasks.getFile() == mapping ? kept : null;
+        writeAtomically(path, taskSaves, out -> {
+            long[] offsets = new long[tasks.size()];
+            int[] checksums = new int[tasks.size()];
+            long[] lastDueMinutes = new long[tasks.size()];
+            CRC32 crc = new CRC32();
+            TaskCodec.writeHeader(out, TaskCodec.TASKS_MAGIC, tasks.size());
+            out.putInt(tasks.getNextId());
+            out.putLong(generation);
+            for (int i = 0; i < offsets.length; i++) {
+                int slot = tasks.rawSlot(i);
+                ByteBuffer record;
+                if (slot >= 0) {
+                    record = tasks.getFile().record(slot);
+                    lastDueMinutes[i] = tasks.getFile().lastDueMinuteAt(slot);
+                    if (positions != null) {
+                        positions[slot] = i;
+                    }
+                } else {
+                    Task task = tasks.get(i);
+                    record = ByteBuffer.wrap(TaskCodec.encodeTask(task));
+                    lastDueMinutes[i] = TaskCodec.lastDueMinute(task);
+                }
+                crc.reset();
+                crc.update(record.duplicate());
+                offsets[i] = out.getBytesWritten();
+                checksums[i] = (int) crc.getValue();
+                out.putBytes(record);
+            }
+            TaskCodec.writeOffsetTable(out, offsets, checksums, lastDueMinutes);
+        }, mapping, kept);
+    }
+
+    private void writeContactsFile(String path, HashMap<String, Contact> contacts) throws JaxException {
+        writeAtomically(path, contactSaves, out -> {
+            TaskCodec.writeHeader(out, TaskCodec.CONTACTS_MAGIC, contacts.size());
+            for (Map.Entry<String, Contact> entry : contacts.entrySet()) {
+                TaskCodec.writeContact(out, entry.getKey(), entry.getValue());
+            }
+        });
+    }
+
+    /**
+     * Writes a snapshot of the task list and compacts the journal. Called by the flusher.
+     * If the program stops before the journal is cleared, the records left are skipped on replay since their
+     * sequence numbers are not above the snapshot's generation.
+     * @param generation Sequence number of the last change the snapshot holds.
+     */
+    void writeTaskSnapshot(LazyTaskList tasks, long generation) throws JaxException {
+        writeTasksFile(TASKS_URL, tasks, generation);
+        journal.clear();
+    }
+
+    /**
+     * Appends queued journal records. Called by the flusher.
+     */
+    void appendJournal(List<byte[]> records) throws JaxException {
+        long start = System.nanoTime();
+        journal.appendAll(records, durability);
+        long bytes = 0;
+        for (byte[] record : records) {
+            bytes += record.length;
+        }
+        journalWrites.record(bytes, System.nanoTime() - start);
+    }
+
+    /**
+     * Writes a snapshot of the contacts. Called by the flusher.
+     */
+    void writeContactSnapshot(HashMap<String, Contact> contacts) throws JaxException {
+        writeContactsFile(CONTACTS_URL, contacts);
+    }
+
+    /**
+     * Blocks until every queued change has been written.
+     * @throws JaxException If a queued write failed.
+     */
+    public void flush() throws JaxException {
+        flusher.flush();
+    }
+
+    /**
+     * Starts a batch of changes. Until {@link #endBatch()}, the {@code log} methods record nothing, and the
+     * caller saves the outcome of the whole batch with a single {@link #saveTasks} and {@link #saveContacts}.
+     * If the program stops before then, none of the batch's changes are kept.
+     */
+    public void beginBatch() {
+        isInBatch = true;
+    }
+
+    /**
+     * Ends a batch, so that changes are recorded one by one again. The caller should save right after.
+     */
+    public void endBatch() {
+        isInBatch = false;
+    }
+
+    /**
+     * Writes every queued change and stops the background writer, e.g. before this storage is discarded.
+     * @throws JaxException If a queued write failed.
+     */
+    public void close() throws JaxException {
+        flusher.close();
+    }
+
+    /**
+     * Writes a full snapshot of the task list and compacts the journal.
+     * Any changes still queued are written first.
+     * @param tasks The complete list of tasks.
+     * @throws JaxException If there is an error writing to the save file.
+     */
+    public void saveTasks(List<Task> tasks) throws JaxException {
 
         assert tasks != null : "Task list cannot be null when saving data";
 
-        writeToFile(TASKS_URL, tasks);
+        synchronized (this) {
+            flusher.submitTasks(copyOf(tasks), ++sequence);
+            journalLength = 0;
+        }
+        flusher.flush();
+    }
+
+    /**
+     * Returns a copy of the list that can be written while the original keeps changing.
+     */
+    private static LazyTaskList copyOf(List<Task> tasks) {
+        if (tasks instanceof LazyTaskList) {
+            return ((LazyTaskList) tasks).copy();
+        }
+        return new LazyTaskList(tasks);
+    }
+
+    /**
+     * Records that a task was appended to the list.
+     * @param tasks The task list after the change.
+     * @param task The added task.
+     */
+    public void logTaskAdded(List<Task> tasks, Task task) throws JaxException {
+        appendToJournal(tasks, TaskJournal.Op.ADD, tasks.size() - 1, task);
     }
 
+    /**
+     * Records that a task was inserted at the given index, e.g. a deleted task put back by an undo.
+     * @param tasks The task list after the change.
+     * @param index Position of the task in the list.
+     * @param task The inserted task.
+     */
+    public void logTaskInserted(List<Task> tasks, int index, Task task) throws JaxException {
+        appendToJournal(tasks, TaskJournal.Op.ADD, index, task);
+    }
+
+    /**
+     * Records that tasks were appended to the list, e.g. a batch being imported, as one journal record each.
+     * @param tasks The task list after the change.
+     * @param count Number of tasks appended, which are the last in the list.
+     */
+    public synchronized void logTasksAppended(List<Task> tasks, int count) throws JaxException {
+        if (isInBatch) {
+            return;
+        }
+        journalLength += count;
+        if (journalLength >= compactionThreshold(tasks)) {
+            flusher.submitTasks(copyOf(tasks), ++sequence);
+            journalLength = 0;
+            return;
+        }
+        for (int i = tasks.size() - count; i < tasks.size(); i++) {
+            flusher.submitRecord(TaskJournal.encode(TaskJournal.Op.ADD, ++sequence, i, tasks.get(i)));
+        }
+    }
+
+    /**
+     * Records that the task at the given index was marked as done.
+     */
+    public void logTaskMarked(List<Task> tasks, int index) throws JaxException {
+        appendToJournal(tasks, TaskJournal.Op.MARK, index, null);
+    }
+
+    /**
+     * Records that the task at the given index was marked as not done.
+     */
+    public void logTaskUnmarked(List<Task> tasks, int index) throws JaxException {
+        appendToJournal(tasks, TaskJournal.Op.UNMARK, index, null);
+    }
+
+    /**
+     * Records that the task at the given index was removed from the list.
+     */
+    public void logTaskDeleted(List<Task> tasks, int index) throws JaxException {
+        appendToJournal(tasks, TaskJournal.Op.DELETE, index, null);
+    }
+
+    /**
+     * Records a change to many tasks at once, such as a bulk delete, by queueing one snapshot of the whole list
+     * in place of a journal record per task.
+     * @param tasks The task list after the change.
+     */
+    public synchronized void logTasksReplaced(List<Task> tasks) throws JaxException {
+        if (isInBatch) {
+            return;
+        }
+        flusher.submitTasks(copyOf(tasks), ++sequence);
+        journalLength = 0;
+    }
+
+    /**
+     * Queues a single record, queueing a snapshot of the whole list instead once the journal grows too long.
+     * Synchronised so that concurrent changes to the task list are counted and queued in a consistent order.
+     */
+    private synchronized void appendToJournal(List<Task> tasks, TaskJournal.Op op, int index, Task task)
+            throws JaxException {
+        if (isInBatch) {
+            return;
+        }
+        if (++journalLength >= compactionThreshold(tasks)) {
+            flusher.submitTasks(copyOf(tasks), ++sequence);
+            journalLength = 0;
+        } else {
+            flusher.submitRecord(TaskJournal.encode(op, ++sequence, index, task));
+        }
+    }
+
+    /**
+     * Returns the number of journal records at which the list is snapshotted instead.
+     */
+    private static int compactionThreshold(List<Task> tasks) {
+        return Math.max(COMPACT_THRESHOLD, tasks.size());
+    }
+
+    /**
+     * Writes the contacts to the save file, together with any changes still queued.
+     * @param contacts The complete map of contacts.
+     * @throws JaxException If there is an error writing to the save file.
+     */
     public void saveContacts(HashMap<String, Contact> contacts) throws JaxException {
 
         assert contacts != null : "Contact list cannot be null when saving data";
 
-        writeToFile(CONTACTS_URL, contacts);
+        flusher.submitContacts(new HashMap<>(contacts));
+        flusher.flush();
     }
 
     /**
-     * Loads the list of tasks from saved file.
-     * If the file does not exist, an empty list is returned.
-     * @return Objects loaded from the file.
-     * @throws JaxException If the file is corrupted or cannot be read.
+     * Queues the contacts to be written in the background.
+     * @param contacts The complete map of contacts after the change.
      */
-    public Object readSavefile(String path) throws JaxException {
-
-        File f = new File(path);
+    public void logContactsChanged(HashMap<String, Contact> contacts) throws JaxException {
+        if (isInBatch) {
+            return;
+        }
+        flusher.submitContacts(new HashMap<>(contacts));
+    }
 
-        if (!f.exists()) {
-            return null;
+    /**
+     * Checks whether the file was written by the old Java serialization based format.
+     * @param f An existing save file.
+     * @return true if the file starts with the Java serialization stream magic number.
+     */
+    private static boolean isLegacyFile(File f) throws JaxException {
+        try (FileInputStream fis = new FileInputStream(f)) {
+            return fis.read() == 0xAC && fis.read() == 0xED;
+        } catch (IOException e) {
+            throw new JaxException("Error reading data from save file");
         }
+    }
 
+    /**
+     * Reads a save file written with Java serialization by older versions of Jax.
+     * @return Objects loaded from the file.
+     * @throws JaxException If the file is corrupted or cannot be read.
+     */
+    private static Object readLegacySavefile(File f) throws JaxException {
         try (FileInputStream fis = new FileInputStream(f);
              ObjectInputStream ois = new ObjectInputStream(fis)) {
             return ois.readObject();
@@ -98,28 +523,194 @@ public class Storage {
     }
 
     /**
-     * Loads the list of tasks from the saved file.
-     * @return An ArrayList of Task objects.
+     * Loads the list of tasks from the last snapshot and replays the journal on top of it.
+     * The snapshot is memory-mapped and each task is only decoded when it is first accessed.
+     * A save file in an older format is read in full and converted to the current format.
+     * If the save file cannot be read, the last good backup is loaded instead and the unreadable
+     * file is set aside with a {@code .corrupt} suffix.
+     * @return A List of Task objects.
+     */
+    public List<Task> loadTasks() throws JaxException {
+        long start = System.nanoTime();
+        List<Task> tasks = loadTasksOrBackup();
+        taskLoads.record(new File(TASKS_URL).length() + journal.length(), System.nanoTime() - start);
+        return tasks;
+    }
+
+    private List<Task> loadTasksOrBackup() throws JaxException {
+        File f = new File(TASKS_URL);
+        File backup = backupOf(TASKS_URL).toFile();
+
+        if (!f.exists() && backup.exists()) {
+            // Interrupted between moving the old file to the backup and moving the new one into place,
+            // so the journal still belongs to the backup.
+            logger.warning("Save file missing, restoring " + backup);
+            return loadTasksFrom(backup, true);
+        }
+
+        try {
+            return loadTasksFrom(f, true);
+        } catch (JaxException e) {
+            if (!backup.exists()) {
+                throw e;
+            }
+            logger.warning("Could not read " + TASKS_URL + ", falling back to " + backup);
+            // The journal follows on from the unreadable file. Were the program to stop before it is cleared,
+            // replay would find its first record too far past the backup's generation and ignore it.
+            quarantine(f);
+            journal.clear();
+            List<Task> tasks = loadTasksFrom(backup, false);
+            saveTasks(tasks);
+            return tasks;
+        }
+    }
+
+    /**
+     * Moves an unreadable save file out of the way so that it is neither loaded nor rotated into the backup.
      */
+    private static void quarantine(File f) {
+        if (f.exists() && !f.renameTo(new File(f.getPath() + ".corrupt"))) {
+            logger.warning("Could not set aside unreadable file " + f);
+        }
+    }
+
     @SuppressWarnings("unchecked")
-    public ArrayList<Task> loadTasks() throws JaxException {
-        Object data = readSavefile(TASKS_URL);
-        if (data instanceof ArrayList<?>) {
-            return (ArrayList<Task>) data;
+    private List<Task> loadTasksFrom(File f, boolean replayJournal) throws JaxException {
+        LazyTaskList tasks = new LazyTaskList();
+        boolean isLegacy = f.exists() && isLegacyFile(f);
+        boolean isOutdated = false;
+        int version = TaskCodec.VERSION;
+        sequence = 0;
+
+        if (isLegacy) {
+            Object data = readLegacySavefile(f);
+            if (data instanceof ArrayList<?>) {
+                tasks = new LazyTaskList((ArrayList<Task>) data);
+            }
+            version = TaskCodec.SERIALIZED_VERSION;
+        } else if (f.exists() && f.length() > 0) {
+            try {
+                MappedTaskFile mapped = MappedTaskFile.open(f.toPath());
+                sequence = mapped.getGeneration();
+                tasks = new LazyTaskList(mapped);
+                mappedFile = mapped;
+            } catch (IOException e) {
+                ArrayList<Task> read = new ArrayList<>();
+                version = readTasksFile(f, read);
+                tasks = new LazyTaskList(read);
+                isOutdated = true;
+            }
+        }
+
+        if (replayJournal) {
+            journalLength = journal.replay(tasks, version, sequence);
+            sequence = journal.getLastSequence();
+            isOutdated |= journal.needsSnapshot();
+        } else {
+            journalLength = 0;
+        }
+
+        if (isLegacy || isOutdated) {
+            logger.info("Migrating " + f + " to the current save format.");
+            saveTasks(tasks);
+        }
+        return tasks;
+    }
+
+    /**
+     * Decodes every record of a save file that cannot be mapped, such as one in an older format.
+     * A file in the current format that could not be mapped failed its checks, so it is rejected.
+     * Sets the sequence number to the file's generation.
+     * @param tasks The list to add the tasks to.
+     * @return The version of the format the file is in.
+     */
+    private int readTasksFile(File f, List<Task> tasks) throws JaxException {
+        try (FileChannel channel = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            BinaryReader in = new BinaryReader(channel);
+            int version = TaskCodec.readVersion(in, TaskCodec.TASKS_MAGIC);
+            if (version == TaskCodec.VERSION) {
+                throw new IOException("Damaged save file");
+            }
+            int count = in.getInt();
+            if (version >= 3) {
+                in.getInt(); // Next ID, recomputed from the tasks themselves.
+            }
+            if (version >= 5) {
+                sequence = in.getLong();
+            }
+            for (int i = 0; i < count; i++) {
+                tasks.add(TaskCodec.readTask(in, version));
+            }
+            return version;
+        } catch (IOException e) {
+            throw new JaxException("Error reading data from save file");
         }
-        return new ArrayList<>();
     }
 
     /**
-     * Loads the map of contacts from the saved file.
+     * Loads the map of contacts from the saved file, or from its backup if the file cannot be read.
+     * A save file in the old format is converted to the binary format once it has been read.
      * @return A HashMap of Contact objects.
      */
-    @SuppressWarnings("unchecked")
     public HashMap<String, Contact> loadContacts() throws JaxException {
-        Object data = readSavefile(CONTACTS_URL);
-        if (data instanceof HashMap<?, ?>) {
-            return (HashMap<String, Contact>) data;
+        long start = System.nanoTime();
+        HashMap<String, Contact> contacts = loadContactsOrBackup();
+        contactLoads.record(new File(CONTACTS_URL).length(), System.nanoTime() - start);
+        return contacts;
+    }
+
+    private HashMap<String, Contact> loadContactsOrBackup() throws JaxException {
+        File f = new File(CONTACTS_URL);
+        File backup = backupOf(CONTACTS_URL).toFile();
+
+        if (!f.exists() && backup.exists()) {
+            logger.warning("Save file missing, restoring " + backup);
+            return loadContactsFrom(backup);
+        }
+
+        try {
+            return loadContactsFrom(f);
+        } catch (JaxException e) {
+            if (!backup.exists()) {
+                throw e;
+            }
+            logger.warning("Could not read " + CONTACTS_URL + ", falling back to " + backup);
+            quarantine(f);
+            HashMap<String, Contact> contacts = loadContactsFrom(backup);
+            saveContacts(contacts);
+            return contacts;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private HashMap<String, Contact> loadContactsFrom(File f) throws JaxException {
+        if (!f.exists()) {
+            return new HashMap<>();
+        }
+
+        if (isLegacyFile(f)) {
+            HashMap<String, Contact> contacts = new HashMap<>();
+            Object data = readLegacySavefile(f);
+            if (data instanceof HashMap<?, ?>) {
+                contacts = (HashMap<String, Contact>) data;
+            }
+            logger.info("Migrating " + f + " to the current save format.");
+            saveContacts(contacts);
+            return contacts;
+        }
+
+        try (FileChannel channel = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            BinaryReader in = new BinaryReader(channel);
+            TaskCodec.readVersion(in, TaskCodec.CONTACTS_MAGIC);
+            int count = in.getInt();
+            HashMap<String, Contact> contacts = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String key = TaskCodec.readContactKey(in);
+                contacts.put(key, TaskCodec.readContact(in));
+            }
+            return contacts;
+        } catch (IOException e) {
+            throw new JaxException("Error reading data from save file");
         }
-        return new HashMap<>();
     }
 }
@@ -0,0 +1,257 @@
+package jax.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import jax.contact.Contact;
+import jax.task.Deadline;
+import jax.task.Event;
+import jax.task.RecurringEvent;
+import jax.task.Task;
+import jax.task.Todo;
+
+/**
+ * Compact binary encoding of tasks and contacts used by the save files.
+ * A task record is a type tag, a flags byte holding the done bit, the length-prefixed UTF-8 description
+ * and, depending on the type, one or two timestamps stored as minutes since the epoch (UTC).
+ * Since version 2, task files end with a table of record offsets followed by the offset of that table,
+ * which lets a record be located without decoding the ones before it. Since version 3, each task record
+ * carries the task ID right after the flags byte and the header holds the next ID to hand out.
+ * Version 4 adds recurring events, which store their first occurrence followed by the frequency, the last day
+ * of the series as an epoch day (or {@link #NO_END_DATE}) and the number of occurrences (or 0).
+ * Version 5 adds the generation of a task file to its header, after the next ID, and a sequence number to each
+ * journal record, so that replay can tell which records a snapshot already holds.
+ * Version 6 adds the CRC-32 of each record to its entry in the offset table, after the offset, so that a
+ * damaged record is detected when the file is opened rather than when the task is first read.
+ * Version 7 adds to each entry of the offset table the last minute at which the task may still fall due, or
+ * {@link #NEVER_DUE}, so that reminders can be scheduled without decoding the tasks that are past or done.
+ */
+class TaskCodec {
+
+    /** Magic number at the start of a task save file ("JAXT"). */
+    static final int TASKS_MAGIC = 0x4A415854;
+    /** Magic number at the start of a contact save file ("JAXC"). */
+    static final int CONTACTS_MAGIC = 0x4A415843;
+    /** Magic number at the start of a task journal ("JAXJ"). */
+    static final int JOURNAL_MAGIC = 0x4A41584A;
+    /** Stands for the Java serialization used by save files and journals written before the binary format. */
+    static final int SERIALIZED_VERSION = 0;
+    /** Current version of the save file format. */
+    static final int VERSION = 7;
+    /** Oldest version of the save file format that can still be read. */
+    static final int MIN_VERSION = 1;
+
+    private static final int TAG_TODO = 'T';
+    private static final int TAG_DEADLINE = 'D';
+    private static final int TAG_EVENT = 'E';
+    private static final int TAG_RECURRING = 'R';
+
+    /** Stored in place of the last day of a recurring event that is not ended by a date. */
+    private static final long NO_END_DATE = Long.MIN_VALUE;
+
+    private static final int FLAG_DONE = 1;
+
+    /** Position of the task ID within a task record, after the type tag and flags. */
+    static final int ID_OFFSET = 2;
+    /** Position of the record count within a file header, after the magic number and version. */
+    static final int COUNT_OFFSET = Integer.BYTES + Byte.BYTES;
+    /** Size of a task file header: magic number, version, record count, next ID and generation. */
+    static final int TASKS_HEADER_SIZE = Integer.BYTES + Byte.BYTES + Integer.BYTES + Integer.BYTES + Long.BYTES;
+    /** Size of an entry of the offset table: the offset of a record, its checksum and its last due minute. */
+    static final int TABLE_ENTRY_SIZE = Long.BYTES + Integer.BYTES + Long.BYTES;
+    /** Stored as the last due minute of a task that never falls due again, e.g. a todo or a task that is done. */
+    static final long NEVER_DUE = Long.MIN_VALUE;
+
+    private TaskCodec() {
+    }
+
+    /**
+     * Writes the start of a file header: magic number, format version and record count.
+     * Task files follow this with the next task ID and the generation.
+     */
+    static void writeHeader(BinaryWriter out, int magic, int count) throws IOException {
+        out.putInt(magic);
+        out.putByte(VERSION);
+        out.putInt(count);
+    }
+
+    /**
+     * Reads and validates the magic number and format version at the start of a file.
+     * The record count follows.
+     * @return The format version.
+     * @throws IOException If the magic number or version does not match.
+     */
+    static int readVersion(BinaryReader in, int magic) throws IOException {
+        if (in.getInt() != magic) {
+            throw new IOException("Not a Jax save file");
+        }
+        int version = in.getByte();
+        if (version < MIN_VERSION || version > VERSION) {
+            throw new IOException("Unsupported save file version " + version);
+        }
+        return version;
+    }
+
+    /**
+     * Writes the table of record offsets, checksums and last due minutes, and the trailer pointing to it.
+     * @param offsets Offset of each record from the start of the file.
+     * @param checksums CRC-32 of each record.
+     * @param lastDueMinutes Last due minute of each task, as given by {@link #lastDueMinute(Task)}.
+     */
+    static void writeOffsetTable(BinaryWriter out, long[] offsets, int[] checksums, long[] lastDueMinutes)
+            throws IOException {
+        long tableOffset = out.getBytesWritten();
+        for (int i = 0; i < offsets.length; i++) {
+            out.putLong(offsets[i]);
+            out.putInt(checksums[i]);
+            out.putLong(lastDueMinutes[i]);
+        }
+        out.putLong(tableOffset);
+    }
+
+    /**
+     * Returns a minute, counted as by the timestamps of records, after which the task never falls due again:
+     * when a deadline is due, when an event starts or, for a recurring event, the end of the day its last
+     * occurrence ends ({@link Long#MAX_VALUE} if the series never ends).
+     * @return The minute, or {@link #NEVER_DUE} if the task is done or has no date.
+     */
+    static long lastDueMinute(Task task) {
+        if (task.isDone()) {
+            return NEVER_DUE;
+        } else if (task instanceof Deadline deadline) {
+            return toEpochMinute(deadline.getBy());
+        } else if (task instanceof RecurringEvent) {
+            LocalDate end = task.getEndDate();
+            return end.equals(LocalDate.MAX) ? Long.MAX_VALUE : toEpochMinute(end.plusDays(1).atStartOfDay());
+        } else if (task instanceof Event event) {
+            return toEpochMinute(event.getFrom());
+        } else {
+            return NEVER_DUE;
+        }
+    }
+
+    /**
+     * Encodes a task record on its own.
+     */
+    static byte[] encodeTask(Task task) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryWriter out = new BinaryWriter(Channels.newChannel(bytes))) {
+            writeTask(out, task);
+        } catch (IOException e) {
+            throw new AssertionError("Writing to memory cannot fail", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static void writeTask(BinaryWriter out, Task task) throws IOException {
+        if (task instanceof Deadline deadline) {
+            out.putByte(TAG_DEADLINE);
+            writeCommon(out, task);
+            out.putLong(toEpochMinute(deadline.getBy()));
+        } else if (task instanceof RecurringEvent recurring) {
+            out.putByte(TAG_RECURRING);
+            writeCommon(out, task);
+            out.putLong(toEpochMinute(recurring.getFrom()));
+            out.putLong(toEpochMinute(recurring.getTo()));
+            out.putByte(recurring.getFrequency().ordinal());
+            out.putLong(recurring.getUntil() == null ? NO_END_DATE : recurring.getUntil().toEpochDay());
+            out.putInt(recurring.getCount());
+        } else if (task instanceof Event event) {
+            out.putByte(TAG_EVENT);
+            writeCommon(out, task);
+            out.putLong(toEpochMinute(event.getFrom()));
+            out.putLong(toEpochMinute(event.getTo()));
+        } else {
+            out.putByte(TAG_TODO);
+            writeCommon(out, task);
+        }
+    }
+
+    /**
+     * Decodes a task record written in the given format version.
+     */
+    static Task readTask(BinaryReader in, int version) throws IOException {
+        int tag = in.getByte();
+        int flags = in.getByte();
+        int id = version >= 3 ? in.getInt() : 0;
+        String description = in.getString();
+
+        Task task;
+        switch (tag) {
+        case TAG_TODO:
+            task = new Todo(description);
+            break;
+        case TAG_DEADLINE:
+            task = new Deadline(description, fromEpochMinute(in.getLong()));
+            break;
+        case TAG_EVENT:
+            LocalDateTime from = fromEpochMinute(in.getLong());
+            task = new Event(description, from, fromEpochMinute(in.getLong()));
+            break;
+        case TAG_RECURRING:
+            task = readRecurring(in, description);
+            break;
+        default:
+            throw new IOException("Unknown task type " + tag);
+        }
+
+        if ((flags & FLAG_DONE) != 0) {
+            task.markTask();
+        }
+        if (id > 0) {
+            task.setId(id);
+        }
+        return task;
+    }
+
+    private static RecurringEvent readRecurring(BinaryReader in, String description) throws IOException {
+        LocalDateTime from = fromEpochMinute(in.getLong());
+        LocalDateTime to = fromEpochMinute(in.getLong());
+        int frequency = in.getByte();
+        if (frequency < 0 || frequency >= RecurringEvent.Frequency.values().length) {
+            throw new IOException("Unknown frequency " + frequency);
+        }
+        long until = in.getLong();
+        int count = in.getInt();
+        return new RecurringEvent(description, from, to, RecurringEvent.Frequency.values()[frequency],
+                until == NO_END_DATE ? null : LocalDate.ofEpochDay(until), count);
+    }
+
+    /**
+     * Writes a contact together with the key it is stored under in the contact map.
+     */
+    static void writeContact(BinaryWriter out, String key, Contact contact) throws IOException {
+        out.putString(key);
+        out.putString(contact.getName());
+        out.putString(contact.getPhoneNumber());
+        out.putString(contact.getEmail());
+    }
+
+    static String readContactKey(BinaryReader in) throws IOException {
+        return in.getString();
+    }
+
+    static Contact readContact(BinaryReader in) throws IOException {
+        String name = in.getString();
+        String phone = in.getString();
+        return new Contact(name, phone, in.getString());
+    }
+
+    private static void writeCommon(BinaryWriter out, Task task) throws IOException {
+        out.putByte(task.isDone() ? FLAG_DONE : 0);
+        out.putInt(task.getId());
+        out.putString(task.getDescription());
+    }
+
+    static long toEpochMinute(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static LocalDateTime fromEpochMinute(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,108 @@
+package jax.storage;
+
+/**
+ * Open-addressing hash map from task ID to slot, storing both as primitive ints.
+ */
+class TaskIdMap {
+
+    private static final int EMPTY = 0;
+
+    /** Task IDs, or {@link #EMPTY}. IDs are always positive. */
+    private int[] keys;
+    private int[] slots;
+    private int size;
+
+    TaskIdMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        slots = new int[capacity];
+    }
+
+    /**
+     * Returns the slot of the task with the given ID, or -1 if there is none.
+     */
+    int get(int id) {
+        int mask = keys.length - 1;
+        for (int i = mix(id) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == id) {
+                return slots[i];
+            }
+        }
+        return -1;
+    }
+
+    void put(int id, int slot) {
+        assert id != EMPTY : "Task ID 0 cannot be stored";
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        int mask = keys.length - 1;
+        int i = mix(id) & mask;
+        while (keys[i] != EMPTY && keys[i] != id) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == EMPTY) {
+            size++;
+        }
+        keys[i] = id;
+        slots[i] = slot;
+    }
+
+    /**
+     * Removes the entry for the given ID, if any, shifting back the entries probed past it so that no
+     * lookup is cut short by the gap.
+     */
+    void remove(int id) {
+        int mask = keys.length - 1;
+        int i = mix(id) & mask;
+        while (keys[i] != id) {
+            if (keys[i] == EMPTY) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = mix(keys[j]) & mask;
+            boolean isReachable = i <= j ? home > i && home <= j : home > i || home <= j;
+            if (!isReachable) {
+                keys[i] = keys[j];
+                slots[i] = slots[j];
+                i = j;
+            }
+        }
+        keys[i] = EMPTY;
+        size--;
+    }
+
+    /**
+     * Moves every entry in the given slot or after it up by one slot, e.g. after an insertion.
+     */
+    void shiftSlots(int from) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY && slots[i] >= from) {
+                slots[i]++;
+            }
+        }
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldSlots = slots;
+        keys = new int[oldKeys.length * 2];
+        slots = new int[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldSlots[i]);
+            }
+        }
+    }
+
+    /**
+     * Spreads sequential IDs across the table.
+     */
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
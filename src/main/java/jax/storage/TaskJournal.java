@@ -0,0 +1,277 @@
+package jax.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.logging.Logger;
+
+import jax.main.JaxException;
+import jax.task.Task;
+
+/**
+ * Append-only journal of task list mutations.
+ * Each change to the task list is written as one small record instead of rewriting the whole list,
+ * and the list is rebuilt on startup by replaying the journal over the last snapshot.
+ * The journal starts with a magic number and the codec version its records are encoded in, so that a journal
+ * left by an older build is still decoded the way it was written. Journals from before the header was added
+ * were always written by the same build as the snapshot beside them, so they are read in the snapshot's version.
+ * Since version 5, each record carries the sequence number of its change, and a snapshot records the sequence
+ * number of the last change it holds as its generation. Replay skips the records a snapshot already holds, e.g.
+ * when the program stopped between writing a snapshot and clearing the journal, and stops at a gap, which means
+ * the rest of the journal does not follow on from this snapshot.
+ */
+public class TaskJournal {
+
+    /**
+     * Kinds of mutation recorded in the journal.
+     */
+    public enum Op {
+        ADD,
+        MARK,
+        UNMARK,
+        DELETE,
+    }
+
+    /** Size of the header: the magic number and the version byte. */
+    private static final int HEADER_SIZE = Integer.BYTES + Byte.BYTES;
+
+    private static final Logger logger = Logger.getLogger(TaskJournal.class.getName());
+
+    private final String path;
+    /**
+     * True if the last journal replayed was written in an older format than the current one, or held records
+     * that do not follow on from the snapshot.
+     */
+    private boolean needsSnapshot;
+    /** Sequence number of the last change replayed, or the snapshot's generation if there was none. */
+    private long lastSequence;
+
+    /**
+     * Creates a journal backed by the given file.
+     * @param path Path of the journal file.
+     */
+    public TaskJournal(String path) {
+        this.path = path;
+    }
+
+    /**
+     * Encodes one journal record.
+     * @param op The kind of mutation.
+     * @param sequence Sequence number of the change, one more than that of the change before it.
+     * @param index Index of the affected task in the list.
+     * @param task The added task for {@link Op#ADD}, otherwise null.
+     * @return The encoded record, ready to be appended.
+     */
+    public static byte[] encode(Op op, long sequence, int index, Task task) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryWriter out = new BinaryWriter(Channels.newChannel(bytes))) {
+            out.putByte(op.ordinal());
+            out.putLong(sequence);
+            out.putInt(index);
+            if (op == Op.ADD) {
+                TaskCodec.writeTask(out, task);
+            }
+        } catch (IOException e) {
+            throw new AssertionError("Writing to memory cannot fail", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Appends encoded records to the end of the journal with a single write.
+     * @param records Records produced by {@link #encode(Op, long, int, Task)}, in order.
+     * @param durability How strongly the records are forced to disk.
+     * @throws JaxException If the records cannot be written.
+     */
+    public void appendAll(List<byte[]> records, Durability durability) throws JaxException {
+        try (FileChannel channel = FileChannel.open(Path.of(path),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            boolean isNew = channel.size() == 0;
+            ByteBuffer[] buffers = new ByteBuffer[records.size() + (isNew ? 1 : 0)];
+            if (isNew) {
+                buffers[0] = ByteBuffer.allocate(HEADER_SIZE).putInt(TaskCodec.JOURNAL_MAGIC)
+                        .put((byte) TaskCodec.VERSION).flip();
+            }
+            for (int i = 0; i < records.size(); i++) {
+                buffers[buffers.length - records.size() + i] = ByteBuffer.wrap(records.get(i));
+            }
+            long remaining = 0;
+            for (ByteBuffer buffer : buffers) {
+                remaining += buffer.remaining();
+            }
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+            Storage.force(channel, durability);
+        } catch (IOException e) {
+            throw new JaxException("Error writing to " + path);
+        }
+    }
+
+    /**
+     * Replays every complete record in the journal onto the given list.
+     * A partially written record at the end of the file (e.g. after a crash) is ignored.
+     * @param tasks The list loaded from the last snapshot.
+     * @param snapshotVersion Codec version of that snapshot, used for a journal written before journals had
+     *     a header.
+     * @param generation Sequence number of the last change the snapshot holds.
+     * @return The number of records replayed.
+     * @throws JaxException If the journal is corrupted or was written by a newer build.
+     */
+    public int replay(List<Task> tasks, int snapshotVersion, long generation) throws JaxException {
+        int recordCount = 0;
+        needsSnapshot = false;
+        lastSequence = generation;
+        File f = new File(path);
+        if (!f.exists()) {
+            return recordCount;
+        }
+
+        try (FileChannel channel = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            int version = readVersion(channel, snapshotVersion);
+            if (version < 0) {
+                return recordCount;
+            }
+            needsSnapshot = version != TaskCodec.VERSION;
+            boolean hasSequence = version >= 5;
+            BinaryReader in = new BinaryReader(channel);
+            while (!in.isAtEnd()) {
+                Op op;
+                long sequence = 0;
+                int index;
+                Task task = null;
+                try {
+                    op = Op.values()[in.getByte()];
+                    if (hasSequence) {
+                        sequence = in.getLong();
+                    }
+                    index = in.getInt();
+                    if (op == Op.ADD) {
+                        task = readTask(in, version);
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+                if (hasSequence && sequence <= lastSequence) {
+                    continue; // Already in the snapshot.
+                }
+                if (hasSequence && sequence != lastSequence + 1) {
+                    logger.warning("Journal " + path + " does not follow on from the snapshot; ignoring the rest.");
+                    needsSnapshot = true;
+                    break;
+                }
+                apply(tasks, op, index, task);
+                lastSequence = sequence == 0 ? lastSequence : sequence;
+                recordCount++;
+            }
+        } catch (IOException | ClassNotFoundException | ClassCastException | IndexOutOfBoundsException e) {
+            throw new JaxException("Error reading data from journal " + path);
+        }
+        return recordCount;
+    }
+
+    /**
+     * Returns true if the journal last replayed was written in an older format, so that appending to it would
+     * mix formats, or if part of it was ignored. The caller should write a snapshot, which starts a new journal.
+     */
+    public boolean needsSnapshot() {
+        return needsSnapshot;
+    }
+
+    /**
+     * Returns the sequence number of the last change replayed, or the snapshot's generation if none was.
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Reads the header and leaves the channel at the first record. A journal without a header is rewound to
+     * its start and given the snapshot's version.
+     * @return The version the records are encoded in, or -1 if the journal is too short to hold a record.
+     * @throws IOException If the journal was written in a version this build cannot read.
+     */
+    private static int readVersion(FileChannel channel, int snapshotVersion) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        int read = 0;
+        while (header.hasRemaining() && read >= 0) {
+            read = channel.read(header);
+        }
+        if (header.hasRemaining()) {
+            // Shorter than the smallest record of any format, so nothing but part of a header or a record.
+            return -1;
+        }
+        if (header.getInt(0) == TaskCodec.JOURNAL_MAGIC) {
+            int version = header.get(Integer.BYTES) & 0xFF;
+            if (version < TaskCodec.MIN_VERSION || version > TaskCodec.VERSION) {
+                throw new IOException("Unsupported journal version " + version);
+            }
+            return version;
+        }
+        channel.position(0);
+        return snapshotVersion;
+    }
+
+    /**
+     * Decodes the task of an ADD record. Before the binary format, the task was Java-serialized and
+     * prefixed by its length.
+     */
+    private static Task readTask(BinaryReader in, int version) throws IOException, ClassNotFoundException {
+        if (version != TaskCodec.SERIALIZED_VERSION) {
+            return TaskCodec.readTask(in, version);
+        }
+        int length = in.getInt();
+        if (length < 0) {
+            throw new IOException("Negative record length " + length);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(in.getBytes(length)))) {
+            return (Task) ois.readObject();
+        }
+    }
+
+    /**
+     * Discards all records, typically right after a fresh snapshot has been written.
+     * @throws JaxException If the journal cannot be truncated.
+     */
+    public void clear() throws JaxException {
+        File f = new File(path);
+        if (f.exists() && !f.delete()) {
+            throw new JaxException("Error clearing journal " + path);
+        }
+    }
+
+    /**
+     * Returns the size of the journal file in bytes, or 0 if it does not exist.
+     */
+    public long length() {
+        return new File(path).length();
+    }
+
+    private static void apply(List<Task> tasks, Op op, int index, Task task) {
+        switch (op) {
+        case ADD:
+            tasks.add(index, task);
+            break;
+        case MARK:
+            tasks.get(index).markTask();
+            break;
+        case UNMARK:
+            tasks.get(index).unmarkTask();
+            break;
+        case DELETE:
+            tasks.remove(index);
+            break;
+        default:
+            throw new IndexOutOfBoundsException("Unknown journal operation " + op);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package jax.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jax.contact.Contact;
+import jax.main.JaxException;
+
+/**
+ * Defers writes to the save files onto a background thread.
+ * Callers only record what has changed and return immediately. The flusher thread waits a short,
+ * bounded delay so that a burst of changes is written together, and keeps only the latest snapshot
+ * of each file, dropping journal records that a newer task snapshot already covers.
+ * A failed background write is logged and retried, but not reported to whoever submits the next change, since that
+ * change has nothing to do with it. What could not be written stays queued, so {@link #flush()} and
+ * {@link #close()} retry it and report the failure if it persists.
+ */
+class WriteBehindFlusher {
+
+    /** Longest time a change may wait in memory before it is written. */
+    private static final long FLUSH_DELAY_MS = 200;
+    /** Time to wait after a failed background write before retrying it. */
+    private static final long RETRY_DELAY_MS = 5000;
+
+    private static final Logger logger = Logger.getLogger(WriteBehindFlusher.class.getName());
+
+    private final Storage storage;
+    /** Serialises writes so that batches reach the disk in the order they were taken. */
+    private final Object ioLock = new Object();
+
+    private ArrayList<byte[]> pendingRecords = new ArrayList<>();
+    private LazyTaskList pendingTasks;
+    /** Sequence number of the last change {@link #pendingTasks} holds. */
+    private long pendingGeneration;
+    private HashMap<String, Contact> pendingContacts;
+    private Thread thread;
+
+    WriteBehindFlusher(Storage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Queues an encoded journal record.
+     */
+    synchronized void submitRecord(byte[] record) {
+        pendingRecords.add(record);
+        wake();
+    }
+
+    /**
+     * Queues a snapshot of the task list, superseding every record queued before it.
+     * @param tasks A copy of the list that the caller will not modify further.
+     * @param generation Sequence number of the last change the copy holds.
+     */
+    synchronized void submitTasks(LazyTaskList tasks, long generation) {
+        pendingTasks = tasks;
+        pendingGeneration = generation;
+        pendingRecords = new ArrayList<>();
+        wake();
+    }
+
+    /**
+     * Queues a snapshot of the contacts, superseding any earlier one.
+     * @param contacts A copy of the map that the caller will not modify further.
+     */
+    synchronized void submitContacts(HashMap<String, Contact> contacts) {
+        pendingContacts = contacts;
+        wake();
+    }
+
+    /**
+     * Writes everything queued so far on the calling thread, including whatever a failed background write left.
+     * @throws JaxException If the queued changes cannot be written.
+     */
+    void flush() throws JaxException {
+        synchronized (ioLock) {
+            write();
+        }
+    }
+
+    /**
+     * Writes everything queued so far and stops the background thread.
+     * A later submission starts a new thread.
+     * @throws JaxException If the queued changes cannot be written.
+     */
+    void close() throws JaxException {
+        flush();
+        Thread stopped;
+        synchronized (this) {
+            stopped = thread;
+            thread = null;
+        }
+        if (stopped != null) {
+            stopped.interrupt();
+        }
+    }
+
+    private void wake() {
+        if (thread == null) {
+            thread = new Thread(this::run, "jax-storage-flusher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        notifyAll();
+    }
+
+    private synchronized boolean hasPending() {
+        return pendingTasks != null || pendingContacts != null || !pendingRecords.isEmpty();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                synchronized (this) {
+                    while (!hasPending()) {
+                        wait();
+                    }
+                }
+                Thread.sleep(FLUSH_DELAY_MS);
+                boolean isFailed = false;
+                synchronized (ioLock) {
+                    try {
+                        write();
+                    } catch (JaxException e) {
+                        logger.log(Level.WARNING, "Background save failed, will retry.", e);
+                        isFailed = true;
+                    }
+                }
+                if (isFailed) {
+                    Thread.sleep(RETRY_DELAY_MS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Takes the queued changes and writes them. Must be called while holding {@link #ioLock}.
+     * If a write fails, whatever was not written is queued again in front of anything submitted since,
+     * unless a newer snapshot supersedes it, so that it is retried by the next write.
+     */
+    private void write() throws JaxException {
+        LazyTaskList tasks;
+        long generation;
+        ArrayList<byte[]> records;
+        HashMap<String, Contact> contacts;
+        synchronized (this) {
+            tasks = pendingTasks;
+            generation = pendingGeneration;
+            records = pendingRecords;
+            contacts = pendingContacts;
+            pendingTasks = null;
+            pendingRecords = new ArrayList<>();
+            pendingContacts = null;
+        }
+
+        try {
+            if (tasks != null) {
+                storage.writeTaskSnapshot(tasks, generation);
+                tasks = null;
+            }
+            if (!records.isEmpty()) {
+                storage.appendJournal(records);
+                records.clear();
+            }
+        } catch (JaxException e) {
+            requeue(tasks, generation, records, contacts);
+            throw e;
+        }
+        try {
+            if (contacts != null) {
+                storage.writeContactSnapshot(contacts);
+            }
+        } catch (JaxException e) {
+            requeue(null, 0, records, contacts);
+            throw e;
+        }
+    }
+
+    /**
+     * Puts changes that could not be written back in front of those submitted since they were taken.
+     * A task snapshot submitted since supersedes both the unwritten snapshot and the unwritten records.
+     * Records that did reach the journal before a failure may be appended again, and are then skipped on
+     * replay by their sequence numbers.
+     */
+    private synchronized void requeue(LazyTaskList tasks, long generation, ArrayList<byte[]> records,
+            HashMap<String, Contact> contacts) {
+        if (pendingTasks == null) {
+            if (tasks != null) {
+                pendingTasks = tasks;
+                pendingGeneration = generation;
+            }
+            records.addAll(pendingRecords);
+            pendingRecords = records;
+        }
+        if (pendingContacts == null) {
+            pendingContacts = contacts;
+        }
+    }
+}
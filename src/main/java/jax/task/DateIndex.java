@@ -0,0 +1,116 @@
+package jax.task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sorted index of dated tasks by the epoch day on which they start.
+ * A task occupies the days from its start date to its end date; a deadline starts and ends on its due date.
+ * Because no indexed task spans more than {@link #maxSpan} days, a range query only has to look at tasks
+ * starting at most that many days before the range, giving O(log n + k) lookups for short events.
+ */
+class DateIndex {
+
+    /** Dated tasks grouped by start day, each group in insertion order. */
+    private final TreeMap<Long, ArrayList<Task>> byStartDay = new TreeMap<>();
+    /** Number of indexed tasks with each span, in days, so that the longest is known after removals. */
+    private final TreeMap<Long, Integer> spanCounts = new TreeMap<>();
+    /** Longest span, in days, of any indexed task. */
+    private long maxSpan;
+    /** Recurring events, in insertion order. */
+    private final ArrayList<RecurringEvent> recurring = new ArrayList<>();
+
+    /**
+     * Creates an index over the dated tasks among the given ones.
+     */
+    DateIndex(List<Task> tasks) {
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    /**
+     * Indexes a task if it has a date.
+     */
+    void add(Task task) {
+        if (task instanceof RecurringEvent recurringEvent) {
+            recurring.add(recurringEvent);
+            return;
+        }
+        LocalDate start = task.getStartDate();
+        if (start == null) {
+            return;
+        }
+        long startDay = start.toEpochDay();
+        long span = task.getEndDate().toEpochDay() - startDay;
+        spanCounts.merge(span, 1, Integer::sum);
+        maxSpan = Math.max(maxSpan, span);
+        byStartDay.computeIfAbsent(startDay, k -> new ArrayList<>()).add(task);
+    }
+
+    /**
+     * Removes a task from the index.
+     */
+    void remove(Task task) {
+        if (task instanceof RecurringEvent) {
+            recurring.remove(task);
+            return;
+        }
+        LocalDate start = task.getStartDate();
+        if (start == null) {
+            return;
+        }
+        long startDay = start.toEpochDay();
+        ArrayList<Task> group = byStartDay.get(startDay);
+        if (group != null && group.remove(task)) {
+            if (group.isEmpty()) {
+                byStartDay.remove(startDay);
+            }
+            long span = task.getEndDate().toEpochDay() - startDay;
+            if (spanCounts.merge(span, -1, Integer::sum) == 0) {
+                spanCounts.remove(span);
+                maxSpan = spanCounts.isEmpty() ? 0 : spanCounts.lastKey();
+            }
+        }
+    }
+
+    /**
+     * Finds the tasks that fall on any day between the two dates, inclusive,
+     * ordered by start date and then by the order they were added.
+     */
+    List<Task> findBetween(LocalDate from, LocalDate to) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+
+        List<Task> matches = new ArrayList<>();
+        for (Map.Entry<Long, ArrayList<Task>> entry : byStartDay.subMap(fromDay - maxSpan, true, toDay, true)
+                .entrySet()) {
+            for (Task task : entry.getValue()) {
+                if (task.getEndDate().toEpochDay() >= fromDay) {
+                    matches.add(task);
+                }
+            }
+        }
+        if (recurring.isEmpty()) {
+            return matches;
+        }
+
+        boolean hasRecurringMatch = false;
+        for (RecurringEvent event : recurring) {
+            if (event.occursBetween(from, to)) {
+                matches.add(event);
+                hasRecurringMatch = true;
+            }
+        }
+        if (hasRecurringMatch) {
+            matches.sort(Comparator.comparing(task -> task instanceof RecurringEvent event
+                    ? event.nextOccurrence(from).toLocalDate()
+                    : task.getStartDate()));
+        }
+        return matches;
+    }
+}
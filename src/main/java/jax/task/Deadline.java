@@ -2,7 +2,6 @@ package jax.task;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
 /**
@@ -11,6 +10,9 @@ import java.time.format.DateTimeParseException;
 @SuppressWarnings("CanBeFinal")
 public class Deadline extends Task {
 
+    /** Kept equal to the value of the original class so that old save files can still be migrated. */
+    private static final long serialVersionUID = 4618211658995911800L;
+
     /**
      * The date and time by which the task must be completed.
      */
@@ -24,8 +26,24 @@ public class Deadline extends Task {
      */
     public Deadline(String description, String by) throws DateTimeParseException {
         super(description);
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
-        this.by = LocalDateTime.parse(by, formatter);
+        this.by = LocalDateTime.parse(by, INPUT_FORMAT);
+    }
+
+    /**
+     * Creates a new Deadline task from an already parsed date and time.
+     * @param description The description of the task.
+     * @param by The deadline.
+     */
+    public Deadline(String description, LocalDateTime by) {
+        super(description);
+        this.by = by;
+    }
+
+    /**
+     * Getter for the deadline.
+     */
+    public LocalDateTime getBy() {
+        return by;
     }
 
     /**
@@ -38,6 +56,20 @@ public class Deadline extends Task {
         return by.toLocalDate().equals(date);
     }
 
+    @Override
+    public LocalDate getStartDate() {
+        return by.toLocalDate();
+    }
+
+    @Override
+    public LocalDate getEndDate() {
+        return by.toLocalDate();
+    }
+
+    @Override
+    public LocalDateTime getNextDueAfter(LocalDateTime time) {
+        return by.isAfter(time) ? by : null;
+    }
 
     /**
      * Returns the string representation of the Deadline.
@@ -49,7 +81,7 @@ public class Deadline extends Task {
         return "[D]"
             + super.toString()
             + " (by: "
-            + by.format(DateTimeFormatter.ofPattern("MMM dd yyyy, h:mma"))
+            + by.format(DISPLAY_FORMAT)
             + ")";
     }
 }
@@ -2,7 +2,6 @@ package jax.task;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
 /**
@@ -11,6 +10,9 @@ import java.time.format.DateTimeParseException;
  */
 public class Event extends Task {
 
+    /** Kept equal to the value of the original class so that old save files can still be migrated. */
+    private static final long serialVersionUID = 6279613313164739216L;
+
     /** The start date and time of the event. */
     protected LocalDateTime from;
     /** The end date and time of the event. */
@@ -25,9 +27,34 @@ public class Event extends Task {
      */
     public Event(String description, String from, String to) throws DateTimeParseException {
         super(description);
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
-        this.from = LocalDateTime.parse(from, formatter);
-        this.to = LocalDateTime.parse(to, formatter);
+        this.from = LocalDateTime.parse(from, INPUT_FORMAT);
+        this.to = LocalDateTime.parse(to, INPUT_FORMAT);
+    }
+
+    /**
+     * Creates a new Event task from already parsed start and end times.
+     * @param description The description of the event.
+     * @param from The start date and time.
+     * @param to The end date and time.
+     */
+    public Event(String description, LocalDateTime from, LocalDateTime to) {
+        super(description);
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Getter for the start date and time.
+     */
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    /**
+     * Getter for the end date and time.
+     */
+    public LocalDateTime getTo() {
+        return to;
     }
 
     /**
@@ -44,6 +71,24 @@ public class Event extends Task {
         return !date.isBefore(fromDate) && !date.isAfter(toDate);
     }
 
+    @Override
+    public LocalDate getStartDate() {
+        return from.toLocalDate();
+    }
+
+    @Override
+    public LocalDate getEndDate() {
+        return to.toLocalDate();
+    }
+
+    /**
+     * Returns the start of the event if it is after the given time.
+     */
+    @Override
+    public LocalDateTime getNextDueAfter(LocalDateTime time) {
+        return from.isAfter(time) ? from : null;
+    }
+
     /**
      * Returns the string representation of the Event.
      * Adds "[E]" string identifier to the standard string.
@@ -54,8 +99,8 @@ public class Event extends Task {
         return "[E]"
             + super.toString()
             + " (from: "
-            + from.format(DateTimeFormatter.ofPattern("MMM dd yyyy, h:mma"))
+            + from.format(DISPLAY_FORMAT)
             + " to: "
-            + to.format(DateTimeFormatter.ofPattern("MMM dd yyyy, h:mma")) + ")";
+            + to.format(DISPLAY_FORMAT) + ")";
     }
 }
@@ -0,0 +1,118 @@
+package jax.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import jax.storage.LazyTaskList;
+
+/**
+ * Inverted index from the three-character sequences (trigrams) of task descriptions to the tasks containing them.
+ * Any task whose description contains a keyword must contain every trigram of that keyword, so only the
+ * tasks in the shortest matching posting list have to be checked. Matching stays case-insensitive.
+ * Posting lists hold task IDs, so a task is added or removed in O(1) per trigram wherever it sits in the list,
+ * and matches are put in list order by their positions when found.
+ */
+class KeywordIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    /** IDs of the tasks containing each trigram. */
+    private final HashMap<Long, LinkedHashSet<Integer>> postings = new HashMap<>();
+    /** The indexed list, through which IDs are turned back into positions and tasks. */
+    private final LazyTaskList tasks;
+
+    /**
+     * Creates an index over the tasks of the list, which it then looks matches up in.
+     */
+    KeywordIndex(LazyTaskList tasks) {
+        this.tasks = tasks;
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    /**
+     * Indexes a task added to the list at any position.
+     */
+    void add(Task task) {
+        for (long gram : gramsOf(task.getLowerCaseDescription())) {
+            postings.computeIfAbsent(gram, k -> new LinkedHashSet<>()).add(task.getId());
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     */
+    void remove(Task task) {
+        for (long gram : gramsOf(task.getLowerCaseDescription())) {
+            LinkedHashSet<Integer> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(task.getId());
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if the keyword is long enough to be looked up in the index.
+     */
+    static boolean canSearch(String keyword) {
+        return keyword.length() >= GRAM_LENGTH;
+    }
+
+    /**
+     * Finds the tasks whose description contains the keyword, in list order.
+     * @param lowerKeyword The keyword in lower case, at least three characters long.
+     */
+    List<Task> find(String lowerKeyword) {
+        assert canSearch(lowerKeyword) : "Keyword too short for the trigram index";
+
+        LinkedHashSet<Integer> shortest = null;
+        for (int i = 0; i + GRAM_LENGTH <= lowerKeyword.length(); i++) {
+            LinkedHashSet<Integer> posting = postings.get(gramAt(lowerKeyword, i));
+            if (posting == null) {
+                return List.of();
+            }
+            if (shortest == null || posting.size() < shortest.size()) {
+                shortest = posting;
+            }
+        }
+
+        int[] positions = new int[shortest.size()];
+        int count = 0;
+        for (int id : shortest) {
+            int position = tasks.indexOfId(id);
+            if (position >= 0) {
+                positions[count++] = position;
+            }
+        }
+        Arrays.sort(positions, 0, count);
+
+        List<Task> matches = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Task task = tasks.get(positions[i]);
+            if (task.getLowerCaseDescription().contains(lowerKeyword)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    private static HashSet<Long> gramsOf(String text) {
+        HashSet<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(gramAt(text, i));
+        }
+        return grams;
+    }
+
+    private static long gramAt(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+}
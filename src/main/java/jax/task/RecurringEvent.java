@@ -0,0 +1,234 @@
+package jax.task;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Represents an event that repeats every day, week or month, e.g. a weekly meeting.
+ * Only the first occurrence and the rule are stored; any other occurrence is computed when asked for,
+ * so a series takes the same space whether it repeats five times or forever.
+ * The series ends after a number of occurrences, on a date, or not at all.
+ */
+public class RecurringEvent extends Task {
+
+    private static final long serialVersionUID = 4514962153724935180L;
+
+    /**
+     * How often the event repeats.
+     */
+    public enum Frequency {
+        DAILY(ChronoUnit.DAYS, "day"),
+        WEEKLY(ChronoUnit.WEEKS, "week"),
+        MONTHLY(ChronoUnit.MONTHS, "month");
+
+        private final ChronoUnit unit;
+        private final String word;
+
+        Frequency(ChronoUnit unit, String word) {
+            this.unit = unit;
+            this.word = word;
+        }
+
+        /**
+         * Returns the frequency named by a word such as {@code week} or {@code weekly}, ignoring case.
+         * @return The frequency, or null if the word names none.
+         */
+        public static Frequency parse(String word) {
+            for (Frequency frequency : values()) {
+                if (word.equalsIgnoreCase(frequency.word) || word.equalsIgnoreCase(frequency.name())) {
+                    return frequency;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the word for one period, e.g. "week".
+         */
+        public String getWord() {
+            return word;
+        }
+    }
+
+    /** Start of the first occurrence. */
+    protected LocalDateTime from;
+    /** End of the first occurrence. */
+    protected LocalDateTime to;
+    protected Frequency frequency;
+    /** Last day on which an occurrence may start, or null if the series is not ended by a date. */
+    protected LocalDate until;
+    /** Number of occurrences in the series, or 0 if it is not ended by a count. */
+    protected int count;
+
+    /**
+     * Creates a recurring event.
+     * @param description The description of the event.
+     * @param from Start of the first occurrence.
+     * @param to End of the first occurrence.
+     * @param frequency How often the event repeats.
+     * @param until Last day on which an occurrence may start, or null.
+     * @param count Number of occurrences, or 0 for no limit.
+     */
+    public RecurringEvent(String description, LocalDateTime from, LocalDateTime to, Frequency frequency,
+            LocalDate until, int count) {
+        super(description);
+        assert !to.isBefore(from) : "An occurrence cannot end before it starts";
+        assert count >= 0 : "The number of occurrences cannot be negative";
+        this.from = from;
+        this.to = to;
+        this.frequency = frequency;
+        this.until = until;
+        this.count = count;
+    }
+
+    /**
+     * Getter for the start of the first occurrence.
+     */
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    /**
+     * Getter for the end of the first occurrence.
+     */
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    /**
+     * Getter for how often the event repeats.
+     */
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    /**
+     * Returns the last day on which an occurrence may start, or null if the series is not ended by a date.
+     */
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    /**
+     * Returns the number of occurrences, or 0 if the series is not ended by a count.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the start of the first occurrence that ends on or after the given day,
+     * or null if the series is over by then.
+     */
+    public LocalDateTime nextOccurrence(LocalDate day) {
+        long index = firstIndexEndingOnOrAfter(day);
+        return isInSeries(index) ? startOf(index) : null;
+    }
+
+    /**
+     * Returns true if any occurrence falls on a day between the two dates, inclusive.
+     */
+    public boolean occursBetween(LocalDate fromDate, LocalDate toDate) {
+        LocalDateTime next = nextOccurrence(fromDate);
+        return next != null && !next.toLocalDate().isAfter(toDate);
+    }
+
+    @Override
+    public boolean occursOn(LocalDate date) {
+        return occursBetween(date, date);
+    }
+
+    /**
+     * Returns the start of the first occurrence after the given time, or null if the series is over by then.
+     */
+    @Override
+    public LocalDateTime getNextDueAfter(LocalDateTime time) {
+        long index = Math.max(0, frequency.unit.between(from, time));
+        while (index > 0 && startOf(index - 1).isAfter(time)) {
+            index--;
+        }
+        while (!startOf(index).isAfter(time)) {
+            index++;
+        }
+        return isInSeries(index) ? startOf(index) : null;
+    }
+
+    @Override
+    public LocalDate getStartDate() {
+        return from.toLocalDate();
+    }
+
+    /**
+     * Returns the day the last occurrence ends, or {@link LocalDate#MAX} if the series never ends.
+     */
+    @Override
+    public LocalDate getEndDate() {
+        long last;
+        if (count > 0) {
+            last = count - 1;
+        } else if (until != null) {
+            last = Math.max(0, frequency.unit.between(from.toLocalDate(), until));
+            while (last > 0 && startOf(last).toLocalDate().isAfter(until)) {
+                last--;
+            }
+            while (!startOf(last + 1).toLocalDate().isAfter(until)) {
+                last++;
+            }
+        } else {
+            return LocalDate.MAX;
+        }
+        return startOf(last).plus(Duration.between(from, to)).toLocalDate();
+    }
+
+    /**
+     * Returns the start of an occurrence, counted from 0. Each is computed from the first occurrence rather than
+     * the one before, so monthly events on the 31st return to the 31st after a shorter month.
+     */
+    private LocalDateTime startOf(long index) {
+        return from.plus(index, frequency.unit);
+    }
+
+    private LocalDate endDateOf(long index) {
+        return startOf(index).plus(Duration.between(from, to)).toLocalDate();
+    }
+
+    /**
+     * Returns true if the occurrence with the given index belongs to the series.
+     */
+    private boolean isInSeries(long index) {
+        return (count == 0 || index < count) && (until == null || !startOf(index).toLocalDate().isAfter(until));
+    }
+
+    /**
+     * Finds the first occurrence that ends on or after the day, ignoring where the series stops.
+     * The number of whole periods since the first occurrence gives a close estimate, which is then corrected
+     * by the few occurrences that long events or short months can shift it by.
+     */
+    private long firstIndexEndingOnOrAfter(LocalDate day) {
+        if (!day.isAfter(to.toLocalDate())) {
+            return 0;
+        }
+        long index = Math.max(0, frequency.unit.between(from.toLocalDate(), day));
+        while (index > 0 && !endDateOf(index - 1).isBefore(day)) {
+            index--;
+        }
+        while (endDateOf(index).isBefore(day)) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the string representation of the recurring event.
+     * Adds "[R]" string identifier to the standard string, followed by the first occurrence and the rule.
+     */
+    @Override
+    public String toString() {
+        String end = count > 0 ? ", " + count + " times" : until != null ? ", until " + until : "";
+        return "[R]" + super.toString()
+                + " (every " + frequency.getWord() + " from: " + from.format(DISPLAY_FORMAT)
+                + " to: " + to.format(DISPLAY_FORMAT) + end + ")";
+    }
+}
@@ -2,6 +2,8 @@ package jax.task;
 
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 /**
  * Represents a generic task in the Jax application.
@@ -10,10 +12,22 @@ import java.time.LocalDate;
  */
 public class Task implements Serializable {
 
+    /** Kept equal to the value of the original class so that old save files can still be migrated. */
+    private static final long serialVersionUID = -5987144956290546282L;
+
+    /** Format of the dates and times typed in by the user, shared since formatters are immutable. */
+    public static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    /** Format of the dates and times shown to the user. */
+    public static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern("MMM dd yyyy, h:mma");
+
+    /** Stable identifier of the task, or 0 until it has been added to a task list. */
+    protected int id;
     /** The description of the task. */
     protected String description;
-    /** The completion status of the task (true if done, false otherwise). */
-    protected boolean isDone;
+    /** The completion status of the task (true if done, false otherwise), visible to readers on any thread. */
+    protected volatile boolean isDone;
+    /** Lower-case copy of the description, computed on first use for case-insensitive searches. */
+    private transient String lowerCaseDescription;
 
     /**
      * Creates a new Task with the specified description.
@@ -25,6 +39,36 @@ public class Task implements Serializable {
         this.isDone = false;
     }
 
+    /**
+     * Getter for the task ID.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the task ID. IDs are handed out by the task store when a task is first added.
+     * @param id A positive ID, unique among all tasks ever stored.
+     */
+    public void setId(int id) {
+        assert id > 0 : "Task IDs must be positive";
+        this.id = id;
+    }
+
+    /**
+     * Getter for the task description.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Returns true if the task has been marked as done.
+     */
+    public boolean isDone() {
+        return isDone;
+    }
+
     /**
      * Returns the status icon representing the completion status.
      * @return "[X]" if task is done, or "[ ]" if not done.
@@ -34,10 +78,11 @@ public class Task implements Serializable {
     }
 
     /**
-     * Marks the task as completed.
+     * Marks the task as completed. The check and the change happen atomically, so of several threads
+     * marking the same task only one is told that it changed the task.
      * @return true if the task was successfully marked as done, false if the task was already marked as done.
      */
-    public boolean markTask() {
+    public synchronized boolean markTask() {
         if (isDone) {
             return false;
         }
@@ -49,7 +94,7 @@ public class Task implements Serializable {
      * Marks the task as not completed.
      * @return true if the task was successfully marked as not done, false if the task was already not done.
      */
-    public boolean unmarkTask() {
+    public synchronized boolean unmarkTask() {
         if (!isDone) {
             return false;
         }
@@ -68,13 +113,46 @@ public class Task implements Serializable {
         return false;
     }
 
+    /**
+     * Returns the first date this task occupies, or null if the task has no date.
+     */
+    public LocalDate getStartDate() {
+        return null;
+    }
+
+    /**
+     * Returns the last date this task occupies, or null if the task has no date.
+     */
+    public LocalDate getEndDate() {
+        return null;
+    }
+
+    /**
+     * Returns the first time after the given one at which the task falls due, i.e. when a deadline is due or
+     * an event starts, or null if there is none. This default implementation returns null.
+     * @param time Time after which to look, usually now.
+     */
+    public LocalDateTime getNextDueAfter(LocalDateTime time) {
+        return null;
+    }
+
     /**
      * Checks if the task description contains the specified search keyword, case-insensitive.
      * @param search The keyword to search for.
      * @return true if the description contains the keyword, false otherwise.
      */
     public boolean contains(String search) {
-        return this.description.toLowerCase().contains(search.toLowerCase());
+        return getLowerCaseDescription().contains(search.toLowerCase());
+    }
+
+    /**
+     * Returns the description in lower case, caching it so repeated searches do not allocate.
+     */
+    String getLowerCaseDescription() {
+        if (lowerCaseDescription == null) {
+            lowerCaseDescription = description.toLowerCase();
+        }
+        return lowerCaseDescription;
     }
 
     /**
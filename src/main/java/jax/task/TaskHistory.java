@@ -0,0 +1,140 @@
+package jax.task;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * Bounded log of the changes made to a task list, from which the latest changes can be undone and redone.
+ * A change is recorded as the tasks it touched and their positions, never as a copy of the list, so each step
+ * costs memory in proportion to the number of tasks it changed. It is undone by applying its inverse:
+ * an addition becomes a removal at the same positions, marking becomes unmarking, and the other way round.
+ * This relies on changes being undone in the reverse order they were made, so every change to the list
+ * must be recorded.
+ */
+class TaskHistory {
+
+    /** Number of changes that can be undone, unless {@code jax.history.size} is set. */
+    static final int DEFAULT_CAPACITY = Integer.getInteger("jax.history.size", 100);
+
+    /**
+     * Kinds of change.
+     */
+    enum Kind {
+        ADDED,
+        REMOVED,
+        MARKED,
+        UNMARKED,
+    }
+
+    /**
+     * One command's change to the list.
+     */
+    static final class Change {
+        final Kind kind;
+        /** The tasks changed, in ascending order of position. */
+        final List<Task> tasks;
+        /**
+         * Position of each task: in the list after the change for an addition, in the list before it for
+         * a removal, and in the list at the time for a mark.
+         */
+        final int[] positions;
+
+        Change(Kind kind, List<Task> tasks, int[] positions) {
+            assert tasks.size() == positions.length : "Every task needs a position";
+            this.kind = kind;
+            this.tasks = tasks;
+            this.positions = positions;
+        }
+
+        Change(Kind kind, Task task, int position) {
+            this(kind, List.of(task), new int[] {position});
+        }
+
+        /**
+         * Returns the change that reverts this one.
+         */
+        Change inverse() {
+            Kind inverse;
+            switch (kind) {
+            case ADDED:
+                inverse = Kind.REMOVED;
+                break;
+            case REMOVED:
+                inverse = Kind.ADDED;
+                break;
+            case MARKED:
+                inverse = Kind.UNMARKED;
+                break;
+            default:
+                inverse = Kind.MARKED;
+                break;
+            }
+            return new Change(inverse, tasks, positions);
+        }
+
+        /**
+         * Describes the change, e.g. "deleted 3 tasks" or "marked [T][X] read book as done".
+         */
+        String describe() {
+            String subject = tasks.size() == 1 ? tasks.get(0).toString() : tasks.size() + " tasks";
+            switch (kind) {
+            case ADDED:
+                return "added " + subject;
+            case REMOVED:
+                return "deleted " + subject;
+            case MARKED:
+                return "marked " + subject + " as done";
+            default:
+                return "marked " + subject + " as not done";
+            }
+        }
+    }
+
+    private final int capacity;
+    /** Changes that can be undone, latest first. */
+    private final ArrayDeque<Change> undoable = new ArrayDeque<>();
+    /** Changes that have been undone and can be redone, latest undone first. */
+    private final ArrayDeque<Change> redoable = new ArrayDeque<>();
+
+    /**
+     * Creates an empty history.
+     * @param capacity Greatest number of changes kept; older ones can no longer be undone.
+     */
+    TaskHistory(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Records a change that has just been made. Anything undone before can no longer be redone.
+     * Synchronised since marking only holds the list's shared lock.
+     */
+    synchronized void record(Change change) {
+        undoable.push(change);
+        if (undoable.size() > capacity) {
+            undoable.removeLast();
+        }
+        redoable.clear();
+    }
+
+    /**
+     * Takes the latest change to undo it, or returns null if there is none.
+     */
+    synchronized Change takeUndo() {
+        Change change = undoable.poll();
+        if (change != null) {
+            redoable.push(change);
+        }
+        return change;
+    }
+
+    /**
+     * Takes the latest undone change to redo it, or returns null if there is none.
+     */
+    synchronized Change takeRedo() {
+        Change change = redoable.poll();
+        if (change != null) {
+            undoable.push(change);
+        }
+        return change;
+    }
+}
@@ -3,131 +3,424 @@ package jax.task;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.IntStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import jax.main.JaxException;
+import jax.reminder.ReminderScheduler;
+import jax.storage.LazyTaskList;
 import jax.storage.Storage;
 
 /**
  * Contains the task list and operations to modify it (add, delete, mark, find).
+ * The list may be shared between threads. Adding and deleting take an exclusive lock, while marking
+ * only locks the task being changed. Listing and searching first run without any lock and are
+ * retried under a shared lock only if a structural change happened meanwhile.
+ * Searches that may visit many tasks can be stopped from another thread with {@link #cancelScans()}.
+ * Every change is recorded in a bounded history so that it can be undone and redone.
  */
 @SuppressWarnings("FieldMayBeFinal")
 public class TaskList {
 
-    private ArrayList<Task> tasks;
+    /** Error reported by a search stopped with {@link #cancelScans()}. */
+    public static final String CANCELLED_MESSAGE = "Error - Command cancelled.";
+
+    /** Number of removed tasks named in the response to a bulk delete. */
+    private static final int BULK_EXAMPLES_SHOWN = 5;
+
+    /** Number of tasks a search visits between checks for cancellation. Must be a power of two. */
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    private LazyTaskList tasks;
     private Storage storage;
+    /**
+     * Trigram index for {@link #findTasks}, built on the first search and then kept up to date.
+     * Volatile since it is first checked without the lock and then built under the write lock.
+     */
+    private volatile KeywordIndex keywordIndex;
+    /** Date index for {@link #findTasksBetween}, built on the first lookup and then kept up to date; volatile too. */
+    private volatile DateIndex dateIndex;
+    /** Changes that can be undone, recorded by every method that changes the list. */
+    private final TaskHistory history = new TaskHistory(TaskHistory.DEFAULT_CAPACITY);
+    /** Reminders kept in step with the list, or null if no one is being reminded. */
+    private volatile ReminderScheduler reminders;
+    /** Guards the structure of the list and the indexes. */
+    private final StampedLock lock = new StampedLock();
+    /** Number of calls to {@link #cancelScans()}; a search stops if this changes while it runs. */
+    private final AtomicInteger cancelRequests = new AtomicInteger();
+
+    /**
+     * Thrown inside a search that has been cancelled, and turned into a {@link JaxException} before leaving the list.
+     * It is unchecked so that it can pass through {@link #read(Supplier)}.
+     */
+    private static class ScanCancelledException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ScanCancelledException() {
+            super(null, null, false, false);
+        }
+    }
 
     /**
      * Instantiates a new TaskList object from the current tasks.
      * @param storage Current Storage instance.
      */
     public TaskList(Storage storage) {
-        this.tasks = new ArrayList<>();
+        this.tasks = new LazyTaskList();
         this.storage = storage;
     }
 
     /**
      * Instantiates a TaskList object from the current tasks.
-     * @param tasks The ArrayList of tasks to be passed into TaskList.
+     * @param tasks The List of tasks to be passed into TaskList.
      * @param storage Current Storage instance.
      */
-    public TaskList(ArrayList<Task> tasks, Storage storage) {
-        this.tasks = tasks;
+    public TaskList(List<Task> tasks, Storage storage) {
+        this.tasks = tasks instanceof LazyTaskList ? (LazyTaskList) tasks : new LazyTaskList(tasks);
         this.storage = storage;
     }
 
+
+    /**
+     * Updates the indexes that have been built so far, and the reminders, with a newly added task.
+     */
+    private void addToIndexes(Task task) {
+        if (keywordIndex != null) {
+            keywordIndex.add(task);
+        }
+        if (dateIndex != null) {
+            dateIndex.add(task);
+        }
+        updateReminder(task);
+    }
+
+    /**
+     * Removes a deleted task from the indexes that have been built so far, and drops its reminder.
+     */
+    private void removeFromIndexes(Task task) {
+        if (keywordIndex != null) {
+            keywordIndex.remove(task);
+        }
+        if (dateIndex != null) {
+            dateIndex.remove(task);
+        }
+        ReminderScheduler scheduler = reminders;
+        if (scheduler != null) {
+            scheduler.cancel(task);
+        }
+    }
+
     /**
-     * Helper function to link tasklist to storage.
+     * Schedules the task's next reminder, or drops it if the task is done.
      */
-    private void saveToStorage() throws JaxException {
-        storage.saveTasks(tasks);
+    private void updateReminder(Task task) {
+        ReminderScheduler scheduler = reminders;
+        if (scheduler != null) {
+            scheduler.schedule(task);
+        }
     }
 
+    /**
+     * Keeps the reminders of a scheduler in step with the list from now on, starting with every task in it.
+     * Tasks that the save file records as done or past are skipped without being decoded, but the others are
+     * decoded, so this should not be called on the UI thread.
+     * @param scheduler The scheduler, which replaces any given before.
+     */
+    public void watchReminders(ReminderScheduler scheduler) {
+        // Shared lock: adding and deleting wait for the scan, while a task marked meanwhile is at worst
+        // scheduled once more and then skipped by the scheduler when its reminder fires.
+        long stamp = lock.readLock();
+        try {
+            reminders = scheduler;
+            scheduler.scheduleAll(tasks.mayFallDueAfter(scheduler.now()));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
 
     /**
      * Insert task object into tasklist, printing success.
      * @param task New task to be added to tasklist.
      */
     public String insertTask(Task task) throws JaxException {
-        tasks.add(task);
-        saveToStorage();
-        return ("added: " + task + "\nNow you have " + tasks.size() + " tasks in the list");
+        long stamp = lock.writeLock();
+        try {
+            tasks.add(task);
+            addToIndexes(task);
+            history.record(new TaskHistory.Change(TaskHistory.Kind.ADDED, task, tasks.size() - 1));
+            storage.logTaskAdded(tasks, task);
+            return ("added: " + task + " (#" + task.getId() + ")\nNow you have " + tasks.size()
+                    + " tasks in the list");
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Appends many tasks in one step, e.g. a batch being imported, updating the indexes and journaling the batch.
+     * The batch is undone as a whole.
+     * @param batch The tasks to append, in order.
+     */
+    public void insertTasks(List<Task> batch) throws JaxException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            int[] positions = new int[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                Task task = batch.get(i);
+                tasks.add(task);
+                addToIndexes(task);
+                positions[i] = tasks.size() - 1;
+            }
+            history.record(new TaskHistory.Change(TaskHistory.Kind.ADDED, List.copyOf(batch), positions));
+            storage.logTasksAppended(tasks, batch.size());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the position of the task with the given ID.
+     * @param id The stable ID shown when the task was added.
+     * @return Zero-based index of the task, or -1 if no task has that ID.
+     */
+    public int indexOfId(int id) {
+        buildIdMap();
+        long stamp = lock.readLock();
+        try {
+            return tasks.indexOfId(id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Builds the list's ID map under the write lock if it has not been built yet.
+     */
+    private void buildIdMap() {
+        if (!tasks.hasIdMap()) {
+            long stamp = lock.writeLock();
+            try {
+                tasks.buildIdMap();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
     }
 
     /**
      * Getter all tasks currently in the list.
-     * @return ArrayList object of all tasks.
+     * The list is live and not guarded, so it must only be used while no other thread changes the task list.
+     * @return List object of all tasks.
      */
-    public ArrayList<Task> getTasks() {
+    public List<Task> getTasks() {
         return tasks;
     }
 
+    /**
+     * Passes every task, in list order, to the action while holding off other changes, e.g. to export them.
+     * Tasks not yet decoded from the save file are decoded for the action only, and are not kept in memory.
+     * @param action Receives each task. It must not change the list.
+     */
+    public void forEachUnretained(Consumer<Task> action) {
+        long stamp = lock.readLock();
+        try {
+            tasks.forEachUnretained(action);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Writes a full snapshot of the task list to storage while holding off other changes.
+     * @throws JaxException If there is an error writing to the save file.
+     */
+    public void save() throws JaxException {
+        long stamp = lock.readLock();
+        try {
+            storage.saveTasks(tasks);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Runs a read-only computation over the list. It is first run without locking, and run again under the
+     * shared lock if a writer changed the list meanwhile, in which case the first result is discarded.
+     * The computation must not build any structure that changes keep up to date, such as an index or the ID map:
+     * neither run excludes writers that go ahead while it is being built, so it would miss their changes. Such
+     * structures are built beforehand under the write lock.
+     */
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // A writer left the list half-changed under our feet; fall through and read under the lock.
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Stops the searches and date listings running at the moment of the call. Each of them fails with
+     * a "cancelled" error; searches started afterwards are not affected.
+     */
+    public void cancelScans() {
+        cancelRequests.incrementAndGet();
+    }
+
+    /**
+     * Throws if {@link #cancelScans()} has been called since the search that reached position {@code i} started.
+     * @param generation Value of {@link #cancelRequests} when the search started.
+     */
+    private void checkCancelled(int generation, int i) {
+        if ((i & (CANCEL_CHECK_INTERVAL - 1)) == 0 && cancelRequests.get() != generation) {
+            throw new ScanCancelledException();
+        }
+    }
+
     /**
      * Prints all tasks currently in the list formatted as a numbered list.
      */
     public String printTasks() {
-        if (tasks.isEmpty()) {
+        return read(() -> formatTasks(0, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Prints one page of the list, numbered by position, so that long lists are shown in bounded chunks.
+     * Only the tasks on the page are read, which leaves the rest of a loaded save file undecoded.
+     * @param start Zero-based position of the first task to show.
+     * @param count Greatest number of tasks to show.
+     * @throws JaxException If the list is not empty but has no task at the start position.
+     */
+    public String printTasks(int start, int count) throws JaxException {
+        String page = read(() -> formatTasks(start, count));
+        if (page == null) {
+            throw new JaxException("Error - Nothing more to show. The list has " + tasks.size() + " tasks.");
+        }
+        return page;
+    }
+
+    /**
+     * Formats the tasks in a range of positions, or returns null if the range starts past the end of the list.
+     */
+    private String formatTasks(int start, int count) {
+        int size = tasks.size();
+        if (size == 0) {
             return "List is empty.";
         }
-        StringBuilder sb = new StringBuilder("Here are the tasks in your list:\n");
-        for (int i = 0; i < tasks.size(); i++) {
-            sb.append((i + 1)).append(".").append(tasks.get(i));
-            if (i < tasks.size() - 1) {
-                sb.append("\n");
-            }
+        if (start >= size) {
+            return null;
+        }
+        int end = count >= size - start ? size : start + count;
+        StringBuilder sb = new StringBuilder(start == 0 && end == size
+                ? "Here are the tasks in your list:"
+                : "Here are tasks " + (start + 1) + "-" + end + " of " + size + ":");
+        for (int i = start; i < end; i++) {
+            sb.append("\n").append(i + 1).append(".").append(tasks.get(i));
+        }
+        if (end < size) {
+            sb.append("\nType \"list next\" to see more.");
         }
         return sb.toString();
     }
 
     /**
-     * Prints all tasks currently in the list formatted as a numbered list.
-     * @param input Datetime in String format.
+     * Prints the tasks falling on a date, or on any day in a range of dates, as a numbered list.
+     * Tasks are listed in order of their start date.
+     * @param input Split input where index 1 holds a date, or a start and end date, in yyyy-MM-dd format.
      */
     public String printTasksByDate(String[] input) throws JaxException {
-        if (input.length < 2) {
+        if (input.length < 2 || input[1].isBlank()) {
             throw new JaxException("Error - Please specify a date (yyyy-MM-dd).");
         }
 
-        LocalDate queryDate;
+        String[] dates = input[1].trim().split("\\s+");
+        LocalDate fromDate;
+        LocalDate toDate;
         try {
-            queryDate = LocalDate.parse(input[1]); // Expecting yyyy-MM-dd
+            fromDate = LocalDate.parse(dates[0]); // Expecting yyyy-MM-dd
+            toDate = dates.length > 1 ? LocalDate.parse(dates[1]) : fromDate;
         } catch (DateTimeParseException e) {
             throw new JaxException("Error - Invalid date format. Use yyyy-MM-dd.");
         }
-
-        StringBuilder sb = new StringBuilder("Reminders for " + queryDate + ":\n");
-        int count = 0;
-        for (Task t : tasks) {
-            if (t.occursOn(queryDate)) {
-                count++;
-                sb.append(count).append(".").append(t).append("\n");
-            }
+        if (toDate.isBefore(fromDate)) {
+            throw new JaxException("Error - End date cannot be before start date.");
         }
 
-        if (count == 0) {
+        int generation = cancelRequests.get();
+        List<Task> matches = findTasksBetween(fromDate, toDate);
+        if (matches.isEmpty()) {
             return "No tasks found on this date.";
-        } else {
-            return sb.toString().trim();
+        }
+
+        String period = fromDate.equals(toDate) ? fromDate.toString() : fromDate + " to " + toDate;
+        try {
+            return formatMatches("Reminders for " + period + ":\n", matches, generation);
+        } catch (ScanCancelledException e) {
+            throw new JaxException(CANCELLED_MESSAGE);
         }
     }
 
+    /**
+     * Returns the tasks that fall on any day between the two dates, inclusive, ordered by start date.
+     * @param fromDate First day of the range.
+     * @param toDate Last day of the range.
+     */
+    public List<Task> findTasksBetween(LocalDate fromDate, LocalDate toDate) {
+        if (dateIndex == null) {
+            long stamp = lock.writeLock();
+            try {
+                if (dateIndex == null) {
+                    dateIndex = new DateIndex(tasks);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        return read(() -> dateIndex.findBetween(fromDate, toDate));
+    }
+
     /**
      * Marks tasks based on the index given.
      * @param cur Index of task to be marked.
      */
     public String markTask(int cur) throws JaxException {
+        long stamp = lock.readLock();
+        try {
+            if (cur < 0 || cur >= tasks.size()) {
+                throw new JaxException("Error - Invalid task number.");
+            }
 
-        if (cur < 0 || cur >= tasks.size()) {
-            throw new JaxException("Error - Invalid task number.");
-        }
-
-        Task curr = tasks.get(cur);
-        if (curr.markTask()) {
-            saveToStorage();
-            return "Nice! I've marked this task as done:\n" + curr;
-        } else {
-            return "This task has already been marked done:\n" + curr;
+            Task curr = tasks.get(cur);
+            synchronized (curr) {
+                if (curr.markTask()) {
+                    updateReminder(curr);
+                    history.record(new TaskHistory.Change(TaskHistory.Kind.MARKED, curr, cur));
+                    storage.logTaskMarked(tasks, cur);
+                    return "Nice! I've marked this task as done:\n" + curr;
+                } else {
+                    return "This task has already been marked done:\n" + curr;
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
         }
     }
 
@@ -136,17 +429,25 @@ public class TaskList {
      * @param cur Index of task to be unmarked.
      */
     public String unmarkTask(int cur) throws JaxException {
+        long stamp = lock.readLock();
+        try {
+            if (cur < 0 || cur >= tasks.size()) {
+                throw new JaxException("Error - Invalid task number.");
+            }
 
-        if (cur < 0 || cur >= tasks.size()) {
-            throw new JaxException("Error - Invalid task number.");
-        }
-
-        Task curr = tasks.get(cur);
-        if (curr.unmarkTask()) {
-            saveToStorage();
-            return "OK, I've marked this task as not done yet:\n" + curr;
-        } else {
-            return "This task hasn't been marked done:\n" + curr;
+            Task curr = tasks.get(cur);
+            synchronized (curr) {
+                if (curr.unmarkTask()) {
+                    updateReminder(curr);
+                    history.record(new TaskHistory.Change(TaskHistory.Kind.UNMARKED, curr, cur));
+                    storage.logTaskUnmarked(tasks, cur);
+                    return "OK, I've marked this task as not done yet:\n" + curr;
+                } else {
+                    return "This task hasn't been marked done:\n" + curr;
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
         }
     }
 
@@ -156,44 +457,266 @@ public class TaskList {
      * @throws JaxException If the index is out of range.
      */
     public String deleteTask(int index) throws JaxException {
-        if (index < 0 || index >= tasks.size()) {
-            throw new JaxException("Error - Invalid task number.");
+        long stamp = lock.writeLock();
+        try {
+            if (index < 0 || index >= tasks.size()) {
+                throw new JaxException("Error - Invalid task number.");
+            }
+
+            int initialSize = tasks.size();
+
+            Task removedTask = tasks.get(index);
+            tasks.remove(index);
+            removeFromIndexes(removedTask);
+            history.record(new TaskHistory.Change(TaskHistory.Kind.REMOVED, removedTask, index));
+            storage.logTaskDeleted(tasks, index);
+
+            assert tasks.size() == initialSize - 1 : "Task list size did not decrease after deletion";
+
+            return ("Noted. I've removed this task:\n  "
+                    + removedTask
+                    + "\nNow you have "
+                    + tasks.size()
+                    + " tasks in the list.");
+        } finally {
+            lock.unlockWrite(stamp);
         }
+    }
 
-        int initialSize = tasks.size();
+    /**
+     * Marks several tasks as done in one pass and saves the list once.
+     * @param selection The tasks to mark.
+     * @throws JaxException If the selection does not fit the list.
+     */
+    public String markTasks(TaskSelection selection) throws JaxException {
+        return setDone(selection, true);
+    }
 
-        Task removedTask = tasks.get(index);
-        tasks.remove(index);
-        saveToStorage();
+    /**
+     * Marks several tasks as not done in one pass and saves the list once.
+     * @param selection The tasks to unmark.
+     * @throws JaxException If the selection does not fit the list.
+     */
+    public String unmarkTasks(TaskSelection selection) throws JaxException {
+        return setDone(selection, false);
+    }
 
-        assert tasks.size() == initialSize - 1 : "Task list size did not decrease after deletion";
+    private String setDone(TaskSelection selection, boolean isDone) throws JaxException {
+        long stamp = lock.readLock();
+        try {
+            int[] positions = selection.resolve(tasks);
+            List<Task> changedTasks = new ArrayList<>();
+            int[] changedPositions = new int[positions.length];
+            for (int position : positions) {
+                Task task = tasks.get(position);
+                synchronized (task) {
+                    if (isDone ? task.markTask() : task.unmarkTask()) {
+                        updateReminder(task);
+                        changedPositions[changedTasks.size()] = position;
+                        changedTasks.add(task);
+                    }
+                }
+            }
+            int changed = changedTasks.size();
+            if (changed > 0) {
+                history.record(new TaskHistory.Change(isDone ? TaskHistory.Kind.MARKED : TaskHistory.Kind.UNMARKED,
+                        changedTasks, Arrays.copyOf(changedPositions, changed)));
+                storage.logTasksReplaced(tasks);
+            }
+            return (isDone ? "Marked " : "Unmarked ") + changed + " of " + positions.length
+                    + " selected tasks" + (isDone ? " as done." : " as not done.")
+                    + (changed < positions.length ? " The rest were already " + (isDone ? "done." : "not done.") : "");
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
 
-        return ("Noted. I've removed this task:\n  "
-                + removedTask
-                + "\nNow you have "
-                + tasks.size()
-                + " tasks in the list.");
+    /**
+     * Deletes several tasks in one pass, updating the indexes and saving the list once.
+     * The response names the first few tasks removed and counts the rest.
+     * @param selection The tasks to delete.
+     * @throws JaxException If the selection does not fit the list.
+     */
+    public String deleteTasks(TaskSelection selection) throws JaxException {
+        long stamp = lock.writeLock();
+        try {
+            int[] positions = selection.resolve(tasks);
+            if (positions.length == 0) {
+                return "No tasks matched, so nothing was removed.";
+            }
+            List<Task> removed = tasks.removePositions(positions);
+            for (Task task : removed) {
+                removeFromIndexes(task);
+            }
+            history.record(new TaskHistory.Change(TaskHistory.Kind.REMOVED, removed, positions));
+            storage.logTasksReplaced(tasks);
+
+            StringBuilder sb = new StringBuilder("Noted. I've removed " + removed.size() + " tasks:");
+            int shown = Math.min(removed.size(), BULK_EXAMPLES_SHOWN);
+            for (int i = 0; i < shown; i++) {
+                sb.append("\n  ").append(removed.get(i));
+            }
+            if (shown < removed.size()) {
+                sb.append("\n  ...and ").append(removed.size() - shown).append(" more.");
+            }
+            return sb.append("\nNow you have ").append(tasks.size()).append(" tasks in the list.").toString();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
-     * Deletes a task from the list at the specified index.
-     * @param keyword Keyword for task
+     * Reverts the latest change to the list that has not been undone yet.
+     * @throws JaxException If there is nothing to undo.
      */
-    public String findTasks(String keyword) throws JaxException {
+    public String undo() throws JaxException {
+        long stamp = lock.writeLock();
+        try {
+            TaskHistory.Change change = history.takeUndo();
+            if (change == null) {
+                throw new JaxException("Error - Nothing to undo.");
+            }
+            apply(change.inverse());
+            return "Undone: " + change.describe() + "\nNow you have " + tasks.size() + " tasks in the list.";
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
 
-        List<Task> filteredTasks = tasks.stream()
-                .filter(t -> t.contains(keyword))
-                .toList();
+    /**
+     * Makes again the latest change that was undone, as long as nothing else has changed since.
+     * @throws JaxException If there is nothing to redo.
+     */
+    public String redo() throws JaxException {
+        long stamp = lock.writeLock();
+        try {
+            TaskHistory.Change change = history.takeRedo();
+            if (change == null) {
+                throw new JaxException("Error - Nothing to redo.");
+            }
+            apply(change);
+            return "Redone: " + change.describe() + "\nNow you have " + tasks.size() + " tasks in the list.";
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
 
-        if (filteredTasks.isEmpty()) {
-            return "No tasks found with this keyword.";
+    /**
+     * Applies a recorded change, or its inverse, to the list as it stood when the change was made or right after.
+     * Removed tasks are put back into their tombstones where possible, so undoing a deletion does not shift the
+     * rest of the list. A change to one task is journaled like the command itself; a larger one saves the list.
+     * Must hold the write lock.
+     */
+    private void apply(TaskHistory.Change change) throws JaxException {
+        List<Task> changed = change.tasks;
+        int[] positions = change.positions;
+        boolean isSingle = changed.size() == 1;
+        switch (change.kind) {
+        case ADDED:
+            for (int i = 0; i < positions.length; i++) {
+                tasks.restore(positions[i], changed.get(i));
+                addToIndexes(changed.get(i));
+            }
+            if (isSingle) {
+                storage.logTaskInserted(tasks, positions[0], changed.get(0));
+            } else {
+                storage.logTasksReplaced(tasks);
+            }
+            break;
+        case REMOVED:
+            for (Task task : tasks.removePositions(positions)) {
+                removeFromIndexes(task);
+            }
+            if (isSingle) {
+                storage.logTaskDeleted(tasks, positions[0]);
+            } else {
+                storage.logTasksReplaced(tasks);
+            }
+            break;
+        default:
+            boolean isDone = change.kind == TaskHistory.Kind.MARKED;
+            for (Task task : changed) {
+                synchronized (task) {
+                    if (isDone) {
+                        task.markTask();
+                    } else {
+                        task.unmarkTask();
+                    }
+                }
+                updateReminder(task);
+            }
+            if (isSingle && isDone) {
+                storage.logTaskMarked(tasks, positions[0]);
+            } else if (isSingle) {
+                storage.logTaskUnmarked(tasks, positions[0]);
+            } else {
+                storage.logTasksReplaced(tasks);
+            }
+            break;
         }
+    }
+
+    /**
+     * Finds all tasks whose description contains the keyword, ignoring case.
+     * Keywords of three or more characters are looked up in the trigram index.
+     * @param keyword Keyword for task
+     */
+    public String findTasks(String keyword) throws JaxException {
+        int generation = cancelRequests.get();
+        String lowerKeyword = keyword.toLowerCase();
+        List<Task> filteredTasks;
+        try {
+            if (KeywordIndex.canSearch(lowerKeyword)) {
+                if (keywordIndex == null || !tasks.hasIdMap()) {
+                    long stamp = lock.writeLock();
+                    try {
+                        if (keywordIndex == null) {
+                            keywordIndex = new KeywordIndex(tasks);
+                        }
+                        // The index's postings are task IDs, looked up by the readers below.
+                        tasks.buildIdMap();
+                    } finally {
+                        lock.unlockWrite(stamp);
+                    }
+                }
+                filteredTasks = read(() -> keywordIndex.find(lowerKeyword));
+            } else {
+                filteredTasks = read(() -> scanDescriptions(lowerKeyword, generation));
+            }
 
-        StringBuilder sb = new StringBuilder("Here are the matching tasks in your list:\n");
+            if (filteredTasks.isEmpty()) {
+                return "No tasks found with this keyword.";
+            }
+            return formatMatches("Here are the matching tasks in your list:\n", filteredTasks, generation);
+        } catch (ScanCancelledException e) {
+            throw new JaxException(CANCELLED_MESSAGE);
+        }
+    }
 
-        IntStream.range(0, filteredTasks.size())
-                .forEach(i -> sb.append(i + 1).append(".").append(filteredTasks.get(i)).append("\n"));
+    /**
+     * Returns the tasks whose lower-case description contains the keyword, checking every task.
+     */
+    private List<Task> scanDescriptions(String lowerKeyword, int generation) {
+        List<Task> matches = new ArrayList<>();
+        for (int i = 0, size = tasks.size(); i < size; i++) {
+            checkCancelled(generation, i);
+            Task task = tasks.get(i);
+            if (task.getLowerCaseDescription().contains(lowerKeyword)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
 
+    /**
+     * Formats search results as a numbered list under a heading.
+     */
+    private String formatMatches(String heading, List<Task> matches, int generation) {
+        StringBuilder sb = new StringBuilder(heading);
+        for (int i = 0; i < matches.size(); i++) {
+            checkCancelled(generation, i);
+            sb.append(i + 1).append(".").append(matches.get(i)).append("\n");
+        }
         return sb.toString().trim();
     }
 }
@@ -0,0 +1,69 @@
+package jax.task;
+
+import java.util.BitSet;
+import java.util.List;
+
+import jax.main.JaxException;
+
+/**
+ * Several tasks picked out at once for a bulk command: a list of task numbers and ranges such as
+ * {@code 1,4,9} or {@code 3-500}, or every task that is done.
+ * A selection is resolved against the list only when the command runs, under the list's lock.
+ */
+public class TaskSelection {
+
+    /** First task number of each range, counted from 1. */
+    private final int[] firsts;
+    /** Last task number of each range, inclusive. */
+    private final int[] lasts;
+    private final boolean isDoneTasks;
+
+    private TaskSelection(int[] firsts, int[] lasts, boolean isDoneTasks) {
+        this.firsts = firsts;
+        this.lasts = lasts;
+        this.isDoneTasks = isDoneTasks;
+    }
+
+    /**
+     * Selects the tasks numbered from {@code firsts[i]} to {@code lasts[i]}, inclusive, for every i.
+     * Ranges may overlap; each task is selected once.
+     */
+    public static TaskSelection ofRanges(int[] firsts, int[] lasts) {
+        assert firsts.length == lasts.length : "Every range needs a first and a last task number";
+        return new TaskSelection(firsts.clone(), lasts.clone(), false);
+    }
+
+    /**
+     * Selects every task that is marked as done.
+     */
+    public static TaskSelection ofDoneTasks() {
+        return new TaskSelection(new int[0], new int[0], true);
+    }
+
+    /**
+     * Works out which positions of the list are selected.
+     * @param tasks The list as it is now.
+     * @return Distinct zero-based positions in ascending order.
+     * @throws JaxException If a range is reversed or reaches past the end of the list.
+     */
+    int[] resolve(List<Task> tasks) throws JaxException {
+        BitSet selected = new BitSet(tasks.size());
+        if (isDoneTasks) {
+            for (int i = 0; i < tasks.size(); i++) {
+                if (tasks.get(i).isDone()) {
+                    selected.set(i);
+                }
+            }
+        }
+        for (int i = 0; i < firsts.length; i++) {
+            if (firsts[i] < 1 || lasts[i] > tasks.size()) {
+                throw new JaxException("Error - Invalid task number. The list has " + tasks.size() + " tasks.");
+            }
+            if (firsts[i] > lasts[i]) {
+                throw new JaxException("Error - Invalid range " + firsts[i] + "-" + lasts[i] + ".");
+            }
+            selected.set(firsts[i] - 1, lasts[i]);
+        }
+        return selected.stream().toArray();
+    }
+}
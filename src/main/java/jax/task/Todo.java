@@ -6,6 +6,9 @@ package jax.task;
  */
 public class Todo extends Task {
 
+    /** Kept equal to the value of the original class so that old save files can still be migrated. */
+    private static final long serialVersionUID = -7858607126947584324L;
+
     /**
      * Creates a new Todo with the given description.
      * @param description The description of the task.
@@ -0,0 +1,100 @@
+package jax.transfer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import jax.main.JaxException;
+
+/**
+ * Reads a UTF-8 file one character at a time through a fixed-size buffer, counting lines for error messages.
+ * Readers built on it refuse records longer than {@link #MAX_RECORD_LENGTH}, so that a malformed file cannot
+ * make a single record fill the heap.
+ */
+class BoundedReader implements Closeable {
+
+    /** Size of the buffer between the file and the reader, in characters. */
+    static final int BUFFER_SIZE = 64 * 1024;
+    /** Longest record accepted, in characters. */
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private static final int NOTHING_PEEKED = -2;
+
+    private final BufferedReader in;
+    /** Number of line breaks read so far. */
+    private int lineBreaks;
+    private int peeked = NOTHING_PEEKED;
+
+    BoundedReader(Path path) throws IOException {
+        this.in = new BufferedReader(new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8),
+                BUFFER_SIZE);
+    }
+
+    /**
+     * Returns the number of the line the next character is on, counted from 1.
+     */
+    int getLineNumber() {
+        return lineBreaks + 1;
+    }
+
+    /**
+     * Reads the next character, or returns -1 at the end of the file.
+     */
+    int read() throws IOException {
+        int c = peeked == NOTHING_PEEKED ? in.read() : peeked;
+        peeked = NOTHING_PEEKED;
+        if (c == '\n') {
+            lineBreaks++;
+        }
+        return c;
+    }
+
+    /**
+     * Returns the next character without reading it, or -1 at the end of the file.
+     */
+    int peek() throws IOException {
+        if (peeked == NOTHING_PEEKED) {
+            peeked = in.read();
+        }
+        return peeked;
+    }
+
+    /**
+     * Reads the rest of the current line without its line break, or returns null at the end of the file.
+     * @throws JaxException If the line is longer than {@link #MAX_RECORD_LENGTH}.
+     */
+    String readLine() throws IOException, JaxException {
+        int c = read();
+        if (c < 0) {
+            return null;
+        }
+        StringBuilder line = new StringBuilder();
+        while (c >= 0 && c != '\n') {
+            if (c != '\r') {
+                line.append((char) c);
+                checkLength(line.length());
+            }
+            c = read();
+        }
+        return line.toString();
+    }
+
+    /**
+     * Throws if a record being read has grown past {@link #MAX_RECORD_LENGTH}.
+     */
+    void checkLength(int length) throws JaxException {
+        if (length > MAX_RECORD_LENGTH) {
+            throw new JaxException("Error - Line " + getLineNumber() + " is longer than " + MAX_RECORD_LENGTH
+                    + " characters.");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
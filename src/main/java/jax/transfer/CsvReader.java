@@ -0,0 +1,97 @@
+package jax.transfer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jax.main.JaxException;
+
+/**
+ * Reads comma-separated values as described in RFC 4180: fields may be quoted, a quote inside a quoted field
+ * is doubled, and a quoted field may span lines. The first record is a header naming the fields, in any order;
+ * columns it does not know are ignored. Blank lines are skipped.
+ */
+class CsvReader implements RecordReader {
+
+    private final BoundedReader in;
+    private List<String> header;
+    private int lineNumber;
+
+    CsvReader(BoundedReader in) {
+        this.in = in;
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException, JaxException {
+        if (header == null) {
+            header = readFields();
+            if (header == null) {
+                return null;
+            }
+            header.replaceAll(name -> name.trim().toLowerCase());
+        }
+        List<String> fields = readFields();
+        if (fields == null) {
+            return null;
+        }
+        Map<String, String> record = new HashMap<>();
+        for (int i = 0; i < fields.size() && i < header.size(); i++) {
+            if (!fields.get(i).isEmpty()) {
+                record.put(header.get(i), fields.get(i));
+            }
+        }
+        return record;
+    }
+
+    @Override
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Reads the fields of the next non-blank record, or returns null at the end of the file.
+     */
+    private List<String> readFields() throws IOException, JaxException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int length = 0;
+        boolean isQuoted = false;
+        lineNumber = in.getLineNumber();
+        while (true) {
+            int c = in.read();
+            if (c < 0 || (c == '\n' && !isQuoted)) {
+                if (isQuoted) {
+                    throw new JaxException("Error - The quote opened on line " + lineNumber + " is never closed.");
+                }
+                if (fields.isEmpty() && field.length() == 0) {
+                    if (c < 0) {
+                        return null;
+                    }
+                    lineNumber = in.getLineNumber();
+                    continue;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (isQuoted && c == '"') {
+                if (in.peek() == '"') {
+                    field.append((char) in.read());
+                } else {
+                    isQuoted = false;
+                }
+            } else if (isQuoted) {
+                field.append((char) c);
+            } else if (c == '"') {
+                isQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            in.checkLength(++length);
+        }
+    }
+}
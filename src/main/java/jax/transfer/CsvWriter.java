@@ -0,0 +1,57 @@
+package jax.transfer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Writes comma-separated values as described in RFC 4180, starting with a header row of field names.
+ * Fields holding a comma, quote or line break are quoted.
+ */
+class CsvWriter implements RecordWriter {
+
+    private final Writer out;
+    private final String[] fields;
+
+    /**
+     * Creates a writer of the given fields and writes the header.
+     */
+    CsvWriter(Writer out, String[] fields) throws IOException {
+        this.out = out;
+        this.fields = fields;
+        for (int i = 0; i < fields.length; i++) {
+            writeField(i, fields[i]);
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void write(Map<String, String> record) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            writeField(i, record.getOrDefault(fields[i], ""));
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void finish() {
+    }
+
+    private void writeField(int column, String value) throws IOException {
+        if (column > 0) {
+            out.write(',');
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,388 @@
+package jax.transfer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jax.contact.Contact;
+import jax.contact.ContactList;
+import jax.main.JaxException;
+import jax.main.ParsedCommand;
+import jax.main.Parser;
+import jax.task.Deadline;
+import jax.task.Event;
+import jax.task.RecurringEvent;
+import jax.task.Task;
+import jax.task.TaskList;
+
+/**
+ * Imports and exports tasks and contacts as CSV, JSON Lines or iCalendar files, chosen by file extension.
+ * Files are streamed one record at a time through fixed-size buffers, so a file of any size is transferred
+ * in bounded memory. Imported records are checked by the same parser as typed commands: an invalid record is
+ * skipped and reported by line number, and the valid ones are added in batches of {@link #BATCH_SIZE},
+ * each journaled as one append. Files are named relative to the data directory and must lie within it, so that
+ * a command cannot read or overwrite files elsewhere, such as another user's data on a server.
+ */
+public class DataTransfer {
+
+    /** Fields of a task record, in the column order of an export. */
+    static final String[] TASK_FIELDS = {"type", "done", "description", "by", "from", "to", "every", "until",
+        "times"};
+    /** Fields of a contact record, in the column order of an export. */
+    static final String[] CONTACT_FIELDS = {"name", "phone", "email"};
+    /** Number of imported records added and saved at a time. */
+    static final int BATCH_SIZE = 1000;
+
+    /** Greatest number of skipped records described after an import; the rest are counted. */
+    private static final int MAX_ERRORS_SHOWN = 5;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Turns a record into a task or contact.
+     */
+    private interface RecordParser<T> {
+        T parse(Map<String, String> record, ParsedCommand parsed) throws JaxException;
+    }
+
+    /**
+     * Adds a batch of parsed records to a list and saves it.
+     */
+    private interface BatchInserter<T> {
+        /**
+         * Returns, for each item, null if it was added or the reason it was rejected.
+         */
+        String[] insert(List<T> batch) throws JaxException;
+    }
+
+    private DataTransfer() {
+    }
+
+    /**
+     * Writes the tasks to a file, replacing it if it exists. Changes to the list wait until the export is done,
+     * and tasks not yet loaded from the save file are not kept in memory afterwards.
+     * @param tasks The tasks, in list order.
+     * @param directory The data directory, which the file must lie in.
+     * @param fileName Name of the file relative to the directory, whose extension picks the format.
+     * @throws JaxException If the extension is not supported, the name leaves the directory, or the file cannot
+     *     be written.
+     */
+    public static String exportTasks(TaskList tasks, Path directory, String fileName) throws JaxException {
+        TransferFormat format = TransferFormat.of(fileName);
+        Path path = resolve(directory, fileName);
+        AtomicInteger count = new AtomicInteger();
+        try (Writer out = openWriter(path)) {
+            RecordWriter writer = format == TransferFormat.ICALENDAR
+                    ? new ICalendarWriter(out)
+                    : createWriter(format, out, TASK_FIELDS);
+            tasks.forEachUnretained(task -> {
+                try {
+                    writer.write(toRecord(task));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count.incrementAndGet();
+            });
+            writer.finish();
+        } catch (IOException | UncheckedIOException e) {
+            throw new JaxException("Error - Could not write " + fileName + ": " + e.getMessage());
+        }
+        return "Exported " + count.get() + " tasks to " + fileName + ".";
+    }
+
+    /**
+     * Writes the contacts to a CSV or JSON Lines file, replacing it if it exists.
+     * @param contacts The contacts.
+     * @param directory The data directory, which the file must lie in.
+     * @param fileName Name of the file relative to the directory, whose extension picks the format.
+     * @throws JaxException If the extension is not supported, it is .ics, the name leaves the directory, or the
+     *     file cannot be written.
+     */
+    public static String exportContacts(Collection<Contact> contacts, Path directory, String fileName)
+            throws JaxException {
+        TransferFormat format = TransferFormat.of(fileName);
+        if (format == TransferFormat.ICALENDAR) {
+            throw new JaxException("Error - Contacts can only be exported as .csv or .jsonl.");
+        }
+        Path path = resolve(directory, fileName);
+        try (Writer out = openWriter(path)) {
+            RecordWriter writer = createWriter(format, out, CONTACT_FIELDS);
+            Map<String, String> record = new HashMap<>();
+            for (Contact contact : contacts) {
+                record.put("name", contact.getName());
+                record.put("phone", contact.getPhoneNumber());
+                record.put("email", contact.getEmail());
+                writer.write(record);
+            }
+            writer.finish();
+        } catch (IOException e) {
+            throw new JaxException("Error - Could not write " + fileName + ": " + e.getMessage());
+        }
+        return "Exported " + contacts.size() + " contacts to " + fileName + ".";
+    }
+
+    /**
+     * Adds the tasks in a file to the end of the list. Invalid records are skipped.
+     * Each batch added can be undone as one change.
+     * @param directory The data directory, which the file must lie in.
+     * @param fileName Name of the file relative to the directory, whose extension picks the format.
+     * @param tasks The list to add to.
+     * @return A summary of what was imported and what was skipped.
+     * @throws JaxException If the extension is not supported, the name leaves the directory, the file cannot be
+     *     opened, or saving fails.
+     */
+    public static String importTasks(Path directory, String fileName, TaskList tasks) throws JaxException {
+        return importRecords(directory, fileName, "tasks", DataTransfer::toTask, batch -> {
+            tasks.insertTasks(batch);
+            return new String[batch.size()];
+        });
+    }
+
+    /**
+     * Adds the contacts in a CSV or JSON Lines file, replacing contacts of the same name. Invalid records, and
+     * contacts whose phone number or email belongs to someone else, are skipped.
+     * @param directory The data directory, which the file must lie in.
+     * @param fileName Name of the file relative to the directory, whose extension picks the format.
+     * @param contacts The list to add to.
+     * @return A summary of what was imported and what was skipped.
+     * @throws JaxException If the extension is not supported, it is .ics, the name leaves the directory, the file
+     *     cannot be opened, or saving fails.
+     */
+    public static String importContacts(Path directory, String fileName, ContactList contacts) throws JaxException {
+        if (TransferFormat.of(fileName) == TransferFormat.ICALENDAR) {
+            throw new JaxException("Error - Contacts can only be imported from .csv or .jsonl.");
+        }
+        return importRecords(directory, fileName, "contacts", DataTransfer::toContact, contacts::insertContacts);
+    }
+
+    /**
+     * Reads a file record by record, parsing each and inserting them a batch at a time.
+     * A file that turns out to be malformed stops the import, keeping the records read before that point.
+     */
+    private static <T> String importRecords(Path directory, String fileName, String noun, RecordParser<T> parser,
+            BatchInserter<T> inserter) throws JaxException {
+        TransferFormat format = TransferFormat.of(fileName);
+        Path path = resolve(directory, fileName);
+        if (!Files.isRegularFile(path)) {
+            throw new JaxException("Error - There is no file named " + fileName + ".");
+        }
+
+        ImportReport report = new ImportReport();
+        List<T> batch = new ArrayList<>(BATCH_SIZE);
+        int[] batchLines = new int[BATCH_SIZE];
+        ParsedCommand parsed = new ParsedCommand();
+        String stopReason = null;
+        try (BoundedReader in = new BoundedReader(path)) {
+            RecordReader reader = createReader(format, in);
+            while (true) {
+                Map<String, String> record;
+                try {
+                    record = reader.next();
+                } catch (JaxException e) {
+                    stopReason = e.getMessage();
+                    break;
+                }
+                if (record == null) {
+                    break;
+                }
+                try {
+                    batch.add(parser.parse(record, parsed));
+                    batchLines[batch.size() - 1] = reader.getLineNumber();
+                } catch (JaxException e) {
+                    report.skip(reader.getLineNumber(), e.getMessage());
+                }
+                if (batch.size() == BATCH_SIZE) {
+                    insertBatch(batch, batchLines, inserter, report);
+                }
+            }
+        } catch (IOException e) {
+            stopReason = "Error - Could not read " + fileName + ": " + e.getMessage();
+        }
+        insertBatch(batch, batchLines, inserter, report);
+        return report.summarize(noun, fileName, stopReason);
+    }
+
+    private static <T> void insertBatch(List<T> batch, int[] batchLines, BatchInserter<T> inserter,
+            ImportReport report) throws JaxException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        String[] rejections = inserter.insert(batch);
+        for (int i = 0; i < rejections.length; i++) {
+            if (rejections[i] == null) {
+                report.imported++;
+            } else {
+                report.skip(batchLines[i], rejections[i]);
+            }
+        }
+        batch.clear();
+    }
+
+    /**
+     * Counts the records imported and keeps the first few reasons records were skipped.
+     */
+    private static final class ImportReport {
+        private int imported;
+        private int skipped;
+        private final StringBuilder errors = new StringBuilder();
+
+        void skip(int line, String message) {
+            if (++skipped <= MAX_ERRORS_SHOWN) {
+                errors.append("\n  line ").append(line).append(": ").append(message);
+            }
+        }
+
+        String summarize(String noun, String fileName, String stopReason) {
+            StringBuilder sb = new StringBuilder("Imported " + imported + " " + noun + " from " + fileName + ".");
+            if (skipped > 0) {
+                sb.append("\nSkipped ").append(skipped).append(" invalid records:").append(errors);
+                if (skipped > MAX_ERRORS_SHOWN) {
+                    sb.append("\n  ...and ").append(skipped - MAX_ERRORS_SHOWN).append(" more.");
+                }
+            }
+            if (stopReason != null) {
+                sb.append("\nThe import stopped early, keeping the ").append(noun).append(" read before this: ")
+                        .append(stopReason);
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Resolves a file name given in a command against the data directory.
+     * @throws JaxException If the name is absolute, has a {@code ..} part, or is not a valid file name.
+     */
+    static Path resolve(Path directory, String fileName) throws JaxException {
+        Path name;
+        try {
+            name = Path.of(fileName);
+        } catch (InvalidPathException e) {
+            throw new JaxException("Error - " + fileName + " is not a valid file name.");
+        }
+        if (name.isAbsolute() || name.getRoot() != null) {
+            throw new JaxException("Error - Give a file name inside the data folder, not a full path.");
+        }
+        for (Path part : name) {
+            if (part.toString().equals("..")) {
+                throw new JaxException("Error - Give a file name inside the data folder, without \"..\".");
+            }
+        }
+        return directory.resolve(name);
+    }
+
+    private static Writer openWriter(Path path) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(path),
+                StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+    }
+
+    private static RecordWriter createWriter(TransferFormat format, Writer out, String[] fields) throws IOException {
+        return format == TransferFormat.CSV ? new CsvWriter(out, fields) : new JsonLinesWriter(out, fields);
+    }
+
+    private static RecordReader createReader(TransferFormat format, BoundedReader in) {
+        switch (format) {
+        case CSV:
+            return new CsvReader(in);
+        case JSON_LINES:
+            return new JsonLinesReader(in);
+        default:
+            return new ICalendarReader(in);
+        }
+    }
+
+    /**
+     * Converts a task into a record, with times in the format the commands take.
+     */
+    static Map<String, String> toRecord(Task task) {
+        Map<String, String> record = new HashMap<>();
+        record.put("done", String.valueOf(task.isDone()));
+        record.put("description", task.getDescription());
+        if (task instanceof RecurringEvent) {
+            RecurringEvent recurring = (RecurringEvent) task;
+            record.put("type", "recur");
+            record.put("from", recurring.getFrom().format(Task.INPUT_FORMAT));
+            record.put("to", recurring.getTo().format(Task.INPUT_FORMAT));
+            record.put("every", recurring.getFrequency().getWord());
+            if (recurring.getUntil() != null) {
+                record.put("until", recurring.getUntil().toString());
+            }
+            if (recurring.getCount() > 0) {
+                record.put("times", String.valueOf(recurring.getCount()));
+            }
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            record.put("type", "event");
+            record.put("from", event.getFrom().format(Task.INPUT_FORMAT));
+            record.put("to", event.getTo().format(Task.INPUT_FORMAT));
+        } else if (task instanceof Deadline) {
+            record.put("type", "deadline");
+            record.put("by", ((Deadline) task).getBy().format(Task.INPUT_FORMAT));
+        } else {
+            record.put("type", "todo");
+        }
+        return record;
+    }
+
+    /**
+     * Builds a task from a record by writing out the command that would add it and parsing that,
+     * so that an imported task is checked exactly as a typed one is.
+     * @throws JaxException If the record is not a valid task.
+     */
+    private static Task toTask(Map<String, String> record, ParsedCommand parsed) throws JaxException {
+        String type = record.getOrDefault("type", "").trim().toLowerCase();
+        String description = record.getOrDefault("description", "");
+        Task task;
+        switch (type) {
+        case "todo":
+            task = Parser.parseTodo(Parser.parse("todo " + description, parsed));
+            break;
+        case "deadline":
+            task = Parser.parseDeadline(Parser.parse("deadline " + description + " /by "
+                    + record.getOrDefault("by", ""), parsed));
+            break;
+        case "event":
+            task = Parser.parseEvent(Parser.parse("event " + description + " /from "
+                    + record.getOrDefault("from", "") + " /to " + record.getOrDefault("to", ""), parsed));
+            break;
+        case "recur":
+            StringBuilder line = new StringBuilder("recur ").append(description)
+                    .append(" /from ").append(record.getOrDefault("from", ""))
+                    .append(" /to ").append(record.getOrDefault("to", ""))
+                    .append(" /every ").append(record.getOrDefault("every", ""));
+            if (record.containsKey("until")) {
+                line.append(" /until ").append(record.get("until"));
+            }
+            if (record.containsKey("times")) {
+                line.append(" /times ").append(record.get("times"));
+            }
+            task = Parser.parseRecurring(Parser.parse(line.toString(), parsed));
+            break;
+        default:
+            throw new JaxException("Error - Unknown task type \"" + type + "\". Use todo, deadline, event or recur.");
+        }
+        if (Boolean.parseBoolean(record.get("done"))) {
+            task.markTask();
+        }
+        return task;
+    }
+
+    /**
+     * Builds a contact from a record by parsing the command that would add it.
+     * @throws JaxException If the record is not a valid contact.
+     */
+    private static Contact toContact(Map<String, String> record, ParsedCommand parsed) throws JaxException {
+        return Parser.parseContact(Parser.parse("contact " + record.getOrDefault("name", "")
+                + " /p " + record.getOrDefault("phone", "") + " /e " + record.getOrDefault("email", ""), parsed));
+    }
+}
@@ -0,0 +1,275 @@
+package jax.transfer;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import jax.main.JaxException;
+import jax.task.RecurringEvent;
+import jax.task.Task;
+
+/**
+ * Reads the to-dos and events of an iCalendar (RFC 5545) file as task records, one component at a time.
+ * A to-do with a due time becomes a deadline and one without a todo; an event becomes an event, or a recurring
+ * event if it has a repeat rule. Times in UTC or with a time zone are converted to the local time zone.
+ * Other components, and components nested inside a to-do or event such as alarms, are skipped.
+ * Values Jax cannot represent, such as an event repeating every other week, are passed on as they are so that
+ * the record is rejected with the parser's message.
+ */
+class ICalendarReader implements RecordReader {
+
+    /** Properties read from a component. Only these are kept, so a component takes bounded memory. */
+    private static final Set<String> KEPT_PROPERTIES = Set.of("SUMMARY", "DUE", "DTSTART", "DTEND", "RRULE",
+            "STATUS", "X-JAX-DONE");
+    private static final Set<String> TIME_PROPERTIES = Set.of("DUE", "DTSTART", "DTEND");
+
+    private final BoundedReader in;
+    /** Physical line read ahead to check whether it continues the previous one, or null. */
+    private String pending;
+    private int pendingLineNumber;
+    /** Line on which the last content line read started. */
+    private int contentLineNumber;
+    private int lineNumber;
+
+    ICalendarReader(BoundedReader in) {
+        this.in = in;
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException, JaxException {
+        String component = null;
+        Map<String, String> properties = null;
+        int depth = 0;
+        String line;
+        while ((line = readContentLine()) != null) {
+            int colon = indexOfColon(line);
+            if (colon < 0) {
+                continue;
+            }
+            String nameAndParameters = line.substring(0, colon);
+            int semicolon = nameAndParameters.indexOf(';');
+            String name = (semicolon < 0 ? nameAndParameters : nameAndParameters.substring(0, semicolon))
+                    .trim().toUpperCase();
+            String parameters = semicolon < 0 ? "" : nameAndParameters.substring(semicolon + 1);
+            String value = line.substring(colon + 1);
+
+            if (name.equals("BEGIN") && component == null) {
+                String type = value.trim().toUpperCase();
+                if (type.equals("VTODO") || type.equals("VEVENT")) {
+                    component = type;
+                    properties = new HashMap<>();
+                    depth = 1;
+                    lineNumber = contentLineNumber;
+                }
+            } else if (name.equals("BEGIN")) {
+                depth++;
+            } else if (name.equals("END") && component != null) {
+                if (--depth == 0) {
+                    return toRecord(component, properties);
+                }
+            } else if (component != null && depth == 1 && KEPT_PROPERTIES.contains(name)) {
+                properties.put(name, TIME_PROPERTIES.contains(name) ? toJaxTime(value, parameters) : value);
+            }
+        }
+        if (component != null) {
+            throw new JaxException("Error - The " + component + " begun on line " + lineNumber + " is never ended.");
+        }
+        return null;
+    }
+
+    @Override
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Reads the next content line, joining the continuation lines folded off it, or returns null at the end.
+     */
+    private String readContentLine() throws IOException, JaxException {
+        String line;
+        if (pending != null) {
+            line = pending;
+            contentLineNumber = pendingLineNumber;
+            pending = null;
+        } else {
+            contentLineNumber = in.getLineNumber();
+            line = in.readLine();
+            if (line == null) {
+                return null;
+            }
+        }
+
+        StringBuilder unfolded = null;
+        while (true) {
+            int following = in.getLineNumber();
+            String next = in.readLine();
+            if (next == null || next.isEmpty() || (next.charAt(0) != ' ' && next.charAt(0) != '\t')) {
+                pending = next;
+                pendingLineNumber = following;
+                break;
+            }
+            if (unfolded == null) {
+                unfolded = new StringBuilder(line);
+            }
+            unfolded.append(next, 1, next.length());
+            in.checkLength(unfolded.length());
+        }
+        return unfolded == null ? line : unfolded.toString();
+    }
+
+    /**
+     * Returns the index of the colon separating a property's name and parameters from its value.
+     * Colons inside quoted parameter values do not count.
+     */
+    private static int indexOfColon(String line) {
+        boolean isQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                isQuoted = !isQuoted;
+            } else if (c == ':' && !isQuoted) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Converts the properties of a to-do or event into a task record.
+     */
+    private static Map<String, String> toRecord(String component, Map<String, String> properties) {
+        Map<String, String> record = new HashMap<>();
+        if (properties.containsKey("SUMMARY")) {
+            record.put("description", unescape(properties.get("SUMMARY")));
+        }
+        boolean isDone = "COMPLETED".equalsIgnoreCase(properties.get("STATUS"))
+                || "TRUE".equalsIgnoreCase(properties.get("X-JAX-DONE"));
+        record.put("done", String.valueOf(isDone));
+
+        if (component.equals("VTODO")) {
+            String due = properties.get("DUE");
+            record.put("type", due == null ? "todo" : "deadline");
+            if (due != null) {
+                record.put("by", due);
+            }
+            return record;
+        }
+
+        String start = properties.get("DTSTART");
+        if (start != null) {
+            record.put("from", start);
+            record.put("to", properties.getOrDefault("DTEND", start));
+        }
+        String rule = properties.get("RRULE");
+        record.put("type", rule == null ? "event" : "recur");
+        if (rule != null) {
+            readRule(rule, record);
+        }
+        return record;
+    }
+
+    /**
+     * Reads a repeat rule into the fields of a recurring event. A rule Jax cannot follow exactly is passed on
+     * whole as the frequency, which the parser then rejects.
+     */
+    private static void readRule(String rule, Map<String, String> record) {
+        String every = null;
+        boolean isSupported = true;
+        for (String part : rule.split(";")) {
+            int equals = part.indexOf('=');
+            String key = equals < 0 ? part.toUpperCase() : part.substring(0, equals).toUpperCase();
+            String value = equals < 0 ? "" : part.substring(equals + 1);
+            switch (key) {
+            case "FREQ":
+                try {
+                    every = RecurringEvent.Frequency.valueOf(value.toUpperCase()).getWord();
+                } catch (IllegalArgumentException e) {
+                    isSupported = false;
+                }
+                break;
+            case "INTERVAL":
+                isSupported &= value.equals("1");
+                break;
+            case "COUNT":
+                record.put("times", value);
+                break;
+            case "UNTIL":
+                record.put("until", value.length() >= 8
+                        ? value.substring(0, 4) + "-" + value.substring(4, 6) + "-" + value.substring(6, 8)
+                        : value);
+                break;
+            case "WKST":
+                break;
+            default:
+                isSupported = false;
+                break;
+            }
+        }
+        record.put("every", isSupported && every != null ? every : rule);
+    }
+
+    /**
+     * Converts an iCalendar date or date-time into Jax's input format, in the local time zone.
+     * A value that cannot be read is returned as it is, for the parser to reject.
+     */
+    private static String toJaxTime(String value, String parameters) {
+        String trimmed = value.trim();
+        try {
+            LocalDateTime time;
+            if (trimmed.length() == 8) {
+                time = LocalDate.parse(trimmed, DateTimeFormatter.BASIC_ISO_DATE).atStartOfDay();
+            } else {
+                boolean isUtc = trimmed.endsWith("Z");
+                time = LocalDateTime.parse(isUtc ? trimmed.substring(0, trimmed.length() - 1) : trimmed,
+                        ICalendarWriter.DATE_TIME_FORMAT);
+                ZoneId zone = isUtc ? ZoneOffset.UTC : zoneOf(parameters);
+                if (zone != null) {
+                    time = time.atZone(zone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+                }
+            }
+            return time.format(Task.INPUT_FORMAT);
+        } catch (DateTimeException e) {
+            return value;
+        }
+    }
+
+    /**
+     * Returns the zone named by a TZID parameter, or null if there is none or it is not a known zone ID.
+     */
+    private static ZoneId zoneOf(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            if (parameter.toUpperCase().startsWith("TZID=")) {
+                try {
+                    return ZoneId.of(parameter.substring("TZID=".length()).replace("\"", ""));
+                } catch (DateTimeException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reverses the escaping of an iCalendar text value.
+     */
+    private static String unescape(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char escaped = text.charAt(++i);
+                sb.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
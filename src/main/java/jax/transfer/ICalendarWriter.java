@@ -0,0 +1,117 @@
+package jax.transfer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+import jax.task.RecurringEvent;
+import jax.task.Task;
+
+/**
+ * Writes task records as an iCalendar (RFC 5545) file. Todos and deadlines become to-dos, the latter with a due
+ * time, and events become events, with a repeat rule if they recur. Times are written as floating local times,
+ * as Jax keeps them. Lines longer than 75 bytes are folded as the format requires.
+ */
+class ICalendarWriter implements RecordWriter {
+
+    /** Format of date-times in iCalendar. */
+    static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private static final int MAX_LINE_BYTES = 75;
+
+    private final Writer out;
+    /** Creation time stamped on every component, in UTC. */
+    private final String stamp;
+    private int count;
+
+    /**
+     * Creates a writer and writes the start of the calendar.
+     */
+    ICalendarWriter(Writer out) throws IOException {
+        this.out = out;
+        this.stamp = LocalDateTime.now(ZoneOffset.UTC).format(DATE_TIME_FORMAT) + "Z";
+        writeLine("BEGIN:VCALENDAR");
+        writeLine("VERSION:2.0");
+        writeLine("PRODID:-//Jax//Jax//EN");
+    }
+
+    @Override
+    public void write(Map<String, String> record) throws IOException {
+        String type = record.get("type");
+        boolean isEvent = type.equals("event") || type.equals("recur");
+        boolean isDone = Boolean.parseBoolean(record.get("done"));
+        String component = isEvent ? "VEVENT" : "VTODO";
+
+        writeLine("BEGIN:" + component);
+        writeLine("UID:jax-" + stamp + "-" + ++count);
+        writeLine("DTSTAMP:" + stamp);
+        writeLine("SUMMARY:" + escape(record.get("description")));
+        if (type.equals("deadline")) {
+            writeLine("DUE:" + toDateTime(record.get("by")));
+        }
+        if (isEvent) {
+            writeLine("DTSTART:" + toDateTime(record.get("from")));
+            writeLine("DTEND:" + toDateTime(record.get("to")));
+        }
+        if (type.equals("recur")) {
+            String rule = "RRULE:FREQ=" + RecurringEvent.Frequency.parse(record.get("every")).name();
+            if (record.containsKey("until")) {
+                rule += ";UNTIL=" + record.get("until").replace("-", "") + "T235959";
+            } else if (record.containsKey("times")) {
+                rule += ";COUNT=" + record.get("times");
+            }
+            writeLine(rule);
+        }
+        if (isEvent && isDone) {
+            // Events have no completed status in iCalendar, so Jax keeps it in an extension property.
+            writeLine("X-JAX-DONE:TRUE");
+        } else if (!isEvent) {
+            writeLine("STATUS:" + (isDone ? "COMPLETED" : "NEEDS-ACTION"));
+        }
+        writeLine("END:" + component);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writeLine("END:VCALENDAR");
+    }
+
+    /**
+     * Converts a time in Jax's input format to an iCalendar date-time.
+     */
+    private static String toDateTime(String time) {
+        return LocalDateTime.parse(time, Task.INPUT_FORMAT).format(DATE_TIME_FORMAT);
+    }
+
+    /**
+     * Escapes the characters that have a meaning in iCalendar text values.
+     */
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,")
+                .replace("\r", "").replace("\n", "\\n");
+    }
+
+    /**
+     * Writes a content line, folding it onto continuation lines that start with a space whenever it would
+     * exceed 75 bytes of UTF-8. A character is never split across lines.
+     */
+    private void writeLine(String line) throws IOException {
+        int bytes = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            // A surrogate pair takes four bytes, all counted at its first half.
+            int width = c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isHighSurrogate(c) ? 4
+                    : Character.isLowSurrogate(c) ? 0 : 3;
+            if (bytes + width > MAX_LINE_BYTES && width > 0) {
+                out.write("\r\n ");
+                bytes = 1;
+            }
+            out.write(c);
+            bytes += width;
+        }
+        out.write("\r\n");
+    }
+}
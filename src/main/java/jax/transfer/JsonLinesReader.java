@@ -0,0 +1,166 @@
+package jax.transfer;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import jax.main.JaxException;
+
+/**
+ * Reads records written as one flat JSON object per line. Values may be strings, numbers, booleans or null;
+ * null values are treated as absent. A line that is not such an object stops the import, since the rest of
+ * the file is then unlikely to be JSON Lines either. Blank lines are skipped.
+ */
+class JsonLinesReader implements RecordReader {
+
+    /** A JSON number, kept as written. */
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?");
+
+    private final BoundedReader in;
+    private int lineNumber;
+    private String line;
+    private int pos;
+
+    JsonLinesReader(BoundedReader in) {
+        this.in = in;
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException, JaxException {
+        do {
+            lineNumber = in.getLineNumber();
+            line = in.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        pos = 0;
+        Map<String, String> record = new HashMap<>();
+        expect('{');
+        if (peek() == '}') {
+            pos++;
+        } else {
+            do {
+                String name = readString();
+                expect(':');
+                String value = readValue();
+                if (value != null) {
+                    record.put(name, value);
+                }
+            } while (skip(','));
+            expect('}');
+        }
+        if (peek() != 0) {
+            throw malformed();
+        }
+        return record;
+    }
+
+    @Override
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Reads a value, returning null for a JSON null.
+     */
+    private String readValue() throws JaxException {
+        char c = peek();
+        if (c == '"') {
+            return readString();
+        }
+        int start = pos;
+        while (pos < line.length() && ",}".indexOf(line.charAt(pos)) < 0 && !Character.isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+        String literal = line.substring(start, pos);
+        if (literal.equals("null")) {
+            return null;
+        }
+        if (literal.equals("true") || literal.equals("false") || NUMBER.matcher(literal).matches()) {
+            return literal;
+        }
+        throw malformed();
+    }
+
+    private String readString() throws JaxException {
+        expect('"');
+        StringBuilder sb = new StringBuilder();
+        while (pos < line.length()) {
+            char c = line.charAt(pos++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= line.length()) {
+                break;
+            }
+            char escaped = line.charAt(pos++);
+            switch (escaped) {
+            case 'n':
+                sb.append('\n');
+                break;
+            case 'r':
+                sb.append('\r');
+                break;
+            case 't':
+                sb.append('\t');
+                break;
+            case 'b':
+                sb.append('\b');
+                break;
+            case 'f':
+                sb.append('\f');
+                break;
+            case 'u':
+                if (pos + 4 > line.length()) {
+                    throw malformed();
+                }
+                try {
+                    sb.append((char) Integer.parseInt(line.substring(pos, pos + 4), 16));
+                } catch (NumberFormatException e) {
+                    throw malformed();
+                }
+                pos += 4;
+                break;
+            default:
+                sb.append(escaped);
+                break;
+            }
+        }
+        throw malformed();
+    }
+
+    /**
+     * Returns the next character that is not whitespace, without consuming it, or 0 at the end of the line.
+     */
+    private char peek() {
+        while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+        return pos < line.length() ? line.charAt(pos) : 0;
+    }
+
+    private boolean skip(char c) {
+        if (peek() == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) throws JaxException {
+        if (!skip(c)) {
+            throw malformed();
+        }
+    }
+
+    private JaxException malformed() {
+        return new JaxException("Error - Line " + lineNumber + " is not a flat JSON object.");
+    }
+}
@@ -0,0 +1,80 @@
+package jax.transfer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Writes each record as one JSON object on its own line, with the fields in a fixed order.
+ * The {@code done} field is written as a boolean and every other field as a string; empty fields are left out.
+ */
+class JsonLinesWriter implements RecordWriter {
+
+    private final Writer out;
+    private final String[] fields;
+
+    JsonLinesWriter(Writer out, String[] fields) {
+        this.out = out;
+        this.fields = fields;
+    }
+
+    @Override
+    public void write(Map<String, String> record) throws IOException {
+        out.write('{');
+        boolean isFirst = true;
+        for (String field : fields) {
+            String value = record.get(field);
+            if (value == null || value.isEmpty()) {
+                continue;
+            }
+            if (!isFirst) {
+                out.write(',');
+            }
+            isFirst = false;
+            writeString(field);
+            out.write(':');
+            if (field.equals("done")) {
+                out.write(String.valueOf(Boolean.parseBoolean(value)));
+            } else {
+                writeString(value);
+            }
+        }
+        out.write("}\n");
+    }
+
+    @Override
+    public void finish() {
+    }
+
+    private void writeString(String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                out.write("\\\"");
+                break;
+            case '\\':
+                out.write("\\\\");
+                break;
+            case '\n':
+                out.write("\\n");
+                break;
+            case '\r':
+                out.write("\\r");
+                break;
+            case '\t':
+                out.write("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    out.write(String.format("\\u%04x", (int) c));
+                } else {
+                    out.write(c);
+                }
+                break;
+            }
+        }
+        out.write('"');
+    }
+}
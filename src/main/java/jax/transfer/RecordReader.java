@@ -0,0 +1,24 @@
+package jax.transfer;
+
+import java.io.IOException;
+import java.util.Map;
+
+import jax.main.JaxException;
+
+/**
+ * Reads the records of an import file one at a time, each as a map from field name to value.
+ * Fields use the names of {@link DataTransfer#TASK_FIELDS} and {@link DataTransfer#CONTACT_FIELDS}.
+ */
+interface RecordReader {
+
+    /**
+     * Reads the next record, or returns null at the end of the file. Fields missing from the record are absent.
+     * @throws JaxException If the file is malformed beyond the current record, e.g. an unclosed quote.
+     */
+    Map<String, String> next() throws IOException, JaxException;
+
+    /**
+     * Returns the number of the line the last record read started on, for error messages.
+     */
+    int getLineNumber();
+}
@@ -0,0 +1,20 @@
+package jax.transfer;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes records to an export file one at a time, so that nothing but the current record is held in memory.
+ */
+interface RecordWriter {
+
+    /**
+     * Writes one record. Fields absent from the map, or empty, are left out or left blank.
+     */
+    void write(Map<String, String> record) throws IOException;
+
+    /**
+     * Writes whatever the format needs after the last record. Does not close the underlying writer.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,35 @@
+package jax.transfer;
+
+import jax.main.JaxException;
+
+/**
+ * File formats that tasks and contacts can be imported from and exported to, chosen by file extension.
+ */
+public enum TransferFormat {
+    /** Comma-separated values with a header row, as read by spreadsheets. */
+    CSV(".csv"),
+    /** One JSON object per line. */
+    JSON_LINES(".jsonl"),
+    /** An iCalendar file of to-dos and events, as read by calendar applications. Holds tasks only. */
+    ICALENDAR(".ics");
+
+    private final String extension;
+
+    TransferFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Returns the format named by the extension of a file name, ignoring case.
+     * @throws JaxException If the extension is not one of .csv, .jsonl or .ics.
+     */
+    public static TransferFormat of(String fileName) throws JaxException {
+        String lowerName = fileName.toLowerCase();
+        for (TransferFormat format : values()) {
+            if (lowerName.endsWith(format.extension)) {
+                return format;
+            }
+        }
+        throw new JaxException("Error - Use a file name ending in .csv, .jsonl or .ics.");
+    }
+}
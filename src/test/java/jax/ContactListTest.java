@@ -1,6 +1,8 @@
 package jax;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
@@ -31,4 +33,47 @@ public class ContactListTest {
         cl.deleteContact("Cavan");
         assertFalse(cl.printContacts().contains("Cavan"));
     }
+
+    @Test
+    public void findContacts_prefix_listsMatchesInNameOrder() throws JaxException {
+        HashMap<String, Contact> map = new HashMap<>();
+        map.put("bob", new Contact("Bob", "222", "b@b.com"));
+        map.put("alice", new Contact("Alice", "111", "a@a.com"));
+        ContactList cl = new ContactList(map, new Storage());
+        cl.insertContact(new Contact("alan", "333", "al@a.com"));
+
+        assertEquals("Here are the contacts starting with \"AL\":\n1. Alan 333 al@a.com\n2. Alice 111 a@a.com",
+                cl.findContacts("AL"));
+        assertEquals("No contacts found starting with \"c\".", cl.findContacts("c"));
+        assertEquals("Here are contacts 2-3 of 3:\n2. Alice 111 a@a.com\n3. Bob 222 b@b.com",
+                cl.printContacts(1, 2));
+    }
+
+    @Test
+    public void insertContact_phoneOrEmailOfAnotherContact_rejected() throws JaxException {
+        HashMap<String, Contact> map = new HashMap<>();
+        map.put("alice", new Contact("Alice", "+65 9123 4567", "Alice@a.com"));
+        ContactList cl = new ContactList(map, new Storage());
+
+        assertThrows(JaxException.class, () -> cl.insertContact(new Contact("Bob", "+6591234567", "b@b.com")));
+        assertThrows(JaxException.class, () -> cl.insertContact(new Contact("Bob", "222", "alice@A.com")));
+        cl.insertContact(new Contact("alice", "111", "alice@a.com"));
+
+        assertEquals("That belongs to: Alice 111 alice@a.com", cl.findOwner("ALICE@a.com"));
+        assertEquals("No contact has the phone number 9123-4567.", cl.findOwner("9123-4567"));
+    }
+
+    @Test
+    public void deleteContact_savedContactsSharingPhoneAndEmail_otherStillFound() throws JaxException {
+        HashMap<String, Contact> map = new HashMap<>();
+        map.put("alice", new Contact("Alice", "111", "home@a.com"));
+        map.put("bob", new Contact("Bob", "111", "home@a.com"));
+        ContactList cl = new ContactList(map, new Storage());
+
+        cl.deleteContact("alice");
+
+        assertEquals("That belongs to: Bob 111 home@a.com", cl.findOwner("111"));
+        assertEquals("That belongs to: Bob 111 home@a.com", cl.findOwner("HOME@a.com"));
+        assertThrows(JaxException.class, () -> cl.insertContact(new Contact("Carol", "111", "c@c.com")));
+    }
 }
@@ -0,0 +1,90 @@
+package jax;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jax.main.Jax;
+import jax.storage.Storage;
+
+public class JaxTest {
+
+    @TempDir
+    Path dataDirectory;
+
+    private Storage createStorage() {
+        return new Storage(dataDirectory.resolve("tasks.txt").toString(),
+                dataDirectory.resolve("contacts.txt").toString());
+    }
+
+    @Test
+    public void runBatch_script_streamsResponsesAndSavesOnce() throws Exception {
+        Jax jax = new Jax(createStorage());
+        StringWriter out = new StringWriter();
+
+        int count = jax.runBatch(new BufferedReader(new StringReader("todo a\n\ntodo b\nmark 2\nbye\ntodo c\n")), out);
+
+        assertEquals(3, count);
+        assertEquals("added: [T][ ] a (#1)\nNow you have 1 tasks in the list\n"
+                + "added: [T][ ] b (#2)\nNow you have 2 tasks in the list\n"
+                + "Nice! I've marked this task as done:\n[T][X] b\n", out.toString());
+        assertFalse(Files.exists(dataDirectory.resolve("tasks.txt.journal")));
+        assertEquals("Here are the tasks in your list:\n1.[T][ ] a\n2.[T][X] b",
+                new Jax(createStorage()).getResponse("list"));
+    }
+
+    @Test
+    public void getResponse_afterBatch_journalsAgain() throws Exception {
+        Storage storage = createStorage();
+        Jax jax = new Jax(storage);
+        jax.runBatch(new BufferedReader(new StringReader("todo a\n")), new StringWriter());
+
+        jax.getResponse("todo b");
+        storage.flush();
+
+        assertEquals("Here are the tasks in your list:\n1.[T][ ] a\n2.[T][ ] b",
+                new Jax(createStorage()).getResponse("list"));
+    }
+
+    @Test
+    public void getResponse_markById_findsTaskAfterDeleteAndReload() throws Exception {
+        Storage storage = createStorage();
+        Jax jax = new Jax(storage);
+        jax.getResponse("todo a");
+        jax.getResponse("todo b");
+        jax.getResponse("todo c");
+        jax.getResponse("delete 1");
+
+        jax.getResponse("mark #3");
+        storage.flush();
+        Storage reloaded = createStorage();
+        new Jax(reloaded).getResponse("mark #2");
+        reloaded.flush();
+
+        assertEquals("Here are the tasks in your list:\n1.[T][X] b\n2.[T][X] c",
+                new Jax(createStorage()).getResponse("list"));
+    }
+
+    @Test
+    public void runBatch_byePrefix_doesNotEndScript() throws Exception {
+        Jax jax = new Jax(createStorage());
+
+        int count = jax.runBatch(new BufferedReader(new StringReader("todo a\nb\ntodo b\nBYE\ntodo c\n")),
+                new StringWriter());
+
+        assertEquals(3, count);
+        assertNull(jax.getCommandName(" b "));
+        assertNull(jax.getCommandName("cl"));
+        assertEquals("bye", jax.getCommandName(" bye "));
+        assertEquals("Error - Type bye in full to use it.", jax.getResponse("b"));
+    }
+}
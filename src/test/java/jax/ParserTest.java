@@ -2,32 +2,52 @@ package jax;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.junit.jupiter.api.Assertions.fail;
 
 import org.junit.jupiter.api.Test;
 
-import jax.command.Command;
 import jax.contact.Contact;
 import jax.main.JaxException;
+import jax.main.ParsedCommand;
 import jax.main.Parser;
 
 public class ParserTest {
 
     @Test
-    public void parseCommand_validInput() throws JaxException {
-        assertEquals(Command.LIST, Parser.parseCommand("list"));
+    public void parse_reusedView_tracksLatestLine() throws JaxException {
+        ParsedCommand parsed = new ParsedCommand();
 
-        assertEquals(Command.TODO, Parser.parseCommand("todo read book"));
+        Parser.parse("MARK #12", parsed);
+        assertEquals("MARK", parsed.getCommandWord());
+        assertEquals(12, parsed.parseIntArgument(1));
+
+        Parser.parse("list", parsed);
+        assertEquals("list", parsed.getCommandWord());
+        assertEquals(null, parsed.getArguments());
+    }
+
+    @Test
+    public void parseEvent_repeatedDelimiter_usesFirstSegment() throws JaxException {
+        String[] input = {"event", "talk /from 2024-03-01 1400 /to 2024-03-01 1600 /to ignored"};
+
+        assertEquals("[E][ ] talk (from: Mar 01 2024, 2:00pm to: Mar 01 2024, 4:00pm)",
+                Parser.parseEvent(input).toString());
     }
 
     @Test
-    public void parseCommand_invalidInputException() {
-        try {
-            Parser.parseCommand("blah");
-            fail();
-        } catch (JaxException e) {
-            assertEquals("Error - Invalid Input.", e.getMessage());
-        }
+    public void parseRecurring_untilOrTimes_endsSeries() throws JaxException {
+        ParsedCommand parsed = new ParsedCommand();
+
+        Parser.parse("recur gym /from 2024-03-01 0700 /to 2024-03-01 0800 /every day /until 2024-03-05", parsed);
+        assertEquals("[R][ ] gym (every day from: Mar 01 2024, 7:00am to: Mar 01 2024, 8:00am, until 2024-03-05)",
+                Parser.parseRecurring(parsed).toString());
+
+        Parser.parse("recur gym /from 2024-03-01 0700 /to 2024-03-01 0800 /every fortnight", parsed);
+        assertEquals("Error - An event can repeat every day, week or month.",
+                assertThrows(JaxException.class, () -> Parser.parseRecurring(parsed)).getMessage());
+
+        Parser.parse("recur gym /from 2024-03-01 0700 /to 2024-03-01 0800 /every week /times 0", parsed);
+        assertEquals("Error - The number of times must be a positive number.",
+                assertThrows(JaxException.class, () -> Parser.parseRecurring(parsed)).getMessage());
     }
 
     @Test
@@ -0,0 +1,83 @@
+package jax.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import jax.main.JaxException;
+import jax.main.ParsedCommand;
+import jax.main.Parser;
+
+public class CommandRegistryTest {
+
+    private final ParsedCommand parsed = new ParsedCommand();
+
+    private CommandRegistry createRegistry() {
+        CommandRegistry registry = new CommandRegistry();
+        registry.register("deadline", "deadline", input -> "deadline " + input.getArguments());
+        registry.register("delete", "delete", input -> "delete", "rm");
+        registry.register("list", "list", input -> "list");
+        return registry;
+    }
+
+    @Test
+    public void dispatch_exactAliasAndUniquePrefix_resolve() throws JaxException {
+        CommandRegistry registry = createRegistry();
+
+        assertEquals("deadline x", registry.dispatch(Parser.parse("DEADLINE x", parsed)));
+        assertEquals("delete", registry.dispatch(Parser.parse("rm 1", parsed)));
+        assertEquals("deadline y", registry.dispatch(Parser.parse("dea y", parsed)));
+        assertEquals("list", registry.dispatch(Parser.parse("l", parsed)));
+    }
+
+    @Test
+    public void resolveName_aliasOrPrefix_givesCommandName() {
+        CommandRegistry registry = createRegistry();
+
+        assertEquals("delete", registry.resolveName(Parser.parse("rm 1", parsed)));
+        assertEquals("list", registry.resolveName(Parser.parse("LI", parsed)));
+        assertNull(registry.resolveName(Parser.parse("de", parsed)));
+        assertNull(registry.resolveName(Parser.parse("blah", parsed)));
+    }
+
+    @Test
+    public void dispatch_unknownOrAmbiguousWord_returnsError() throws JaxException {
+        CommandRegistry registry = createRegistry();
+
+        assertEquals(CommandRegistry.UNKNOWN_COMMAND, registry.dispatch(Parser.parse("blah", parsed)));
+        assertEquals(CommandRegistry.UNKNOWN_COMMAND, registry.dispatch(Parser.parse(" list", parsed)));
+        assertEquals("Error - Ambiguous command. Did you mean: deadline, delete?",
+                registry.dispatch(Parser.parse("de 1", parsed)));
+    }
+
+    @Test
+    public void registerExact_prefix_notRun() throws JaxException {
+        CommandRegistry registry = createRegistry();
+        registry.registerExact("bye", "bye", input -> "bye");
+        registry.registerExact("clear", "clear", input -> "clear", "cls");
+
+        assertEquals("Error - Type bye in full to use it.", registry.dispatch(Parser.parse("b", parsed)));
+        assertNull(registry.resolveName(Parser.parse("by", parsed)));
+        assertNull(registry.resolveName(Parser.parse("cl", parsed)));
+        assertEquals("bye", registry.resolveName(Parser.parse("BYE", parsed)));
+        assertEquals("clear", registry.dispatch(Parser.parse("cls", parsed)));
+    }
+
+    @Test
+    public void register_duplicateKeyword_rejected() {
+        CommandRegistry registry = createRegistry();
+
+        assertThrows(IllegalArgumentException.class, () -> registry.register("ls", null, input -> "", "list"));
+    }
+
+    @Test
+    public void getStats_countsRuns() throws JaxException {
+        CommandRegistry registry = createRegistry();
+        registry.dispatch(Parser.parse("list", parsed));
+        registry.dispatch(Parser.parse("li", parsed));
+
+        assertEquals(2, registry.getStats().get(2).getCount());
+    }
+}
@@ -0,0 +1,34 @@
+package jax.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketOf_anyValue_fallsWithinBucketBounds() {
+        long[] values = {0, 1, 7, 8, 15, 16, 17, 1000, 123_456_789, Long.MAX_VALUE};
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(value <= LatencyHistogram.upperBoundOf(bucket));
+            assertTrue(bucket == 0 || value > LatencyHistogram.upperBoundOf(bucket - 1));
+        }
+    }
+
+    @Test
+    public void getValueAtPercentile_uniformValues_withinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500_500, histogram.getMean());
+        long median = histogram.getValueAtPercentile(50);
+        assertTrue(median >= 500_000 && median <= 500_000 * 1.125, "median " + median);
+        assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+        assertEquals(0, new LatencyHistogram().getValueAtPercentile(99));
+    }
+}
@@ -0,0 +1,81 @@
+package jax.reminder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import jax.task.Deadline;
+import jax.task.RecurringEvent;
+import jax.task.Task;
+import jax.task.Todo;
+
+public class ReminderSchedulerTest {
+
+    private final BlockingQueue<String> fired = new LinkedBlockingQueue<>();
+
+    @Test
+    public void schedule_deadlines_firesDueOnesInOrderAndSkipsCancelled() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        Deadline later = new Deadline("later", now.plus(300, ChronoUnit.MILLIS));
+        Deadline sooner = new Deadline("sooner", now.plus(100, ChronoUnit.MILLIS));
+        Deadline cancelled = new Deadline("cancelled", now.plus(50, ChronoUnit.MILLIS));
+        Deadline distant = new Deadline("distant", now.plusDays(1));
+
+        try (ReminderScheduler scheduler = withoutLead()) {
+            scheduler.scheduleAll(List.of(later, distant, new Todo("no date")));
+            scheduler.schedule(sooner);
+            scheduler.schedule(cancelled);
+            scheduler.cancel(cancelled);
+            assertEquals(3, scheduler.size());
+
+            assertTrue(fired.poll(5, TimeUnit.SECONDS).endsWith(sooner.toString()));
+            assertTrue(fired.poll(5, TimeUnit.SECONDS).endsWith(later.toString()));
+            assertNull(fired.poll(200, TimeUnit.MILLISECONDS));
+            assertEquals(1, scheduler.size());
+        }
+    }
+
+    @Test
+    public void schedule_doneOrPastTasks_notScheduled() {
+        Task done = new Deadline("done", LocalDateTime.now().plusHours(1));
+        done.markTask();
+
+        try (ReminderScheduler scheduler = new ReminderScheduler(fired::add)) {
+            scheduler.schedule(done);
+            scheduler.schedule(new Deadline("past", LocalDateTime.now().minusHours(1)));
+            assertEquals(0, scheduler.size());
+        }
+    }
+
+    @Test
+    public void schedule_recurringEvent_schedulesNextOccurrenceAfterFiring() throws InterruptedException {
+        LocalDateTime start = LocalDateTime.now().minusDays(1).plus(200, ChronoUnit.MILLIS);
+        RecurringEvent daily = new RecurringEvent("standup", start, start.plusMinutes(15),
+                RecurringEvent.Frequency.DAILY, null, 0);
+
+        try (ReminderScheduler scheduler = withoutLead()) {
+            scheduler.schedule(daily);
+
+            assertTrue(fired.poll(5, TimeUnit.SECONDS).endsWith(daily.toString()));
+            assertEquals(1, scheduler.size());
+        }
+    }
+
+    /**
+     * Returns a scheduler that fires reminders when their tasks fall due, so that tests need not wait for the lead.
+     */
+    private ReminderScheduler withoutLead() {
+        return new ReminderScheduler(fired::add, Duration.ZERO, Clock.systemDefaultZone());
+    }
+}
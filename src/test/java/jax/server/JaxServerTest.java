@@ -0,0 +1,107 @@
+package jax.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class JaxServerTest {
+
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    public void sessions_differentUsers_keepSeparateTasks() throws Exception {
+        try (JaxServer server = start(60_000)) {
+            try (Client alice = new Client(server, "alice"); Client bob = new Client(server, "bob")) {
+                assertTrue(alice.send("todo read book").startsWith("added: [T][ ] read book"));
+                assertEquals("List is empty.", bob.send("list"));
+                assertEquals("Here are the tasks in your list:\n1.[T][ ] read book", alice.send("list"));
+            }
+        }
+    }
+
+    @Test
+    public void evictIdleSessions_afterDisconnect_savesAndReloads() throws Exception {
+        try (JaxServer server = start(0)) {
+            try (Client alice = new Client(server, "alice")) {
+                alice.send("todo read book");
+            }
+            waitForSessionCount(server, 0);
+
+            try (Client alice = new Client(server, "alice")) {
+                assertEquals("Here are the tasks in your list:\n1.[T][ ] read book", alice.send("list"));
+            }
+        }
+    }
+
+    private JaxServer start(long idleTimeoutMillis) throws IOException {
+        JaxServer server = new JaxServer(0, dataDirectory, idleTimeoutMillis);
+        Thread acceptor = new Thread(() -> {
+            try {
+                server.serve();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return server;
+    }
+
+    private static void waitForSessionCount(JaxServer server, int count) throws InterruptedException {
+        for (int i = 0; i < 100 && server.getSessionCount() != count; i++) {
+            server.evictIdleSessions();
+            Thread.sleep(20);
+        }
+        assertEquals(count, server.getSessionCount());
+    }
+
+    /**
+     * Minimal client for the line protocol.
+     */
+    private static class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final PrintWriter out;
+
+        Client(JaxServer server, String user) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            out.println(user);
+            readResponse();
+        }
+
+        String send(String line) throws IOException {
+            out.println(line);
+            return readResponse();
+        }
+
+        private String readResponse() throws IOException {
+            StringBuilder response = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null && !line.isEmpty()) {
+                response.append(response.length() == 0 ? "" : "\n").append(line);
+            }
+            return response.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.println("bye");
+            readResponse();
+            socket.close();
+        }
+    }
+}
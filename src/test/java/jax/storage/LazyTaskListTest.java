@@ -0,0 +1,174 @@
+package jax.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jax.main.JaxException;
+import jax.task.Deadline;
+import jax.task.Event;
+import jax.task.RecurringEvent;
+import jax.task.Task;
+import jax.task.Todo;
+
+public class LazyTaskListTest {
+
+    @TempDir
+    Path dir;
+
+    private static LazyTaskList todos(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        return new LazyTaskList(tasks);
+    }
+
+    @Test
+    public void remove_middleTask_laterTasksShiftAndKeepIds() {
+        LazyTaskList tasks = todos(3);
+
+        Task removed = tasks.remove(1);
+
+        assertEquals("task 2", removed.getDescription());
+        assertEquals(2, tasks.size());
+        assertEquals("task 3", tasks.get(1).getDescription());
+        assertEquals(-1, tasks.indexOfId(2));
+        assertEquals(1, tasks.indexOfId(3));
+    }
+
+    @Test
+    public void restore_removedTask_revivedAtItsPosition() {
+        LazyTaskList tasks = todos(3);
+        Task removed = tasks.remove(1);
+
+        tasks.restore(1, removed);
+
+        assertEquals(3, tasks.size());
+        assertEquals("task 2", tasks.get(1).getDescription());
+        assertEquals(1, tasks.indexOfId(2));
+    }
+
+    @Test
+    public void add_beforeEndAmongTombstones_shiftsLaterTasksOnly() {
+        LazyTaskList tasks = todos(4);
+        tasks.remove(1);
+        assertEquals(2, tasks.indexOfId(4));
+
+        tasks.add(1, new Todo("task 5"));
+
+        assertEquals(4, tasks.size());
+        assertEquals("task 5", tasks.get(1).getDescription());
+        assertEquals("task 3", tasks.get(2).getDescription());
+        assertEquals(1, tasks.indexOfId(5));
+        assertEquals(3, tasks.indexOfId(4));
+        assertEquals(-1, tasks.indexOfId(2));
+    }
+
+    @Test
+    public void remove_pastCompactionThreshold_indexOfIdStillResolves() {
+        LazyTaskList tasks = todos(3000);
+
+        for (int i = 0; i < 2000; i++) {
+            tasks.remove(0);
+        }
+
+        assertEquals(1000, tasks.size());
+        assertEquals("task 2001", tasks.get(0).getDescription());
+        assertEquals(0, tasks.indexOfId(2001));
+        assertEquals(999, tasks.indexOfId(3000));
+        assertEquals(-1, tasks.indexOfId(1500));
+        tasks.add(new Todo("task 3001"));
+        assertEquals(3001, tasks.get(1000).getId());
+        assertEquals(1000, tasks.indexOfId(3001));
+    }
+
+    @Test
+    public void indexOfId_afterSaveAndReload_findsUndecodedTasks() throws JaxException {
+        String path = dir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(path, dir.resolve("contacts.txt").toString());
+        LazyTaskList tasks = todos(5);
+        tasks.remove(2);
+        storage.saveTasks(tasks);
+
+        LazyTaskList loaded = (LazyTaskList) new Storage(path, dir.resolve("contacts.txt").toString()).loadTasks();
+
+        assertEquals(4, loaded.size());
+        assertEquals(2, loaded.indexOfId(4));
+        assertEquals(-1, loaded.indexOfId(3));
+        assertEquals(6, loaded.getNextId());
+        assertEquals("task 4", loaded.get(2).getDescription());
+    }
+
+    @Test
+    public void set_replacedTask_oldIdNoLongerFound() {
+        LazyTaskList tasks = todos(2);
+        assertEquals(1, tasks.indexOfId(2));
+
+        Task replaced = tasks.set(1, new Todo("other"));
+
+        assertEquals(2, replaced.getId());
+        assertEquals(-1, tasks.indexOfId(2));
+        assertEquals(1, tasks.indexOfId(tasks.get(1).getId()));
+    }
+
+    @Test
+    public void rawSlot_decodedTask_notCopiedRaw() throws JaxException {
+        String path = dir.resolve("tasks.txt").toString();
+        new Storage(path, dir.resolve("contacts.txt").toString()).saveTasks(todos(2));
+        LazyTaskList loaded = (LazyTaskList) new Storage(path, dir.resolve("contacts.txt").toString()).loadTasks();
+
+        loaded.get(0);
+
+        assertEquals(-1, loaded.rawSlot(0));
+        assertEquals(1, loaded.rawSlot(1));
+        assertNull(todos(1).getFile());
+    }
+
+    @Test
+    public void mayFallDueAfter_reloadedList_skipsDonePastAndUndatedUndecoded() throws JaxException {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 2, 9, 0);
+        Task done = new Event("camp", now.plusDays(1), now.plusDays(2));
+        done.markTask();
+        String path = dir.resolve("tasks.txt").toString();
+        new Storage(path, dir.resolve("contacts.txt").toString()).saveTasks(List.of(new Todo("read book"),
+                new Deadline("past", now.minusMinutes(1)), new Deadline("soon", now.plusHours(1)), done,
+                new RecurringEvent("walk", now.minusYears(1), now.minusYears(1).plusHours(1),
+                        RecurringEvent.Frequency.DAILY, null, 0)));
+        LazyTaskList loaded = (LazyTaskList) new Storage(path, dir.resolve("contacts.txt").toString()).loadTasks();
+
+        List<Task> found = loaded.mayFallDueAfter(now);
+
+        assertEquals(2, found.size());
+        assertEquals("soon", found.get(0).getDescription());
+        assertEquals("walk", found.get(1).getDescription());
+        assertEquals(0, loaded.rawSlot(0));
+        assertEquals(1, loaded.rawSlot(1));
+        assertEquals(3, loaded.rawSlot(3));
+    }
+
+    @Test
+    public void forEachUnretained_reloadedList_leavesUndecodedTasksInFile() throws JaxException {
+        String path = dir.resolve("tasks.txt").toString();
+        new Storage(path, dir.resolve("contacts.txt").toString()).saveTasks(todos(3));
+        LazyTaskList loaded = (LazyTaskList) new Storage(path, dir.resolve("contacts.txt").toString()).loadTasks();
+        Task first = loaded.get(0);
+        loaded.remove(1);
+        List<Task> visited = new ArrayList<>();
+
+        loaded.forEachUnretained(visited::add);
+
+        assertEquals(2, visited.size());
+        assertSame(first, visited.get(0));
+        assertEquals("task 3", visited.get(1).getDescription());
+        assertEquals(2, loaded.rawSlot(1));
+    }
+}
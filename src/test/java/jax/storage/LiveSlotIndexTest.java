@@ -0,0 +1,64 @@
+package jax.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class LiveSlotIndexTest {
+
+    @Test
+    public void selectAndRank_afterKillsAndRevives_matchLiveSlots() {
+        LiveSlotIndex index = new LiveSlotIndex(50);
+        for (int i = 0; i < 20; i++) {
+            index.append();
+        }
+        for (int slot = 0; slot < 70; slot += 3) {
+            index.kill(slot);
+        }
+        index.revive(30);
+
+        List<Integer> live = new ArrayList<>();
+        for (int slot = 0; slot < 70; slot++) {
+            if (!index.isDead(slot)) {
+                live.add(slot);
+            }
+        }
+        assertEquals(live.size(), index.getLiveCount());
+        assertEquals(70 - live.size(), index.getDeadCount());
+        for (int position = 0; position < live.size(); position++) {
+            assertEquals((int) live.get(position), index.select(position));
+            assertEquals(position, index.rank(live.get(position)));
+        }
+    }
+
+    @Test
+    public void insert_beforeTombstones_movesThemUp() {
+        LiveSlotIndex index = new LiveSlotIndex(16);
+        index.kill(3);
+        index.kill(15);
+
+        index.insert(2);
+
+        assertEquals(17, index.getLiveCount() + index.getDeadCount());
+        assertEquals(15, index.getLiveCount());
+        assertTrue(index.isDead(4) && index.isDead(16) && !index.isDead(3));
+        assertEquals(2, index.select(2));
+        assertEquals(5, index.select(4));
+    }
+
+    @Test
+    public void copy_laterKill_leavesCopyUnchanged() {
+        LiveSlotIndex index = new LiveSlotIndex(4);
+        LiveSlotIndex copy = index.copy();
+
+        index.kill(1);
+
+        assertEquals(3, index.getLiveCount());
+        assertEquals(4, copy.getLiveCount());
+        assertEquals(1, copy.select(1));
+    }
+}
@@ -0,0 +1,111 @@
+package jax.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jax.main.JaxException;
+import jax.task.Deadline;
+import jax.task.Event;
+import jax.task.RecurringEvent;
+import jax.task.Task;
+import jax.task.Todo;
+
+public class TaskCodecTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2026, 3, 2, 9, 30);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void writeTask_everyType_decodesToEqualTask() throws IOException {
+        Task done = new Deadline("return book", TIME);
+        done.markTask();
+        List<Task> originals = List.of(new Todo("read book"), done, new Event("camp", TIME, TIME.plusDays(2)),
+                new RecurringEvent("standup", TIME, TIME.plusMinutes(15), RecurringEvent.Frequency.WEEKLY,
+                        LocalDate.of(2026, 6, 1), 0),
+                new RecurringEvent("rent", TIME, TIME, RecurringEvent.Frequency.MONTHLY, null, 12));
+
+        int id = 1;
+        for (Task original : originals) {
+            original.setId(id++);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (BinaryWriter out = new BinaryWriter(Channels.newChannel(bytes))) {
+                TaskCodec.writeTask(out, original);
+            }
+            Task decoded = TaskCodec.readTask(new BinaryReader(ByteBuffer.wrap(bytes.toByteArray())),
+                    TaskCodec.VERSION);
+
+            assertEquals(original.toString(), decoded.toString());
+            assertEquals(original.getId(), decoded.getId());
+        }
+    }
+
+    @Test
+    public void loadTasks_versionTwoFileWithHeaderlessJournal_readAndMigrated() throws IOException, JaxException {
+        Path tasksFile = dir.resolve("tasks.txt");
+        Path journalFile = dir.resolve("tasks.txt.journal");
+        write(tasksFile, out -> {
+            out.putInt(TaskCodec.TASKS_MAGIC);
+            out.putByte(2);
+            out.putInt(1);
+            out.putByte('T');
+            out.putByte(0);
+            out.putString("read book");
+            out.putLong(0);
+            out.putLong(out.getBytesWritten() - Long.BYTES);
+        });
+        // A journal as written by the same build: no header, and version 2 records without IDs.
+        write(journalFile, out -> {
+            out.putByte(TaskJournal.Op.ADD.ordinal());
+            out.putInt(1);
+            out.putByte('D');
+            out.putByte(1);
+            out.putString("return book");
+            out.putLong(TIME.toEpochSecond(ZoneOffset.UTC) / 60);
+            out.putByte(TaskJournal.Op.MARK.ordinal());
+            out.putInt(0);
+        });
+        String[] expected = {"[T][X] read book", new Deadline("return book", TIME).toString().replace("[ ]", "[X]")};
+
+        List<Task> loaded = newStorage().loadTasks();
+
+        assertEquals(List.of(expected), loaded.stream().map(Task::toString).toList());
+        assertFalse(Files.exists(journalFile));
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(tasksFile));
+        assertEquals(TaskCodec.TASKS_MAGIC, header.getInt());
+        assertEquals(TaskCodec.VERSION, header.get());
+        assertEquals(List.of(expected), newStorage().loadTasks().stream().map(Task::toString).toList());
+    }
+
+    private Storage newStorage() {
+        return new Storage(dir.resolve("tasks.txt").toString(), dir.resolve("contacts.txt").toString());
+    }
+
+    private interface Body {
+        void writeTo(BinaryWriter out) throws IOException;
+    }
+
+    private static void write(Path path, Body body) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                BinaryWriter out = new BinaryWriter(channel)) {
+            body.writeTo(out);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package jax.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskIdMapTest {
+
+    @Test
+    public void put_manyIds_eachFoundAfterGrowing() {
+        TaskIdMap map = new TaskIdMap(4);
+
+        for (int id = 1; id <= 1000; id++) {
+            map.put(id, id * 2);
+        }
+
+        for (int id = 1; id <= 1000; id++) {
+            assertEquals(id * 2, map.get(id));
+        }
+        assertEquals(-1, map.get(1001));
+    }
+
+    @Test
+    public void remove_everyOtherId_restStillFound() {
+        TaskIdMap map = new TaskIdMap(16);
+        for (int id = 1; id <= 500; id++) {
+            map.put(id, id);
+        }
+
+        for (int id = 1; id <= 500; id += 2) {
+            map.remove(id);
+        }
+
+        for (int id = 1; id <= 500; id++) {
+            assertEquals(id % 2 == 0 ? id : -1, map.get(id));
+        }
+        map.remove(1000);
+        map.put(1, 7);
+        assertEquals(7, map.get(1));
+    }
+}
@@ -1,6 +1,9 @@
 package jax.task;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
 
 import org.junit.jupiter.api.Test;
 
@@ -10,4 +13,13 @@ public class DeadlineTest {
         Deadline deadline = new Deadline("read book", "2019-10-15 1800");
         assertEquals("[D][ ] read book (by: Oct 15 2019, 6:00pm)", deadline.toString());
     }
+
+    @Test
+    public void getNextDueAfter_beforeAndAfterDue_dueTimeThenNull() {
+        Deadline deadline = new Deadline("read book", "2019-10-15 1800");
+
+        assertEquals(LocalDateTime.of(2019, 10, 15, 18, 0),
+                deadline.getNextDueAfter(LocalDateTime.of(2019, 10, 15, 17, 59)));
+        assertNull(deadline.getNextDueAfter(LocalDateTime.of(2019, 10, 15, 18, 0)));
+    }
 }
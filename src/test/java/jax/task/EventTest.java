@@ -0,0 +1,25 @@
+package jax.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+public class EventTest {
+    @Test
+    public void getNextDueAfter_beforeAndDuringEvent_startThenNull() {
+        LocalDateTime from = LocalDateTime.of(2024, 3, 2, 9, 0);
+        Event camp = new Event("camp", from, from.plusDays(2));
+
+        assertEquals(from, camp.getNextDueAfter(from.minusMinutes(1)));
+        assertNull(camp.getNextDueAfter(from));
+        assertNull(camp.getNextDueAfter(from.plusDays(1)));
+    }
+
+    @Test
+    public void getNextDueAfter_todo_neverDue() {
+        assertNull(new Todo("read book").getNextDueAfter(LocalDateTime.of(2024, 3, 2, 9, 0)));
+    }
+}
@@ -0,0 +1,64 @@
+package jax.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+public class RecurringEventTest {
+
+    @Test
+    public void occursOn_weeklyWithCount_stopsAfterLastOccurrence() {
+        RecurringEvent standup = new RecurringEvent("standup", LocalDateTime.of(2024, 1, 1, 9, 0),
+                LocalDateTime.of(2024, 1, 1, 9, 30), RecurringEvent.Frequency.WEEKLY, null, 3);
+
+        assertTrue(standup.occursOn(LocalDate.of(2024, 1, 15)));
+        assertFalse(standup.occursOn(LocalDate.of(2024, 1, 16)));
+        assertFalse(standup.occursOn(LocalDate.of(2024, 1, 22)));
+        assertEquals(LocalDateTime.of(2024, 1, 8, 9, 0), standup.nextOccurrence(LocalDate.of(2024, 1, 2)));
+        assertNull(standup.nextOccurrence(LocalDate.of(2024, 1, 16)));
+        assertEquals(LocalDate.of(2024, 1, 15), standup.getEndDate());
+        assertEquals("[R][ ] standup (every week from: Jan 01 2024, 9:00am to: Jan 01 2024, 9:30am, 3 times)",
+                standup.toString());
+    }
+
+    @Test
+    public void occursOn_monthlyOnThe31st_returnsAfterShortMonths() {
+        RecurringEvent billing = new RecurringEvent("billing", LocalDateTime.of(2024, 1, 31, 10, 0),
+                LocalDateTime.of(2024, 1, 31, 11, 0), RecurringEvent.Frequency.MONTHLY,
+                LocalDate.of(2024, 12, 31), 0);
+
+        assertTrue(billing.occursOn(LocalDate.of(2024, 2, 29)));
+        assertTrue(billing.occursOn(LocalDate.of(2024, 3, 31)));
+        assertFalse(billing.occursOn(LocalDate.of(2024, 3, 29)));
+        assertTrue(billing.occursBetween(LocalDate.of(2024, 4, 1), LocalDate.of(2024, 4, 30)));
+        assertNull(billing.nextOccurrence(LocalDate.of(2025, 1, 1)));
+        assertEquals(LocalDate.of(2024, 12, 31), billing.getEndDate());
+    }
+
+    @Test
+    public void nextOccurrence_unboundedDaily_computedWithoutExpanding() {
+        RecurringEvent walk = new RecurringEvent("walk", LocalDateTime.of(2000, 1, 1, 7, 0),
+                LocalDateTime.of(2000, 1, 1, 8, 0), RecurringEvent.Frequency.DAILY, null, 0);
+
+        assertEquals(LocalDateTime.of(2999, 6, 1, 7, 0), walk.nextOccurrence(LocalDate.of(2999, 6, 1)));
+        assertEquals(LocalDate.MAX, walk.getEndDate());
+        assertFalse(walk.occursOn(LocalDate.of(1999, 12, 31)));
+    }
+
+    @Test
+    public void getNextDueAfter_weeklyWithCount_nextStartUntilSeriesEnds() {
+        RecurringEvent standup = new RecurringEvent("standup", LocalDateTime.of(2024, 1, 1, 9, 0),
+                LocalDateTime.of(2024, 1, 1, 9, 30), RecurringEvent.Frequency.WEEKLY, null, 3);
+
+        assertEquals(LocalDateTime.of(2024, 1, 1, 9, 0), standup.getNextDueAfter(LocalDateTime.of(2023, 6, 1, 0, 0)));
+        assertEquals(LocalDateTime.of(2024, 1, 8, 9, 0), standup.getNextDueAfter(LocalDateTime.of(2024, 1, 1, 9, 0)));
+        assertEquals(LocalDateTime.of(2024, 1, 15, 9, 0), standup.getNextDueAfter(LocalDateTime.of(2024, 1, 9, 0, 0)));
+        assertNull(standup.getNextDueAfter(LocalDateTime.of(2024, 1, 15, 9, 0)));
+    }
+}
@@ -1,19 +1,57 @@
 package jax.task;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import jax.contact.Contact;
 import jax.main.JaxException;
 import jax.storage.Storage;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class StorageTest {
+
+    @TempDir
+    Path dir;
+
+    /** Opens the save files in the test's folder, as a fresh start of the program would. */
+    private Storage open() {
+        return open(dir);
+    }
+
+    private static Storage open(Path folder) {
+        return new Storage(folder.resolve("tasks.txt").toString(), folder.resolve("contacts.txt").toString());
+    }
+
+    private Path tasksFile() {
+        return dir.resolve("tasks.txt");
+    }
+
+    /**
+     * Saves one task and then two, so that the backup holds the first save.
+     */
+    private void saveTwice() throws JaxException {
+        Storage storage = open();
+        TaskList tasks = new TaskList(storage);
+        tasks.insertTask(new Todo("read book"));
+        storage.saveTasks(tasks.getTasks());
+        tasks.insertTask(new Todo("return book"));
+        storage.saveTasks(tasks.getTasks());
+    }
+
     @Test
     public void storage_saveAndLoadContacts_integrityMaintained() throws JaxException {
-        Storage storage = new Storage("test_tasks.txt", "test_contacts.txt");
+        Storage storage = open();
         HashMap<String, Contact> original = new HashMap<>();
         original.put("Alice", new Contact("Alice", "123", "alice@test.com"));
 
@@ -22,8 +60,125 @@ public class StorageTest {
 
         assertEquals(original.size(), loaded.size());
         assertEquals(original.get("Alice").getPhoneNumber(), loaded.get("Alice").getPhoneNumber());
+    }
+
+    @Test
+    public void storage_journalReplay_rebuildsTaskList() throws JaxException {
+        Storage storage = open();
+        TaskList tasks = new TaskList(storage);
+        tasks.insertTask(new Todo("read book"));
+        tasks.insertTask(new Todo("return book"));
+        tasks.markTask(1);
+        tasks.deleteTask(0);
+        storage.flush();
+
+        List<Task> loaded = open().loadTasks();
+
+        assertEquals(1, loaded.size());
+        assertEquals("[T][X] return book", loaded.get(0).toString());
+    }
+
+    @Test
+    public void storage_journalLeftBehindBySnapshot_notReplayedTwice() throws JaxException, IOException {
+        Storage storage = open();
+        TaskList tasks = new TaskList(storage);
+        tasks.insertTask(new Todo("read book"));
+        tasks.insertTask(new Todo("return book"));
+        storage.flush();
+        Path journalFile = dir.resolve("tasks.txt.journal");
+        byte[] journal = Files.readAllBytes(journalFile);
+        tasks.deleteTask(0);
+        storage.saveTasks(tasks.getTasks());
+        // As if the program stopped after the snapshot was renamed into place but before the journal was cleared.
+        Files.write(journalFile, journal);
+
+        List<Task> loaded = open().loadTasks();
+
+        assertEquals(1, loaded.size());
+        assertEquals("[T][ ] return book", loaded.get(0).toString());
+    }
+
+    @Test
+    public void storage_recurringEvent_ruleSurvivesReload() throws JaxException {
+        RecurringEvent original = new RecurringEvent("rent", LocalDateTime.of(2024, 1, 31, 9, 0),
+                LocalDateTime.of(2024, 1, 31, 9, 15), RecurringEvent.Frequency.MONTHLY, LocalDate.of(2024, 6, 30), 0);
+        open().saveTasks(List.of(original));
+
+        List<Task> loaded = open().loadTasks();
+
+        assertEquals(original.toString(), loaded.get(0).toString());
+        assertEquals(LocalDate.of(2024, 6, 30), loaded.get(0).getEndDate());
+    }
+
+    @Test
+    public void storage_corruptedSaveFile_fallsBackToBackup() throws JaxException, IOException {
+        saveTwice();
+
+        Files.write(tasksFile(), new byte[] {1, 2, 3});
+        List<Task> loaded = open().loadTasks();
+
+        assertEquals(1, loaded.size());
+        assertEquals("[T][ ] read book", loaded.get(0).toString());
+    }
+
+    @Test
+    public void storage_damagedRecord_fallsBackToBackup() throws JaxException, IOException {
+        saveTwice();
+
+        byte[] bytes = Files.readAllBytes(tasksFile());
+        int at = new String(bytes, StandardCharsets.ISO_8859_1).indexOf("return book");
+        bytes[at] = 'R';
+        Files.write(tasksFile(), bytes);
+        List<Task> loaded = open().loadTasks();
+
+        assertEquals(1, loaded.size());
+        assertEquals("[T][ ] read book", loaded.get(0).toString());
+    }
+
+    @Test
+    public void storage_saveOverMappedFile_undecodedTasksStillRead() throws JaxException {
+        open().saveTasks(List.of(new Todo("read book"), new Todo("return book"), new Todo("buy book")));
+
+        Storage reloaded = open();
+        List<Task> loaded = reloaded.loadTasks();
+        loaded.remove(1);
+        reloaded.saveTasks(loaded);
+        loaded.add(new Todo("sell book"));
+        reloaded.saveTasks(loaded);
+
+        assertEquals("[T][ ] read book", loaded.get(0).toString());
+        assertEquals("[T][ ] buy book", loaded.get(1).toString());
+        assertEquals(3, open().loadTasks().size());
+    }
+
+    @Test
+    public void storage_failedWrite_retriedByNextFlush() throws JaxException, IOException {
+        Path missing = dir.resolve("missing");
+        Storage storage = open(missing);
+        assertThrows(JaxException.class, () -> storage.saveTasks(List.of(new Todo("read book"))));
+
+        Files.createDirectory(missing);
+        storage.flush();
+        List<Task> loaded = open(missing).loadTasks();
+
+        assertEquals(1, loaded.size());
+        assertEquals("[T][ ] read book", loaded.get(0).toString());
+    }
+
+    @Test
+    public void storage_failedBackgroundWrite_notReportedToNextChange() throws Exception {
+        Path missing = dir.resolve("missing");
+        Storage storage = open(missing);
+        TaskList tasks = new TaskList(storage);
+        tasks.insertTask(new Todo("read book"));
+        // Long enough for the background write to have been tried and failed.
+        Thread.sleep(1000);
+
+        tasks.insertTask(new Todo("return book"));
+        assertThrows(JaxException.class, storage::flush);
+        Files.createDirectory(missing);
+        storage.flush();
 
-        new java.io.File("test_tasks.txt").delete();
-        new java.io.File("test_contacts.txt").delete();
+        assertEquals(2, open(missing).loadTasks().size());
     }
 }
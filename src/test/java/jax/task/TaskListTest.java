@@ -0,0 +1,298 @@
+package jax.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import jax.main.JaxException;
+import jax.storage.Durability;
+import jax.storage.Storage;
+
+public class TaskListTest {
+
+    private final Storage storage = new Storage("test_tasks.txt", "test_contacts.txt");
+
+    @AfterEach
+    public void cleanUp() throws JaxException {
+        storage.flush();
+        new java.io.File("test_tasks.txt").delete();
+        new java.io.File("test_tasks.txt.bak").delete();
+        new java.io.File("test_tasks.txt.journal").delete();
+    }
+
+    @Test
+    public void findTasks_indexedKeyword_matchesCaseInsensitiveSubstring() throws JaxException {
+        TaskList tasks = new TaskList(storage);
+        tasks.insertTask(new Todo("Read Book"));
+        tasks.insertTask(new Todo("return phone"));
+        tasks.findTasks("book");
+        tasks.insertTask(new Todo("bookkeeping"));
+
+        assertEquals("Here are the matching tasks in your list:\n1.[T][ ] Read Book\n2.[T][ ] bookkeeping",
+                tasks.findTasks("BOOK"));
+    }
+
+    @Test
+    public void findTasks_afterDeletingIndexedTask_restStillInListOrder() throws JaxException {
+        TaskList tasks = new TaskList(storage);
+        tasks.insertTask(new Todo("book flight"));
+        tasks.insertTask(new Todo("book hotel"));
+        tasks.insertTask(new Todo("book taxi"));
+        tasks.findTasks("book");
+
+        tasks.deleteTask(1);
+
+        assertEquals("Here are the matching tasks in your list:\n1.[T][ ] book flight\n2.[T][ ] book taxi",
+                tasks.findTasks("book"));
+    }
+
+    @Test
+    public void findTasks_afterUndoingDeleteBeforeEnd_keepsListOrder() throws JaxException {
+        TaskList tasks = new TaskList(storage);
+        tasks.insertTask(new Todo("book flight"));
+        tasks.insertTask(new Todo("book hotel"));
+        tasks.insertTask(new Todo("book taxi"));
+        tasks.findTasks("book");
+        tasks.deleteTask(0);
+
+        tasks.undo();
+
+        assertEquals("Here are the matching tasks in your list:\n1.[T][ ] book flight\n2.[T][ ] book hotel"
+                + "\n3.[T][ ] book taxi", tasks.findTasks("book"));
+    }
+
+    @Test
+    public void findTasks_cancelledWhileScanning_reportsCancellation() throws Exception {
+        List<Task> todos = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            todos.add(new Todo("task " + i));
+        }
+        TaskList tasks = new TaskList(todos, storage);
+        AtomicBoolean isSearching = new AtomicBoolean(true);
+        Thread canceller = new Thread(() -> {
+            while (isSearching.get()) {
+                tasks.cancelScans();
+            }
+        });
+        canceller.start();
+        try {
+            JaxException e = assertThrows(JaxException.class, () -> tasks.findTasks("zz"));
+            assertEquals(TaskList.CANCELLED_MESSAGE, e.getMessage());
+        } finally {
+            isSearching.set(false);
+            canceller.join();
+        }
+
+        assertEquals("No tasks found with this keyword.", tasks.findTasks("zz"));
+    }
+
+    @Test
+    public void printTasksByDate_dateRange_listsOverlappingTasksByStartDate() throws JaxException {
+        TaskList tasks = new TaskList(storage);
+        tasks.insertTask(new Deadline("submit report", "2024-01-08 1000"));
+        tasks.insertTask(new Event("conference", "2024-01-01 0900", "2024-01-05 1700"));
+        tasks.insertTask(new Deadline("pay rent", "2024-01-02 0900"));
+
+        assertEquals("Reminders for 2024-01-05 to 2024-01-09:\n"
+                + "1.[E][ ] conference (from: Jan 01 2024, 9:00am to: Jan 05 2024, 5:00pm)\n"
+                + "2.[D][ ] submit report (by: Jan 08 2024, 10:00am)",
+                tasks.printTasksByDate(new String[] {"remind", "2024-01-05 2024-01-09"}));
+    }
+
+    @Test
+    public void printTasksByDate_recurringEvent_listedByNextOccurrence() throws JaxException {
+        TaskList tasks = new TaskList(storage);
+        tasks.insertTask(new Deadline("submit report", "2024-01-10 1000"));
+        tasks.insertTask(new RecurringEvent("standup", LocalDateTime.of(2024, 1, 1, 9, 0),
+                LocalDateTime.of(2024, 1, 1, 9, 30), RecurringEvent.Frequency.WEEKLY, null, 4));
+
+        assertEquals("Reminders for 2024-01-09 to 2024-01-16:\n"
+                + "1.[D][ ] submit report (by: Jan 10 2024, 10:00am)\n"
+                + "2.[R][ ] standup (every week from: Jan 01 2024, 9:00am to: Jan 01 2024, 9:30am, 4 times)",
+                tasks.printTasksByDate(new String[] {"remind", "2024-01-09 2024-01-16"}));
+        assertEquals("No tasks found on this date.",
+                tasks.printTasksByDate(new String[] {"remind", "2024-01-29"}));
+    }
+
+    @Test
+    public void printTasks_page_showsRangeAndHint() throws JaxException {
+        TaskList tasks = new TaskList(storage);
+        for (int i = 1; i <= 5; i++) {
+            tasks.insertTask(new Todo("task " + i));
+        }
+
+        assertEquals("Here are tasks 3-4 of 5:\n3.[T][ ] task 3\n4.[T][ ] task 4\nType \"list next\" to see more.",
+                tasks.printTasks(2, 2));
+        assertEquals("Here are tasks 5-5 of 5:\n5.[T][ ] task 5", tasks.printTasks(4, 2));
+        assertEquals(tasks.printTasks(), tasks.printTasks(0, 5));
+        assertThrows(JaxException.class, () -> tasks.printTasks(5, 2));
+    }
+
+    @Test
+    public void bulkMarkAndDelete_rangesAndDone_persistOnce() throws JaxException {
+        storage.setDurability(Durability.NONE);
+        TaskList tasks = new TaskList(storage);
+        for (int i = 1; i <= 10; i++) {
+            tasks.insertTask(new Todo("task " + i));
+        }
+
+        assertEquals("Marked 3 of 3 selected tasks as done.",
+                tasks.markTasks(TaskSelection.ofRanges(new int[] {1, 4}, new int[] {2, 4})));
+        tasks.findTasks("task");
+        String response = tasks.deleteTasks(TaskSelection.ofDoneTasks());
+
+        assertTrue(response.startsWith("Noted. I've removed 3 tasks:\n  [T][X] task 1\n"), response);
+        assertTrue(response.endsWith("Now you have 7 tasks in the list."), response);
+        assertEquals("Here are the matching tasks in your list:\n1.[T][ ] task 3", tasks.findTasks("task 3"));
+        assertThrows(JaxException.class, () -> tasks.deleteTasks(TaskSelection.ofRanges(new int[] {5}, new int[] {8})));
+        storage.flush();
+        assertEquals(7, new Storage("test_tasks.txt", "test_contacts.txt").loadTasks().size());
+    }
+
+    @Test
+    public void undoRedo_deleteAndMark_restoresPositionsAndPersists() throws JaxException {
+        storage.setDurability(Durability.NONE);
+        TaskList tasks = new TaskList(storage);
+        for (int i = 1; i <= 5; i++) {
+            tasks.insertTask(new Todo("task " + i));
+        }
+        String original = tasks.printTasks();
+        tasks.findTasks("task");
+        tasks.deleteTasks(TaskSelection.ofRanges(new int[] {2}, new int[] {3}));
+        tasks.markTask(0);
+
+        assertEquals("Undone: marked [T][ ] task 1 as done\nNow you have 3 tasks in the list.", tasks.undo());
+        assertEquals("Undone: deleted 2 tasks\nNow you have 5 tasks in the list.", tasks.undo());
+        assertEquals(original, tasks.printTasks());
+        assertEquals("Here are the matching tasks in your list:\n1.[T][ ] task 1\n2.[T][ ] task 2\n"
+                + "3.[T][ ] task 3\n4.[T][ ] task 4\n5.[T][ ] task 5", tasks.findTasks("task"));
+
+        assertEquals("Redone: deleted 2 tasks\nNow you have 3 tasks in the list.", tasks.redo());
+        tasks.undo();
+        tasks.deleteTask(4);
+        assertThrows(JaxException.class, tasks::redo);
+        storage.flush();
+        assertEquals(tasks.printTasks(),
+                new TaskList(new Storage("test_tasks.txt", "test_contacts.txt").loadTasks(), storage).printTasks());
+
+        for (int i = 0; i < 6; i++) {
+            tasks.undo();
+        }
+        assertEquals("Error - Nothing to undo.", assertThrows(JaxException.class, tasks::undo).getMessage());
+        assertEquals("List is empty.", tasks.printTasks());
+    }
+
+    @Test
+    public void concurrentWritersAndReaders_noUpdatesLost() throws Exception {
+        storage.setDurability(Durability.NONE);
+        TaskList tasks = new TaskList(storage);
+        int writerCount = 8;
+        int tasksPerWriter = 250;
+        ExecutorService pool = Executors.newFixedThreadPool(writerCount + 2);
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < writerCount; w++) {
+            int writer = w;
+            writers.add(pool.submit(() -> {
+                for (int i = 0; i < tasksPerWriter; i++) {
+                    Todo todo = new Todo("writer" + writer + " task " + i);
+                    tasks.insertTask(todo);
+                    tasks.markTask(tasks.indexOfId(todo.getId()));
+                }
+                return null;
+            }));
+        }
+        List<Future<?>> readers = new ArrayList<>();
+        for (int r = 0; r < 2; r++) {
+            readers.add(pool.submit(() -> {
+                while (isWriting.get()) {
+                    tasks.printTasks();
+                    tasks.findTasks("task");
+                    tasks.findTasks("k");
+                }
+                return null;
+            }));
+        }
+
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        isWriting.set(false);
+        for (Future<?> reader : readers) {
+            reader.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(writerCount * tasksPerWriter, tasks.getTasks().size());
+        assertTrue(tasks.getTasks().stream().allMatch(Task::isDone));
+        assertEquals(writerCount * tasksPerWriter, tasks.findTasks("task").split("\n").length - 1);
+
+        storage.flush();
+        List<Task> reloaded = new Storage("test_tasks.txt", "test_contacts.txt").loadTasks();
+        assertEquals(writerCount * tasksPerWriter, reloaded.size());
+        assertTrue(reloaded.stream().allMatch(Task::isDone));
+    }
+
+    @Test
+    public void firstLookupsRacingWriters_idMapAndKeywordIndexMissNothing() throws Exception {
+        storage.setDurability(Durability.NONE);
+        for (int trial = 0; trial < 5; trial++) {
+            List<Task> initial = new ArrayList<>();
+            for (int i = 0; i < 20_000; i++) {
+                initial.add(new Todo("abc " + i));
+            }
+            TaskList tasks = new TaskList(initial, storage);
+            int lastId = initial.get(initial.size() - 1).getId();
+            ExecutorService pool = Executors.newFixedThreadPool(3);
+            CountDownLatch start = new CountDownLatch(1);
+
+            List<Future<?>> futures = new ArrayList<>();
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 500; i++) {
+                    tasks.insertTask(new Todo("abc new " + i));
+                    tasks.deleteTask(0);
+                }
+                return null;
+            }));
+            futures.add(pool.submit(() -> {
+                start.await();
+                return tasks.findTasks("abc");
+            }));
+            futures.add(pool.submit(() -> {
+                start.await();
+                return tasks.indexOfId(lastId);
+            }));
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            assertTrue((Integer) futures.get(2).get() >= 0);
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+            List<Task> all = tasks.getTasks();
+            for (int i = 0; i < all.size(); i++) {
+                assertEquals(i, tasks.indexOfId(all.get(i).getId()));
+            }
+            assertEquals(all.size(), tasks.findTasks("abc").split("\n").length - 1);
+            tasks.markTask(tasks.indexOfId(lastId));
+            assertTrue(all.get(all.size() - 501).isDone());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package jax.transfer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jax.contact.Contact;
+import jax.contact.ContactList;
+import jax.main.JaxException;
+import jax.storage.Storage;
+import jax.task.Deadline;
+import jax.task.Event;
+import jax.task.RecurringEvent;
+import jax.task.Task;
+import jax.task.TaskList;
+import jax.task.Todo;
+
+public class DataTransferTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void exportThenImport_everyFormat_tasksRoundTrip() throws JaxException {
+        LocalDateTime start = LocalDateTime.of(2026, 3, 2, 9, 0);
+        Task done = new Todo("read, \"quoted\" book");
+        done.markTask();
+        List<Task> original = List.of(done,
+                new Deadline("return book", start),
+                new Event("camp", start, start.plusDays(2)),
+                new RecurringEvent("standup", start, start.plusMinutes(15), RecurringEvent.Frequency.WEEKLY,
+                        LocalDate.of(2026, 6, 1), 0),
+                new RecurringEvent("rent", start, start, RecurringEvent.Frequency.MONTHLY, null, 12));
+
+        for (String extension : new String[] {".csv", ".jsonl", ".ics"}) {
+            String file = "tasks" + extension;
+            assertEquals("Exported 5 tasks to " + file + ".",
+                    DataTransfer.exportTasks(new TaskList(original, newStorage("export")), dir, file));
+            TaskList imported = newTaskList(extension);
+
+            assertEquals("Imported 5 tasks from " + file + ".", DataTransfer.importTasks(dir, file, imported));
+            for (int i = 0; i < original.size(); i++) {
+                assertEquals(original.get(i).toString(), imported.getTasks().get(i).toString(), extension);
+            }
+        }
+    }
+
+    @Test
+    public void importTasks_invalidRecords_skippedWithLineNumbers() throws IOException, JaxException {
+        Path file = dir.resolve("tasks.csv");
+        Files.writeString(file, "type,description,by\n"
+                + "todo,read book,\n"
+                + "deadline,return book,2026-13-01 1800\n"
+                + "chore,sweep,\n"
+                + "\"deadline\",\"multi\nline\",2026-03-01 1800\n", StandardCharsets.UTF_8);
+        TaskList tasks = newTaskList("invalid");
+
+        String summary = DataTransfer.importTasks(dir, "tasks.csv", tasks);
+
+        assertTrue(summary.startsWith("Imported 2 tasks from tasks.csv.\nSkipped 2 invalid records:"
+                + "\n  line 3: Error - "), summary);
+        assertTrue(summary.endsWith("\n  line 4: Error - Unknown task type \"chore\". Use todo, deadline, event "
+                + "or recur."), summary);
+        assertEquals(2, tasks.getTasks().size());
+        assertEquals("multi\nline", tasks.getTasks().get(1).getDescription());
+    }
+
+    @Test
+    public void importTasks_iCalendarInUtcWithAlarm_convertedToLocalTime() throws IOException, JaxException {
+        LocalDateTime due = LocalDateTime.of(2026, 3, 2, 9, 0);
+        String utc = due.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC)
+                .toLocalDateTime().format(ICalendarWriter.DATE_TIME_FORMAT);
+        Path file = dir.resolve("calendar.ics");
+        Files.writeString(file, "BEGIN:VCALENDAR\r\nBEGIN:VTODO\r\nSUMMARY:submit\r\n  report\r\n"
+                + "DUE:" + utc + "Z\r\nBEGIN:VALARM\r\nSUMMARY:ignored\r\nEND:VALARM\r\nEND:VTODO\r\n"
+                + "BEGIN:VEVENT\r\nSUMMARY:gym\r\nDTSTART:20260302T180000\r\nRRULE:FREQ=WEEKLY;INTERVAL=2\r\n"
+                + "END:VEVENT\r\nEND:VCALENDAR\r\n", StandardCharsets.UTF_8);
+        TaskList tasks = newTaskList("ics");
+
+        String summary = DataTransfer.importTasks(dir, "calendar.ics", tasks);
+
+        assertTrue(summary.startsWith("Imported 1 tasks from calendar.ics.\nSkipped 1 invalid records:"), summary);
+        assertEquals(new Deadline("submit report", due).toString(), tasks.getTasks().get(0).toString());
+    }
+
+    @Test
+    public void importContacts_takenEmail_skippedAndIcsRejected() throws IOException, JaxException {
+        Path file = dir.resolve("contacts.jsonl");
+        Files.writeString(file, "{\"name\":\"Ann\",\"phone\":\"9123 4567\",\"email\":\"ann@example.com\"}\n"
+                + "{\"name\":\"Bob\",\"phone\":\"8123 4567\",\"email\":\"ANN@example.com\"}\n", StandardCharsets.UTF_8);
+        ContactList contacts = new ContactList(newStorage("contacts"));
+
+        String summary = DataTransfer.importContacts(dir, "contacts.jsonl", contacts);
+
+        assertTrue(summary.startsWith("Imported 1 contacts from contacts.jsonl.\nSkipped 1 invalid records:"
+                + "\n  line 2: Error - Ann already has the email"), summary);
+        assertThrows(JaxException.class, () -> DataTransfer.exportContacts(
+                List.of(new Contact("Ann", "9123 4567", "ann@example.com")), dir, "c.ics"));
+    }
+
+    @Test
+    public void transfer_fileOutsideDataDirectory_rejected() throws IOException {
+        Path outside = Files.writeString(dir.resolve("outside.csv"), "type,description\ntodo,read book\n");
+        Path data = Files.createDirectory(dir.resolve("data"));
+        TaskList tasks = newTaskList("outside");
+
+        assertThrows(JaxException.class, () -> DataTransfer.importTasks(data, "../outside.csv", tasks));
+        assertThrows(JaxException.class, () -> DataTransfer.importTasks(data, outside.toString(), tasks));
+        assertThrows(JaxException.class, () -> DataTransfer.exportTasks(tasks, data, "sub/../../outside.csv"));
+        assertEquals(0, tasks.getTasks().size());
+        assertEquals("type,description\ntodo,read book\n", Files.readString(outside));
+    }
+
+    @Test
+    public void importTasks_severalBatches_journaledAndReloaded() throws IOException, JaxException {
+        StringBuilder csv = new StringBuilder("type,description\n");
+        for (int i = 0; i < 2 * DataTransfer.BATCH_SIZE + 1; i++) {
+            csv.append("todo,task ").append(i).append('\n');
+        }
+        Files.writeString(dir.resolve("many.csv"), csv, StandardCharsets.UTF_8);
+        Storage storage = newStorage("many");
+        TaskList tasks = new TaskList(storage);
+
+        DataTransfer.importTasks(dir, "many.csv", tasks);
+        storage.flush();
+        List<Task> loaded = newStorage("many").loadTasks();
+
+        assertEquals(2 * DataTransfer.BATCH_SIZE + 1, loaded.size());
+        assertEquals("task " + (2 * DataTransfer.BATCH_SIZE), loaded.get(loaded.size() - 1).getDescription());
+    }
+
+    private TaskList newTaskList(String name) {
+        return new TaskList(newStorage(name));
+    }
+
+    private Storage newStorage(String name) {
+        return new Storage(dir.resolve(name + "_tasks.txt").toString(), dir.resolve(name + "_contacts.txt").toString());
+    }
+}